@@ -0,0 +1,73 @@
+import java.nio.ByteBuffer;
+
+// Acumula média e variância amostral de forma incremental (algoritmo de Welford)
+public class AcumuladorMedia {
+    // Quantis t de Student (bicaudal, 95%) para 1..30 graus de liberdade
+    private static final double[] T_95 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private long n;
+    private double media;
+    private double m2;
+
+    public void adicionar(double x) {
+        n++;
+        double delta = x - media;
+        media += delta / n;
+        m2 += delta * (x - media);
+    }
+
+    // Combina outro acumulador neste (fórmula de Chan et al.)
+    public void combinar(AcumuladorMedia outro) {
+        if (outro.n == 0) return;
+        long total = n + outro.n;
+        double delta = outro.media - media;
+        media += delta * outro.n / total;
+        m2 += outro.m2 + delta * delta * ((double) n * outro.n / total);
+        n = total;
+    }
+
+    public void reset() {
+        n = 0;
+        media = 0.0;
+        m2 = 0.0;
+    }
+
+    public void salvarEstado(EstadoBinario out) {
+        out.putLong(n);
+        out.putDouble(media);
+        out.putDouble(m2);
+    }
+
+    public void restaurarEstado(ByteBuffer in) {
+        n = in.getLong();
+        media = in.getDouble();
+        m2 = in.getDouble();
+    }
+
+    public long getN() {
+        return n;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    public double getVariancia() {
+        return n > 1 ? m2 / (n - 1) : 0.0;
+    }
+
+    // Semi-amplitude do intervalo de confiança de 95% para a média
+    public double getSemiAmplitudeIC95() {
+        if (n < 2) return Double.NaN;
+        return quantilT95(n - 1) * Math.sqrt(getVariancia() / n);
+    }
+
+    public static double quantilT95(long grausLiberdade) {
+        if (grausLiberdade <= T_95.length) return T_95[(int) grausLiberdade - 1];
+        return 1.960 + 2.5 / grausLiberdade; // aproximação assintótica
+    }
+}
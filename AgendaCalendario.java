@@ -0,0 +1,256 @@
+import java.util.Arrays;
+
+// Agenda em "calendar queue" (Brown, 1988): os eventos são distribuídos em
+// baldes de largura fixa, como os dias de um calendário, e cada balde mantém
+// uma lista ordenada. Inserção e remoção custam O(1) amortizado quando a
+// largura acompanha o espaçamento médio entre eventos, o que é reajustado
+// sempre que o número de eventos dobra ou cai à metade.
+// Os eventos ficam em arrays paralelos de primitivos com lista livre de slots,
+// e as listas dos baldes são encadeadas por índice (sem alocação por evento).
+public class AgendaCalendario implements AgendaEventos {
+
+    private static final int BALDES_MINIMOS = 16;
+    private static final int AMOSTRA_LARGURA = 25;
+
+    // Dados dos eventos, indexados por slot
+    private double[] tempos;
+    private long[] sequencias;
+    private long[] dados;
+    private int[] proximo; // próximo slot na lista do balde (-1 = fim)
+
+    private int[] livres;
+    private int numLivres;
+    private int slotsUsados;
+
+    // Baldes
+    private int[] cabecas;
+    private int numBaldes;
+    private double largura;
+    private long anoBalde; // índice virtual do balde corrente: (long) (tempo / largura)
+
+    private int tamanho;
+    private long proximaSequencia;
+    private boolean redimensionando;
+
+    // Evento removido por último
+    private double tempoAtual;
+    private long dadosAtual;
+
+    // Área de trabalho do redimensionamento
+    private int[] amostra = new int[AMOSTRA_LARGURA];
+
+    public AgendaCalendario() {
+        int cap = 64;
+        tempos = new double[cap];
+        sequencias = new long[cap];
+        dados = new long[cap];
+        proximo = new int[cap];
+        livres = new int[cap];
+        cabecas = new int[BALDES_MINIMOS];
+        limpar();
+    }
+
+    @Override
+    public void agendar(double tempo, int tipo, int filaOrigem, int filaDestino) {
+        int slot;
+        if (numLivres > 0) {
+            slot = livres[--numLivres];
+        } else {
+            if (slotsUsados == tempos.length) crescer();
+            slot = slotsUsados++;
+        }
+        tempos[slot] = tempo;
+        sequencias[slot] = proximaSequencia++;
+        dados[slot] = AgendaHeap.empacotar(tipo, filaOrigem, filaDestino);
+        inserir(slot);
+        tamanho++;
+        if (!redimensionando && tamanho > 2 * numBaldes) redimensionar(numBaldes * 2);
+    }
+
+    @Override
+    public void removerProximo() {
+        if (tamanho == 0) throw new IllegalStateException("Agenda vazia");
+        int slot = retirar();
+        tempoAtual = tempos[slot];
+        dadosAtual = dados[slot];
+        livres[numLivres++] = slot;
+        if (!redimensionando && numBaldes > BALDES_MINIMOS && tamanho < numBaldes / 2) {
+            redimensionar(numBaldes / 2);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public double tempo() {
+        return tempoAtual;
+    }
+
+    @Override
+    public int tipo() {
+        return AgendaHeap.tipoDe(dadosAtual);
+    }
+
+    @Override
+    public int filaOrigem() {
+        return AgendaHeap.origemDe(dadosAtual);
+    }
+
+    @Override
+    public int filaDestino() {
+        return AgendaHeap.destinoDe(dadosAtual);
+    }
+
+    @Override
+    public AgendaEventos nova() {
+        return new AgendaCalendario();
+    }
+
+    @Override
+    public void limpar() {
+        tamanho = 0;
+        numLivres = 0;
+        slotsUsados = 0;
+        proximaSequencia = 0;
+        numBaldes = BALDES_MINIMOS;
+        largura = 1.0;
+        anoBalde = 0;
+        tempoAtual = 0.0;
+        Arrays.fill(cabecas, -1);
+    }
+
+    private long anoDe(double tempo) {
+        return (long) (tempo / largura);
+    }
+
+    private boolean antes(int a, int b) {
+        double ta = tempos[a], tb = tempos[b];
+        return ta < tb || (ta == tb && sequencias[a] < sequencias[b]);
+    }
+
+    // Insere o slot na lista ordenada do seu balde
+    private void inserir(int slot) {
+        int balde = (int) (anoDe(tempos[slot]) & (numBaldes - 1));
+        int atual = cabecas[balde];
+        if (atual == -1 || antes(slot, atual)) {
+            proximo[slot] = atual;
+            cabecas[balde] = slot;
+            return;
+        }
+        int anterior = atual;
+        atual = proximo[atual];
+        while (atual != -1 && !antes(slot, atual)) {
+            anterior = atual;
+            atual = proximo[atual];
+        }
+        proximo[slot] = atual;
+        proximo[anterior] = slot;
+    }
+
+    // Retira o evento de menor tempo
+    private int retirar() {
+        int mascara = numBaldes - 1;
+        long ano = anoBalde;
+        for (int k = 0; k < numBaldes; k++, ano++) {
+            int balde = (int) (ano & mascara);
+            int cabeca = cabecas[balde];
+            if (cabeca != -1 && anoDe(tempos[cabeca]) <= ano) {
+                cabecas[balde] = proximo[cabeca];
+                anoBalde = ano;
+                tamanho--;
+                return cabeca;
+            }
+        }
+
+        // Nenhum evento no próximo "ano": busca direta pelo menor entre as cabeças
+        int melhor = -1;
+        int melhorBalde = -1;
+        for (int b = 0; b < numBaldes; b++) {
+            int cabeca = cabecas[b];
+            if (cabeca != -1 && (melhor == -1 || antes(cabeca, melhor))) {
+                melhor = cabeca;
+                melhorBalde = b;
+            }
+        }
+        cabecas[melhorBalde] = proximo[melhor];
+        anoBalde = anoDe(tempos[melhor]);
+        tamanho--;
+        return melhor;
+    }
+
+    // Reorganiza os eventos em novoNumBaldes baldes com largura reestimada
+    private void redimensionar(int novoNumBaldes) {
+        redimensionando = true;
+
+        // estima a largura pelo espaçamento médio dos primeiros eventos (Brown, 1988)
+        int n = Math.min(tamanho, AMOSTRA_LARGURA);
+        for (int i = 0; i < n; i++) amostra[i] = retirar();
+        double novaLargura = estimarLargura(n);
+        for (int i = 0; i < n; i++) {
+            inserir(amostra[i]);
+            tamanho++;
+        }
+
+        // recoloca todos os eventos nos novos baldes
+        int[] antigas = cabecas;
+        int antigosBaldes = numBaldes;
+        if (cabecas.length < novoNumBaldes) cabecas = new int[novoNumBaldes];
+        numBaldes = novoNumBaldes;
+        largura = novaLargura;
+        int[] novas = cabecas;
+        int lista = -1; // concatena as listas antigas antes de redistribuir
+        for (int b = 0; b < antigosBaldes; b++) {
+            int s = antigas[b];
+            while (s != -1) {
+                int seguinte = proximo[s];
+                proximo[s] = lista;
+                lista = s;
+                s = seguinte;
+            }
+        }
+        Arrays.fill(novas, 0, numBaldes, -1);
+        while (lista != -1) {
+            int seguinte = proximo[lista];
+            inserir(lista);
+            lista = seguinte;
+        }
+        anoBalde = anoDe(tempoAtual);
+
+        redimensionando = false;
+    }
+
+    private double estimarLargura(int n) {
+        if (n < 2) return largura;
+        double total = tempos[amostra[n - 1]] - tempos[amostra[0]];
+        double media = total / (n - 1);
+        // descarta separações muito grandes e refaz a média
+        double soma = 0.0;
+        int contagem = 0;
+        for (int i = 1; i < n; i++) {
+            double sep = tempos[amostra[i]] - tempos[amostra[i - 1]];
+            if (sep <= 2 * media) {
+                soma += sep;
+                contagem++;
+            }
+        }
+        double sepMedia = contagem > 0 ? soma / contagem : media;
+        return sepMedia > 0 ? 3.0 * sepMedia : largura;
+    }
+
+    private void crescer() {
+        int cap = tempos.length * 2;
+        tempos = Arrays.copyOf(tempos, cap);
+        sequencias = Arrays.copyOf(sequencias, cap);
+        dados = Arrays.copyOf(dados, cap);
+        proximo = Arrays.copyOf(proximo, cap);
+        livres = Arrays.copyOf(livres, cap);
+    }
+}
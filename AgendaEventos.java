@@ -0,0 +1,30 @@
+// Lista de eventos futuros do simulador. Os eventos são descritos apenas por
+// primitivos (tempo, tipo, fila de origem e fila de destino), de forma que as
+// implementações podem guardá-los sem alocar um objeto por evento.
+//
+// Uso: agendar(...) insere; removerProximo() retira o evento de menor tempo e
+// deixa seus campos disponíveis em tempo()/tipo()/filaOrigem()/filaDestino().
+// Eventos com o mesmo tempo saem na ordem em que foram agendados.
+public interface AgendaEventos {
+
+    void agendar(double tempo, int tipo, int filaOrigem, int filaDestino);
+
+    boolean isEmpty();
+
+    int tamanho();
+
+    void removerProximo();
+
+    double tempo();
+
+    int tipo();
+
+    int filaOrigem();
+
+    int filaDestino();
+
+    void limpar();
+
+    // Agenda vazia da mesma implementação (cópias do simulador mantêm a escolhida)
+    AgendaEventos nova();
+}
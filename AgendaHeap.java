@@ -0,0 +1,171 @@
+import java.util.Arrays;
+
+// Agenda em heap binário indexado sobre arrays paralelos de primitivos.
+// Cada evento ocupa um "slot" reaproveitado via lista livre, e o heap ordena
+// apenas os índices dos slots. Após o aquecimento não há alocação.
+public class AgendaHeap implements AgendaEventos {
+
+    // Dados dos eventos, indexados por slot
+    private double[] tempos;
+    private long[] sequencias;
+    private long[] dados; // tipo, origem e destino empacotados
+
+    // Heap de slots (heap[0] é o próximo evento)
+    private int[] heap;
+    private int tamanho;
+
+    // Slots livres para reaproveitamento
+    private int[] livres;
+    private int numLivres;
+    private int slotsUsados;
+
+    private long proximaSequencia;
+
+    // Evento removido por último
+    private double tempoAtual;
+    private long dadosAtual;
+
+    public AgendaHeap() {
+        this(64);
+    }
+
+    public AgendaHeap(int capacidadeInicial) {
+        int cap = Math.max(capacidadeInicial, 4);
+        tempos = new double[cap];
+        sequencias = new long[cap];
+        dados = new long[cap];
+        heap = new int[cap];
+        livres = new int[cap];
+    }
+
+    @Override
+    public void agendar(double tempo, int tipo, int filaOrigem, int filaDestino) {
+        int slot;
+        if (numLivres > 0) {
+            slot = livres[--numLivres];
+        } else {
+            if (slotsUsados == tempos.length) crescer();
+            slot = slotsUsados++;
+        }
+        tempos[slot] = tempo;
+        sequencias[slot] = proximaSequencia++;
+        dados[slot] = empacotar(tipo, filaOrigem, filaDestino);
+        heap[tamanho] = slot;
+        subir(tamanho++);
+    }
+
+    @Override
+    public void removerProximo() {
+        if (tamanho == 0) throw new IllegalStateException("Agenda vazia");
+        int slot = heap[0];
+        tempoAtual = tempos[slot];
+        dadosAtual = dados[slot];
+        livres[numLivres++] = slot;
+        heap[0] = heap[--tamanho];
+        if (tamanho > 0) descer(0);
+    }
+
+    // Tempo do próximo evento, sem removê-lo (agenda não vazia)
+    public double proximoTempo() {
+        return tempos[heap[0]];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public double tempo() {
+        return tempoAtual;
+    }
+
+    @Override
+    public int tipo() {
+        return tipoDe(dadosAtual);
+    }
+
+    @Override
+    public int filaOrigem() {
+        return origemDe(dadosAtual);
+    }
+
+    @Override
+    public int filaDestino() {
+        return destinoDe(dadosAtual);
+    }
+
+    @Override
+    public AgendaEventos nova() {
+        return new AgendaHeap();
+    }
+
+    @Override
+    public void limpar() {
+        tamanho = 0;
+        numLivres = 0;
+        slotsUsados = 0;
+        proximaSequencia = 0;
+    }
+
+    private boolean antes(int a, int b) {
+        double ta = tempos[a], tb = tempos[b];
+        return ta < tb || (ta == tb && sequencias[a] < sequencias[b]);
+    }
+
+    private void subir(int i) {
+        int slot = heap[i];
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            if (!antes(slot, heap[pai])) break;
+            heap[i] = heap[pai];
+            i = pai;
+        }
+        heap[i] = slot;
+    }
+
+    private void descer(int i) {
+        int slot = heap[i];
+        int metade = tamanho >>> 1;
+        while (i < metade) {
+            int filho = 2 * i + 1;
+            int direito = filho + 1;
+            if (direito < tamanho && antes(heap[direito], heap[filho])) filho = direito;
+            if (!antes(heap[filho], slot)) break;
+            heap[i] = heap[filho];
+            i = filho;
+        }
+        heap[i] = slot;
+    }
+
+    private void crescer() {
+        int cap = tempos.length * 2;
+        tempos = Arrays.copyOf(tempos, cap);
+        sequencias = Arrays.copyOf(sequencias, cap);
+        dados = Arrays.copyOf(dados, cap);
+        heap = Arrays.copyOf(heap, cap);
+        livres = Arrays.copyOf(livres, cap);
+    }
+
+    // tipo (4 bits) | origem + 1 (30 bits) | destino + 1 (30 bits)
+    static long empacotar(int tipo, int filaOrigem, int filaDestino) {
+        return ((long) tipo << 60) | ((long) (filaOrigem + 1) << 30) | (filaDestino + 1);
+    }
+
+    static int tipoDe(long d) {
+        return (int) (d >>> 60);
+    }
+
+    static int origemDe(long d) {
+        return (int) ((d >>> 30) & 0x3FFFFFFFL) - 1;
+    }
+
+    static int destinoDe(long d) {
+        return (int) (d & 0x3FFFFFFFL) - 1;
+    }
+}
@@ -0,0 +1,64 @@
+import java.util.PriorityQueue;
+
+// Agenda original: um objeto Evento por evento em uma PriorityQueue.
+// Mantida como referência para comparação com as agendas sem alocação.
+public class AgendaObjetos implements AgendaEventos {
+
+    private final PriorityQueue<Evento> fila = new PriorityQueue<>();
+    private long proximaSequencia;
+    private Evento atual;
+
+    @Override
+    public void agendar(double tempo, int tipo, int filaOrigem, int filaDestino) {
+        Evento e = new Evento(tempo, tipo, filaOrigem, filaDestino);
+        e.sequencia = proximaSequencia++;
+        fila.add(e);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return fila.isEmpty();
+    }
+
+    @Override
+    public int tamanho() {
+        return fila.size();
+    }
+
+    @Override
+    public void removerProximo() {
+        atual = fila.remove();
+    }
+
+    @Override
+    public double tempo() {
+        return atual.tempo;
+    }
+
+    @Override
+    public int tipo() {
+        return atual.tipo;
+    }
+
+    @Override
+    public int filaOrigem() {
+        return atual.filaOrigem;
+    }
+
+    @Override
+    public int filaDestino() {
+        return atual.filaDestino;
+    }
+
+    @Override
+    public AgendaEventos nova() {
+        return new AgendaObjetos();
+    }
+
+    @Override
+    public void limpar() {
+        fila.clear();
+        proximaSequencia = 0;
+        atual = null;
+    }
+}
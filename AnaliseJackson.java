@@ -0,0 +1,220 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Solução analítica da rede descrita pela configuração, sem simulação. As equações de
+// tráfego lambda_j = gama_j + soma_i vazao_i * p_ij são resolvidas por Gauss-Seidel
+// sobre as rotas (esparsas); cada fila é então tratada isoladamente (forma produto das
+// redes de Jackson abertas): M/M/c para capacidade infinita e M/M/c/K para finita.
+// Com capacidade finita a vazão que segue adiante é lambda * (1 - P(bloqueio)), e o
+// bloqueio entra na iteração. Para atendimentos e chegadas não exponenciais, a espera
+// usa a aproximação de Allen-Cunneen com os coeficientes de variação das chegadas
+// propagados pela rede como no QNA (Whitt).
+//
+// Exato para redes abertas de filas M/M/c infinitas e para uma fila M/M/c/K isolada;
+// nos demais casos serve de triagem rápida e de referência para conferir o simulador.
+public class AnaliseJackson {
+
+    private static final int MAX_ITERACOES = 100_000;
+    private static final double TOLERANCIA = 1e-12;
+
+    // Métricas de uma fila (tempos nas unidades do YAML)
+    public static class ResultadoNo {
+        public final String nome;
+        public final int servidores;
+        public final int capacidade;
+        public final double chegada;        // taxa oferecida (externa + rotas)
+        public final double vazao;          // taxa atendida (descontado o bloqueio)
+        public final double utilizacao;     // por servidor
+        public final double populacao;      // L
+        public final double fila;           // Lq
+        public final double permanencia;    // W
+        public final double espera;         // Wq
+        public final double probVazia;      // P0
+        public final double probBloqueio;   // P(K) (0 com capacidade infinita)
+        public final double taxaPerdas;
+        public final boolean estavel;
+        public final boolean exato;
+
+        ResultadoNo(String nome, int servidores, int capacidade, double chegada, double vazao, double utilizacao,
+                    double populacao, double fila, double permanencia, double espera, double probVazia,
+                    double probBloqueio, boolean estavel, boolean exato) {
+            this.nome = nome;
+            this.servidores = servidores;
+            this.capacidade = capacidade;
+            this.chegada = chegada;
+            this.vazao = vazao;
+            this.utilizacao = utilizacao;
+            this.populacao = populacao;
+            this.fila = fila;
+            this.permanencia = permanencia;
+            this.espera = espera;
+            this.probVazia = probVazia;
+            this.probBloqueio = probBloqueio;
+            this.taxaPerdas = chegada - vazao;
+            this.estavel = estavel;
+            this.exato = exato;
+        }
+    }
+
+    // Métricas de uma fila isolada com chegadas de taxa lambda
+    private static class No {
+        double probVazia, probBloqueio, populacao, fila, vazao;
+        boolean estavel = true;
+    }
+
+    public static List<ResultadoNo> resolver(EspecificacaoRede config) {
+        int n = config.filas.size();
+        double[] externa = new double[n];       // gama_j
+        double[] scvExterna = new double[n];
+        double[] mu = new double[n];
+        double[] scvServico = new double[n];
+        boolean exponencial = true;
+        boolean finita = false;
+        for (int j = 0; j < n; j++) {
+            EspecificacaoFila f = config.filas.get(j);
+            if (config.chegadas.containsKey(f.nome)) {
+                externa[j] = 1.0 / f.chegada.media();
+                scvExterna[j] = scv(f.chegada);
+                exponencial &= f.chegada instanceof DistribuicaoExponencial;
+            }
+            mu[j] = 1.0 / f.atendimento.media();
+            scvServico[j] = scv(f.atendimento);
+            exponencial &= f.atendimento instanceof DistribuicaoExponencial;
+            finita |= !f.isInfinita();
+        }
+
+        // rotas de entrada de cada fila (matriz de roteamento esparsa)
+        List<List<double[]>> entradas = new ArrayList<>();
+        for (int j = 0; j < n; j++) entradas.add(new ArrayList<>());
+        for (EspecificacaoRota r : config.rotas) {
+            entradas.get(config.indiceDe(r.destino)).add(new double[] { config.indiceDe(r.origem), r.probabilidade });
+        }
+
+        double[] lambda = externa.clone();
+        double[] vazao = externa.clone();
+        double[] scvChegada = scvExterna.clone();
+        double[] scvSaida = new double[n];
+        No[] nos = new No[n];
+        boolean convergiu = false;
+        for (int iteracao = 0; iteracao < MAX_ITERACOES && !convergiu; iteracao++) {
+            convergiu = true;
+            for (int j = 0; j < n; j++) {
+                EspecificacaoFila f = config.filas.get(j);
+                double novo = externa[j];
+                double ponderado = externa[j] * scvExterna[j];
+                for (double[] e : entradas.get(j)) {
+                    int i = (int) e[0];
+                    double fluxo = vazao[i] * e[1];
+                    novo += fluxo;
+                    // divisão de Bernoulli da saída de i: p * cd² + 1 - p
+                    ponderado += fluxo * (e[1] * scvSaida[i] + 1 - e[1]);
+                }
+                if (Math.abs(novo - lambda[j]) > TOLERANCIA * (1 + novo)) convergiu = false;
+                lambda[j] = novo;
+                scvChegada[j] = novo > 0 ? ponderado / novo : 1.0;
+
+                nos[j] = resolverNo(novo, mu[j], f.servidores, f.capacidade);
+                double novaVazao = nos[j].vazao;
+                if (Math.abs(novaVazao - vazao[j]) > TOLERANCIA * (1 + novaVazao)) convergiu = false;
+                vazao[j] = novaVazao;
+                double rho = Math.min(1.0, novaVazao / (f.servidores * mu[j]));
+                scvSaida[j] = 1 + (1 - rho * rho) * (scvChegada[j] - 1)
+                        + rho * rho * (scvServico[j] - 1) / Math.sqrt(f.servidores);
+            }
+        }
+        if (!convergiu) throw new IllegalStateException("Equações de tráfego não convergiram");
+
+        List<ResultadoNo> resultados = new ArrayList<>(n);
+        for (int j = 0; j < n; j++) {
+            EspecificacaoFila f = config.filas.get(j);
+            No no = nos[j];
+            double fila = no.fila;
+            // Allen-Cunneen: Wq(G/G/c) ~ Wq(M/M/c) * (ca² + cs²) / 2 (só para capacidade infinita;
+            // com capacidade finita fica o valor M/M/c/K)
+            if (f.isInfinita() && no.estavel) fila *= (scvChegada[j] + scvServico[j]) / 2;
+            double ocupados = no.vazao / mu[j];
+            double populacao = no.estavel ? fila + ocupados : Double.POSITIVE_INFINITY;
+            if (!no.estavel) fila = Double.POSITIVE_INFINITY;
+            // com capacidade finita, só uma fila sem rotas é exata: a realimentação de uma
+            // fila para ela mesma nunca é bloqueada, mas resolverNo a trataria como chegada
+            boolean exato = exponencial && (!finita || (n == 1 && config.rotas.isEmpty()));
+            resultados.add(new ResultadoNo(f.nome, f.servidores, f.capacidade, lambda[j], no.vazao,
+                    ocupados / f.servidores, populacao, fila, populacao / no.vazao, fila / no.vazao,
+                    no.probVazia, no.probBloqueio, no.estavel, exato));
+        }
+        return resultados;
+    }
+
+    // Quadrado do coeficiente de variação
+    private static double scv(Distribuicao d) {
+        double m = d.media();
+        return m > 0 ? d.variancia() / (m * m) : 0.0;
+    }
+
+    // M/M/c (capacidade infinita) ou M/M/c/K; os termos a^n/n! (e a^n/(c! c^(n-c)) acima de c)
+    // são calculados por razão para não estourar
+    private static No resolverNo(double lambda, double mu, int c, int capacidade) {
+        No no = new No();
+        double a = lambda / mu;
+        if (lambda == 0) {
+            no.probVazia = 1.0;
+            return no;
+        }
+        if (capacidade == Fila.INFINITA) {
+            double rho = a / c;
+            if (rho >= 1) {
+                no.estavel = false;
+                no.vazao = c * mu;
+                no.probVazia = 0.0;
+                no.populacao = no.fila = Double.POSITIVE_INFINITY;
+                return no;
+            }
+            double termo = 1.0, soma = 0.0;
+            for (int k = 0; k < c; k++) {
+                soma += termo;
+                termo *= a / (k + 1);
+            }
+            // termo = a^c / c!
+            double cauda = termo / (1 - rho);
+            no.probVazia = 1.0 / (soma + cauda);
+            double erlangC = cauda * no.probVazia;
+            no.fila = erlangC * rho / (1 - rho);
+            no.populacao = no.fila + a;
+            no.vazao = lambda;
+            return no;
+        }
+        double termo = 1.0, zero = 1.0, soma = 0.0, somaN = 0.0, somaFila = 0.0;
+        for (int k = 0; k <= capacidade; k++) {
+            soma += termo;
+            somaN += k * termo;
+            if (k > c) somaFila += (k - c) * termo;
+            if (k < capacidade) termo *= a / Math.min(k + 1, c);
+            if (soma > 1e250) { // reescala para capacidades grandes com a > c
+                termo /= soma;
+                zero /= soma;
+                somaN /= soma;
+                somaFila /= soma;
+                soma = 1.0;
+            }
+        }
+        // termo = p_K não normalizado
+        no.probBloqueio = termo / soma;
+        no.probVazia = zero / soma;
+        no.populacao = somaN / soma;
+        no.fila = somaFila / soma;
+        no.vazao = lambda * (1 - no.probBloqueio);
+        return no;
+    }
+
+    public static void imprimir(List<ResultadoNo> resultados, PrintStream out) {
+        out.printf("%-14s %3s %5s %9s %9s %7s %9s %9s %9s %9s %7s %8s%n", "Fila", "c", "K", "Chegada", "Vazão",
+                "Util.", "L", "Lq", "W", "Wq", "P0", "Bloqueio");
+        for (ResultadoNo r : resultados) {
+            out.printf("%-14s %3d %5s %9.4f %9.4f %7.4f %9.4f %9.4f %9.4f %9.4f %7.4f %8.5f %s%n", r.nome, r.servidores,
+                    r.capacidade == Fila.INFINITA ? "inf" : String.valueOf(r.capacidade), r.chegada, r.vazao,
+                    r.utilizacao, r.populacao, r.fila, r.permanencia, r.espera, r.probVazia, r.probBloqueio,
+                    !r.estavel ? "(instável)" : r.exato ? "(exato)" : "(aprox.)");
+        }
+    }
+}
@@ -0,0 +1,213 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Benchmarks do núcleo da simulação (sem dependências externas).
+// Cada caso roda algumas iterações de aquecimento e depois iterações medidas,
+// reportando operações/s, eventos/s, bytes alocados por operação e tempo de GC.
+//
+// Uso:  java Benchmark [filtro]    (ex.: java Benchmark agenda)
+public class Benchmark {
+
+    private static final int AQUECIMENTO = 3;
+    private static final int MEDICOES = 5;
+
+    // Resultado acumulado para impedir que o JIT elimine o trabalho medido
+    private static volatile double sumidouro;
+
+    // Casos que alocam em outras threads: a alocação é medida só na thread atual
+    // (e as outras threads terminam a cada operação), então bytes/op sai como n/d
+    private static final Set<String> OUTRAS_THREADS = new HashSet<>();
+
+    interface Caso {
+        // Executa uma operação e devolve quantos eventos (ou itens) ela processou
+        long executar();
+    }
+
+    public static void main(String[] args) {
+        String filtro = args.length > 0 ? args[0] : "";
+        List<String> nomes = new ArrayList<>();
+        List<Caso> casos = new ArrayList<>();
+
+        adicionar(nomes, casos, "lcg.nextRandom", () -> sortear(new LCG(1)));
+        adicionar(nomes, casos, "lcg-mascara.nextRandom", () -> sortear(new LCGMascara(1)));
+        adicionar(nomes, casos, "xoshiro.nextRandom", () -> sortear(new Xoshiro256(1)));
+
+        for (String d : new String[] {"uniform 1 2", "exponential 1", "erlang 3 1", "lognormal 1 0.5", "triangular 1 2 4"}) {
+            Distribuicao distribuicao = Distribuicao.criar(d);
+            adicionar(nomes, casos, "distribuicao." + d.split(" ")[0], () -> amostrar(distribuicao, new Xoshiro256(1)));
+        }
+
+        for (int tamanho : new int[] {100, 10_000}) {
+            adicionar(nomes, casos, "agenda.heap/" + tamanho, () -> hold(new AgendaHeap(), tamanho));
+            adicionar(nomes, casos, "agenda.calendario/" + tamanho, () -> hold(new AgendaCalendario(), tamanho));
+            adicionar(nomes, casos, "agenda.objetos/" + tamanho, () -> hold(new AgendaObjetos(), tamanho));
+        }
+
+        for (String arquivo : new String[] {"Tandem.yml", "Hospital.yml"}) {
+            EspecificacaoRede config = ConfigLoader.carregar(arquivo);
+            adicionar(nomes, casos, "config.yaml/" + arquivo, () -> {
+                sumidouro += ConfigLoader.carregar(arquivo).filas.size();
+                return 1;
+            });
+            adicionar(nomes, casos, "config.cache/" + arquivo, () -> {
+                sumidouro += ConfigLoader.carregarComCache(arquivo).filas.size();
+                return 1;
+            });
+            adicionar(nomes, casos, "simular/" + arquivo, () -> {
+                Simulador simulador = Main.construirSimulador(config, 1);
+                simulador.executar();
+                sumidouro += simulador.getTempoGlobal();
+                return simulador.getEventosProcessados();
+            });
+            // K replicações por operação no mesmo thread (compare eventos/s com simular/)
+            for (int raias : new int[] {8, 32}) {
+                adicionar(nomes, casos, "lockstep-" + raias + "/" + arquivo, () -> {
+                    List<GeradorAleatorio> geradores = new ArrayList<>();
+                    for (int r = 0; r < raias; r++) geradores.add(new LCG(1 + r));
+                    SimuladorLockstep motor = new SimuladorLockstep(config, geradores);
+                    motor.executar();
+                    long eventos = 0;
+                    for (int r = 0; r < raias; r++) eventos += motor.getResultado(r, r).eventos;
+                    return eventos;
+                });
+            }
+        }
+
+        for (int n : new int[] {10, 100, 1000}) {
+            adicionar(nomes, casos, "simular/sintetica-" + n, () -> {
+                Simulador simulador = redeSintetica(n, 1, 1_000_000);
+                simulador.executar();
+                sumidouro += simulador.getTempoGlobal();
+                return simulador.getEventosProcessados();
+            });
+        }
+
+        // uma execução da mesma rede no motor sequencial e em 4 processos lógicos (ver SimuladorParalelo)
+        for (int n : new int[] {100, 1000}) {
+            EspecificacaoRede config = configSintetica(n, 200_000.0 / n);
+            adicionar(nomes, casos, "sequencial/sintetica-" + n, () -> {
+                Simulador simulador = Main.construirSimulador(config, new Xoshiro256(1));
+                simulador.executar();
+                sumidouro += simulador.getTempoGlobal();
+                return simulador.getEventosProcessados();
+            });
+            OUTRAS_THREADS.add("paralelo-4/sintetica-" + n);
+            adicionar(nomes, casos, "paralelo-4/sintetica-" + n, () -> {
+                SimuladorParalelo simulador = new SimuladorParalelo(config, new Xoshiro256(1), 4);
+                simulador.executar();
+                ResultadoSimulacao resultado = simulador.getResultado(1);
+                sumidouro += resultado.tempoTotal;
+                return resultado.eventos;
+            });
+        }
+
+        System.out.printf("%-28s %12s %14s %14s %12s\n", "caso", "ops/s", "eventos/s", "bytes/op", "gc ms/op");
+        for (int i = 0; i < casos.size(); i++) {
+            if (nomes.get(i).contains(filtro)) medir(nomes.get(i), casos.get(i));
+        }
+    }
+
+    private static void adicionar(List<String> nomes, List<Caso> casos, String nome, Caso caso) {
+        nomes.add(nome);
+        casos.add(caso);
+    }
+
+    private static void medir(String nome, Caso caso) {
+        for (int i = 0; i < AQUECIMENTO; i++) caso.executar();
+
+        long bytesAntes = bytesAlocados();
+        long gcAntes = tempoGc();
+        long inicio = System.nanoTime();
+        long eventos = 0;
+        for (int i = 0; i < MEDICOES; i++) eventos += caso.executar();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long bytes = bytesAlocados() - bytesAntes;
+        long gc = tempoGc() - gcAntes;
+
+        String bytesPorOperacao = OUTRAS_THREADS.contains(nome) ? "n/d" : String.format("%.0f", (double) bytes / MEDICOES);
+        System.out.printf("%-28s %12.2f %14.0f %14s %12.2f\n",
+                nome, MEDICOES / segundos, eventos / segundos, bytesPorOperacao, (double) gc / MEDICOES);
+    }
+
+    private static long sortear(GeradorAleatorio rng) {
+        int n = 10_000_000;
+        double soma = 0;
+        for (int i = 0; i < n; i++) soma += rng.nextRandom();
+        sumidouro += soma;
+        return n;
+    }
+
+    // Amostras seguidas de uma distribuição, com o gerador informado
+    private static long amostrar(Distribuicao distribuicao, GeradorAleatorio rng) {
+        int n = 10_000_000;
+        double soma = 0;
+        for (int i = 0; i < n; i++) soma += distribuicao.amostrar(rng);
+        sumidouro += soma;
+        return n;
+    }
+
+    // Modelo "hold" clássico: agenda com tamanho fixo, cada passo remove o
+    // próximo evento e agenda outro um pouco à frente
+    private static long hold(AgendaEventos agenda, int tamanho) {
+        LCG rng = new LCG(7, Integer.MAX_VALUE);
+        for (int i = 0; i < tamanho; i++) agenda.agendar(rng.uniforme(0, 10), Evento.SAIDA, i, -1);
+        int passos = 1_000_000;
+        for (int i = 0; i < passos; i++) {
+            agenda.removerProximo();
+            agenda.agendar(agenda.tempo() + rng.uniforme(0, 10), Evento.SAIDA, agenda.filaOrigem(), -1);
+        }
+        sumidouro += agenda.tempo();
+        return passos;
+    }
+
+    // Rede sintética com n filas: cada fila encaminha para as duas seguintes
+    // (com volta ao início) e deixa 20% dos clientes saírem
+    static Simulador redeSintetica(int n, long seed, int rndLimit) {
+        Simulador simulador = new Simulador(1.0, 2.0, seed, rndLimit, 2.0);
+        for (int i = 0; i < n; i++) {
+            simulador.adicionarFila(new Fila(i, 2, 20, 1.0, 3.0));
+        }
+        for (int i = 0; i < n; i++) {
+            simulador.adicionarTransicao(i, (i + 1) % n, 0.5);
+            simulador.adicionarTransicao(i, (i + 2) % n, 0.3);
+        }
+        return simulador;
+    }
+
+    // Mesma topologia de redeSintetica como configuração, com chegadas externas em todas
+    // as filas e parada por tempo (exigida pelo SimuladorParalelo)
+    static EspecificacaoRede configSintetica(int n, double tempo) {
+        Map<String, Double> chegadas = new LinkedHashMap<>();
+        List<EspecificacaoFila> filas = new ArrayList<>();
+        List<EspecificacaoRota> rotas = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            chegadas.put("Q" + i, 1.0);
+            filas.add(new EspecificacaoFila("Q" + i, Map.of("servers", "2", "capacity", "20",
+                    "minArrival", "6.0", "maxArrival", "10.0", "minService", "1.0", "maxService", "3.0")));
+            rotas.add(new EspecificacaoRota("Q" + i, "Q" + (i + 1) % n, 0.5));
+            rotas.add(new EspecificacaoRota("Q" + i, "Q" + (i + 2) % n, 0.3));
+        }
+        Map<String, String> opcoes = Map.of("rng", "xoshiro", "stop", "time",
+                "stopTime", String.valueOf(tempo));
+        return new EspecificacaoRede(Long.MAX_VALUE, List.of(1L), chegadas, filas, rotas, opcoes, Map.of());
+    }
+
+    private static long bytesAlocados() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long tempoGc() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caixa de mensagens sem trava entre dois processos lógicos (um produtor e um
+// consumidor, SPSC): chegadas (tempo, fila de origem, fila de destino) enviadas por um
+// processo para filas de outro. As mensagens ficam em blocos encadeados de arrays de
+// primitivos, então o envio nunca espera pelo consumidor; o contador publicado
+// (lazySet/get) torna visíveis ao consumidor as mensagens e os blocos novos.
+public class CaixaMensagens {
+
+    private static final int TAMANHO_BLOCO = 1024;
+
+    private static final class Bloco {
+        final double[] tempos = new double[TAMANHO_BLOCO];
+        final int[] origens = new int[TAMANHO_BLOCO];
+        final int[] destinos = new int[TAMANHO_BLOCO];
+        Bloco proximo;
+    }
+
+    private final AtomicLong publicadas = new AtomicLong();
+
+    // Lado do produtor
+    private Bloco blocoEscrita;
+    private int posicaoEscrita;
+    private long escritas;
+
+    // Lado do consumidor
+    private Bloco blocoLeitura;
+    private int posicaoLeitura;
+    private long lidas;
+
+    public CaixaMensagens() {
+        blocoEscrita = blocoLeitura = new Bloco();
+    }
+
+    // Só o produtor chama
+    public void enviar(double tempo, int filaOrigem, int filaDestino) {
+        if (posicaoEscrita == TAMANHO_BLOCO) {
+            Bloco novo = new Bloco();
+            blocoEscrita.proximo = novo;
+            blocoEscrita = novo;
+            posicaoEscrita = 0;
+        }
+        blocoEscrita.tempos[posicaoEscrita] = tempo;
+        blocoEscrita.origens[posicaoEscrita] = filaOrigem;
+        blocoEscrita.destinos[posicaoEscrita] = filaDestino;
+        posicaoEscrita++;
+        publicadas.lazySet(++escritas);
+    }
+
+    // Só o consumidor chama: agenda como CHEGADA todas as mensagens publicadas até
+    // agora, na ordem de envio; devolve quantas foram entregues
+    public int entregar(AgendaEventos agenda) {
+        long disponiveis = publicadas.get();
+        int entregues = 0;
+        while (lidas < disponiveis) {
+            if (posicaoLeitura == TAMANHO_BLOCO) {
+                blocoLeitura = blocoLeitura.proximo;
+                posicaoLeitura = 0;
+            }
+            agenda.agendar(blocoLeitura.tempos[posicaoLeitura], Evento.CHEGADA,
+                    blocoLeitura.origens[posicaoLeitura], blocoLeitura.destinos[posicaoLeitura]);
+            posicaoLeitura++;
+            lidas++;
+            entregues++;
+        }
+        return entregues;
+    }
+}
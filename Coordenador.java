@@ -0,0 +1,239 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Distribui as replicações (cenário x seed) entre processos trabalhadores conectados por
+// socket (ver Trabalhador). Protocolo binário (DataInput/DataOutput):
+//
+//   trabalhador -> coordenador: MAGICO, VERSAO, paralelismo
+//   coordenador -> trabalhador: configuração (EspecificacaoRede.escrever)
+//   coordenador -> trabalhador: TAREFA cenário seed   (até paralelismo + 1 pendentes)
+//   trabalhador -> coordenador: RESULTADO cenário seed ResultadoSimulacao.escrever
+//                               ou ERRO mensagem
+//   trabalhador -> coordenador: PULSO a cada INTERVALO_PULSO_MS, enquanto conectado
+//   coordenador -> trabalhador: FIM
+//
+// Cada tarefa usa o mesmo gerador que a execução local (Main.criarGerador), então o
+// resultado não depende de qual trabalhador a executou. Os resultados são combinados
+// à medida que chegam; as tarefas de um trabalhador que cai ou fica sem pulso por
+// 4 intervalos (processo travado, conexão meio aberta) voltam para a fila e são
+// entregues a outro (inclusive a um que se conecte depois). Uma tarefa que derruba
+// MAX_TENTATIVAS trabalhadores encerra a coordenação com erro.
+public class Coordenador implements AutoCloseable {
+
+    static final int MAGICO = 0x53494D44; // "SIMD"
+    static final int VERSAO = 2;
+    static final byte FIM = 0;
+    static final byte TAREFA = 1;
+    static final byte RESULTADO = 2;
+    static final byte ERRO = 3;
+    static final byte PULSO = 4;
+    static final int INTERVALO_PULSO_MS = 5000;
+    private static final int MAX_TENTATIVAS = 3;
+
+    private final EspecificacaoRede config;
+    private final List<Varredura.Cenario> cenarios;
+    private final ServerSocket servidor;
+    private final List<Process> locais = new ArrayList<>();
+
+    // Estado compartilhado entre as conexões, protegido por this
+    private final Deque<int[]> pendentes = new ArrayDeque<>();
+    private final Replicador.Replicacao[][] celulas;
+    private final int[][] tentativas; // trabalhadores perdidos com a tarefa em andamento
+    private int concluidas;
+    private String falha;
+    private EscritorResultado saida;
+
+    public Coordenador(EspecificacaoRede config, int porta) throws IOException {
+        // cada célula é uma execução simples, sem par antitético nem controles
+        for (String opcao : new String[] {"antithetic", "controlVariates"}) {
+            if (config.opcaoBooleana(opcao)) throw new IllegalArgumentException("--coordinator não suporta " + opcao);
+        }
+        this.config = config;
+        this.cenarios = cenarios(config);
+        this.celulas = new Replicador.Replicacao[cenarios.size()][config.seeds.size()];
+        this.tentativas = new int[cenarios.size()][config.seeds.size()];
+        for (int c = 0; c < cenarios.size(); c++) {
+            for (int s = 0; s < config.seeds.size(); s++) pendentes.add(new int[] { c, s });
+        }
+        this.servidor = new ServerSocket(porta);
+    }
+
+    // Sem seção sweep há um único cenário, a própria configuração (como em Replicador)
+    static List<Varredura.Cenario> cenarios(EspecificacaoRede config) {
+        if (config.varredura.isEmpty()) return List.of(new Varredura.Cenario("", config));
+        return Varredura.expandir(config);
+    }
+
+    public int getPorta() {
+        return servidor.getLocalPort();
+    }
+
+    // Inicia n JVMs trabalhadoras nesta máquina (mesmo java e classpath), para testes locais;
+    // as threads da máquina (paralelismo) são divididas entre elas
+    public void iniciarTrabalhadoresLocais(int n, int paralelismo) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        int porTrabalhador = Math.max(1, paralelismo / n);
+        for (int i = 0; i < n; i++) {
+            locais.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "Main",
+                    "--worker", "localhost:" + getPorta(), "--threads", String.valueOf(porTrabalhador))
+                    .inheritIO().start());
+        }
+    }
+
+    // Aceita trabalhadores até todas as tarefas terminarem; se saida não for null, cada
+    // resultado é gravado nela assim que chega
+    public Varredura.Resultado executar(EscritorResultado saida) {
+        this.saida = saida;
+        Thread aceitacao = new Thread(this::aceitar, "coordenador-aceitacao");
+        aceitacao.setDaemon(true);
+        aceitacao.start();
+        synchronized (this) {
+            int total = celulas.length * celulas[0].length;
+            while (concluidas < total && falha == null) {
+                if (!locais.isEmpty() && locais.stream().noneMatch(Process::isAlive)) {
+                    falhar("todos os trabalhadores locais terminaram");
+                    break;
+                }
+                try {
+                    wait(TimeUnit.SECONDS.toMillis(1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Coordenação interrompida", e);
+                }
+            }
+            if (falha != null) throw new RuntimeException("Erro em um trabalhador: " + falha);
+        }
+        return new Varredura.Resultado(cenarios, celulas);
+    }
+
+    private void aceitar() {
+        try {
+            while (true) {
+                Socket socket = servidor.accept();
+                Thread conexao = new Thread(() -> atender(socket), "coordenador-" + socket.getRemoteSocketAddress());
+                conexao.setDaemon(true);
+                conexao.start();
+            }
+        } catch (SocketException e) {
+            // servidor fechado
+        } catch (IOException e) {
+            falhar("aceitação de conexões: " + e.getMessage());
+        }
+    }
+
+    // Atende um trabalhador: mantém até paralelismo + 1 tarefas com ele e recebe os resultados
+    private void atender(Socket socket) {
+        Deque<int[]> emAndamento = new ArrayDeque<>();
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            s.setSoTimeout(4 * INTERVALO_PULSO_MS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            if (in.readInt() != MAGICO || in.readInt() != VERSAO) return;
+            int paralelismo = Math.max(1, in.readInt());
+            config.escrever(out);
+
+            while (true) {
+                int[] tarefa;
+                while (emAndamento.size() <= paralelismo && (tarefa = proxima(emAndamento.isEmpty())) != null) {
+                    out.writeByte(TAREFA);
+                    out.writeInt(tarefa[0]);
+                    out.writeInt(tarefa[1]);
+                    emAndamento.add(tarefa);
+                }
+                if (emAndamento.isEmpty()) {
+                    out.writeByte(FIM);
+                    out.flush();
+                    return;
+                }
+                out.flush();
+
+                byte tipo = in.readByte();
+                if (tipo == PULSO) continue;
+                if (tipo == ERRO) {
+                    falhar(in.readUTF());
+                    return;
+                }
+                if (tipo != RESULTADO) throw new IOException("Mensagem inesperada: " + tipo);
+                int c = in.readInt();
+                int seed = in.readInt();
+                ResultadoSimulacao resultado = ResultadoSimulacao.ler(in);
+                emAndamento.removeIf(t -> t[0] == c && t[1] == seed);
+                registrar(c, seed, resultado);
+            }
+        } catch (IOException e) {
+            // trabalhador caiu ou parou de pulsar (SocketTimeoutException): as tarefas
+            // dele voltam para a frente da fila
+            synchronized (this) {
+                while (!emAndamento.isEmpty()) {
+                    int[] tarefa = emAndamento.removeLast();
+                    if (++tentativas[tarefa[0]][tarefa[1]] >= MAX_TENTATIVAS) {
+                        falhar("cenário " + (tarefa[0] + 1) + ", seed " + config.seeds.get(tarefa[1]) + ": "
+                                + MAX_TENTATIVAS + " trabalhadores perdidos durante a tarefa");
+                    }
+                    pendentes.addFirst(tarefa);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    // Próxima tarefa pendente. Se esperar (trabalhador sem tarefas), aguarda até surgir uma
+    // tarefa devolvida por outro trabalhador ou tudo terminar; null se não há mais nada
+    private synchronized int[] proxima(boolean esperar) throws IOException {
+        while (true) {
+            if (falha != null) throw new IOException("Coordenação cancelada");
+            if (!pendentes.isEmpty()) return pendentes.poll();
+            if (!esperar || concluidas == celulas.length * celulas[0].length) return null;
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrompido", e);
+            }
+        }
+    }
+
+    private synchronized void registrar(int c, int seed, ResultadoSimulacao resultado) throws IOException {
+        if (celulas[c][seed] != null) return;
+        celulas[c][seed] = Replicador.Replicacao.de(resultado);
+        concluidas++;
+        if (saida != null) saida.escrever(resultado);
+        notifyAll();
+    }
+
+    private synchronized void falhar(String mensagem) {
+        if (falha == null) falha = mensagem;
+        notifyAll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+        boolean cancelar;
+        synchronized (this) {
+            cancelar = falha != null;
+        }
+        for (Process p : locais) {
+            if (cancelar) p.destroy();
+            try {
+                p.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                p.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+// Regra de término de uma execução do simulador, independente do orçamento de
+// aleatórios, com período de aquecimento opcional cujas estatísticas são descartadas.
+public class CriterioParada {
+
+    public enum Modo {
+        ALEATORIOS, // até esgotar os números aleatórios (comportamento original)
+        TEMPO,      // até o tempo simulado atingir o limite
+        SAIDAS,     // até o número de clientes que deixaram o sistema atingir o limite
+        PRECISAO    // até a semi-amplitude relativa do IC da métrica atingir o alvo
+    }
+
+    // Número mínimo de lotes antes de avaliar a precisão
+    public static final int LOTES_MINIMOS = 10;
+    // Número máximo de lotes mantidos; ao atingir, lotes vizinhos são agrupados
+    public static final int LOTES_MAXIMOS = 64;
+
+    public final Modo modo;
+    public final double limite;       // tempo (TEMPO), saídas (SAIDAS) ou precisão relativa (PRECISAO)
+    public final int filaAlvo;        // fila cuja população média é monitorada (PRECISAO)
+    public final double tamanhoLote;  // duração inicial dos lotes em tempo simulado (PRECISAO)
+    public final double aquecimento;  // tempo de aquecimento descartado (0 = nenhum)
+
+    private CriterioParada(Modo modo, double limite, int filaAlvo, double tamanhoLote, double aquecimento) {
+        if (aquecimento < 0) throw new IllegalArgumentException("Aquecimento negativo: " + aquecimento);
+        this.modo = modo;
+        this.limite = limite;
+        this.filaAlvo = filaAlvo;
+        this.tamanhoLote = tamanhoLote;
+        this.aquecimento = aquecimento;
+    }
+
+    public static CriterioParada porAleatorios() {
+        return new CriterioParada(Modo.ALEATORIOS, 0, -1, 0, 0);
+    }
+
+    public static CriterioParada porTempo(double tempoMaximo) {
+        if (tempoMaximo <= 0) throw new IllegalArgumentException("Tempo de parada deve ser positivo");
+        return new CriterioParada(Modo.TEMPO, tempoMaximo, -1, 0, 0);
+    }
+
+    public static CriterioParada porSaidas(long saidas) {
+        if (saidas <= 0) throw new IllegalArgumentException("Número de saídas deve ser positivo");
+        return new CriterioParada(Modo.SAIDAS, saidas, -1, 0, 0);
+    }
+
+    // Para quando a semi-amplitude do IC de 95% da população média da fila,
+    // estimada por médias em lote, for <= precisaoRelativa * média
+    public static CriterioParada porPrecisao(int filaAlvo, double precisaoRelativa, double tamanhoLote) {
+        if (precisaoRelativa <= 0) throw new IllegalArgumentException("Precisão relativa deve ser positiva");
+        if (tamanhoLote <= 0) throw new IllegalArgumentException("Tamanho do lote deve ser positivo");
+        return new CriterioParada(Modo.PRECISAO, precisaoRelativa, filaAlvo, tamanhoLote, 0);
+    }
+
+    public CriterioParada comAquecimento(double tempoAquecimento) {
+        return new CriterioParada(modo, limite, filaAlvo, tamanhoLote, tempoAquecimento);
+    }
+
+    public boolean usaOrcamentoAleatorios() {
+        return modo == Modo.ALEATORIOS;
+    }
+}
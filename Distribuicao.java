@@ -0,0 +1,108 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Distribuição de tempos (atendimento ou intervalo entre chegadas). As amostras são
+// tiradas do gerador recebido, de modo que as execuções continuam reprodutíveis;
+// as implementações são imutáveis e não alocam por amostra.
+public interface Distribuicao {
+
+    double amostrar(FonteAleatoria rng);
+
+    double media();
+
+    double variancia();
+
+    // Suporte da distribuição (maximo pode ser infinito)
+    double minimo();
+
+    double maximo();
+
+    // true se amostrar() não consome números aleatórios
+    default boolean deterministica() {
+        return false;
+    }
+
+    // Formato binário compilado (ver ConfigLoader): nome seguido dos parâmetros
+    void escrever(DataOutput out) throws IOException;
+
+    // Lê o formato de escrever(); os parâmetros já foram validados na compilação e a
+    // empírica traz os próprios valores, sem reler o arquivo de origem
+    static Distribuicao ler(DataInput in) throws IOException {
+        String nome = in.readUTF();
+        switch (nome) {
+            case "uniform":
+                return new DistribuicaoUniforme(in.readDouble(), in.readDouble());
+            case "exponential":
+                return new DistribuicaoExponencial(in.readDouble());
+            case "deterministic":
+                return new DistribuicaoDeterministica(in.readDouble());
+            case "erlang":
+                return new DistribuicaoErlang(in.readInt(), in.readDouble());
+            case "lognormal":
+                return new DistribuicaoLogNormal(in.readDouble(), in.readDouble());
+            case "triangular":
+                return new DistribuicaoTriangular(in.readDouble(), in.readDouble(), in.readDouble());
+            case "empirical":
+                return DistribuicaoEmpirica.ler(in);
+            default:
+                throw new IOException("Distribuição desconhecida no arquivo compilado: " + nome);
+        }
+    }
+
+    // Cria a distribuição a partir do texto do YAML: "nome p1 p2 ...", por exemplo
+    // "exponential 5", "erlang 3 6", "lognormal 4 1.5", "triangular 1 2 4",
+    // "deterministic 3", "uniform 1 2" ou "empirical tempos.txt"
+    static Distribuicao criar(String descricao) {
+        String[] partes = descricao.trim().split("\\s+");
+        String nome = partes[0].toLowerCase();
+        if (nome.equals("empirical")) {
+            if (partes.length != 2) throw new IllegalArgumentException("Uso: empirical <arquivo>");
+            return DistribuicaoEmpirica.lerArquivo(partes[1]);
+        }
+        double[] p = new double[partes.length - 1];
+        for (int i = 0; i < p.length; i++) {
+            try {
+                p[i] = Double.parseDouble(partes[i + 1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Parâmetro inválido na distribuição '" + descricao + "': " + partes[i + 1]);
+            }
+        }
+        switch (nome) {
+            case "uniform":
+                exigir(descricao, p, 2);
+                return new DistribuicaoUniforme(p[0], p[1]);
+            case "exponential":
+                exigir(descricao, p, 1);
+                return new DistribuicaoExponencial(p[0]);
+            case "erlang":
+                exigir(descricao, p, 2);
+                if (p[0] != Math.rint(p[0])) throw new IllegalArgumentException("Erlang: k deve ser inteiro");
+                return new DistribuicaoErlang((int) p[0], p[1]);
+            case "lognormal":
+                exigir(descricao, p, 2);
+                return new DistribuicaoLogNormal(p[0], p[1]);
+            case "triangular":
+                exigir(descricao, p, 3);
+                return new DistribuicaoTriangular(p[0], p[1], p[2]);
+            case "deterministic":
+                exigir(descricao, p, 1);
+                return new DistribuicaoDeterministica(p[0]);
+            default:
+                throw new IllegalArgumentException("Distribuição desconhecida: " + partes[0]);
+        }
+    }
+
+    // Formata parâmetros na descrição (toString): 2.0 -> "2", 2.5 -> "2.5"
+    static String formatar(double x) {
+        return x == Math.rint(x) && !Double.isInfinite(x) ? String.valueOf((long) x) : String.valueOf(x);
+    }
+
+    private static void exigir(String descricao, double[] parametros, int quantidade) {
+        if (parametros.length != quantidade) {
+            throw new IllegalArgumentException("Distribuição '" + descricao + "' espera " + quantidade
+                    + " parâmetro(s), recebeu " + parametros.length + ": " + Arrays.toString(parametros));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Tempo constante; não consome números aleatórios
+public final class DistribuicaoDeterministica implements Distribuicao {
+    private final double valor;
+
+    public DistribuicaoDeterministica(double valor) {
+        if (!(valor >= 0)) throw new IllegalArgumentException("Determinística: valor deve ser não negativo");
+        this.valor = valor;
+    }
+
+    @Override
+    public double amostrar(FonteAleatoria rng) {
+        return valor;
+    }
+
+    @Override
+    public double media() {
+        return valor;
+    }
+
+    @Override
+    public double variancia() {
+        return 0.0;
+    }
+
+    @Override
+    public double minimo() {
+        return valor;
+    }
+
+    @Override
+    public double maximo() {
+        return valor;
+    }
+
+    @Override
+    public boolean deterministica() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "deterministic " + Distribuicao.formatar(valor);
+    }
+
+    @Override
+    public void escrever(DataOutput out) throws IOException {
+        out.writeUTF("deterministic");
+        out.writeDouble(valor);
+    }
+}
@@ -0,0 +1,130 @@
+import java.io.BufferedReader;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Distribuição empírica discreta: valores observados com pesos, sorteados em O(1)
+// por uma tabela de alias (um aleatório por amostra)
+public final class DistribuicaoEmpirica implements Distribuicao {
+    private final String origem;
+    private final double[] valores;
+    private final double[] pesos;
+    private final TabelaAlias tabela;
+    private final double media;
+    private final double variancia;
+    private final double minimo;
+    private final double maximo;
+
+    public DistribuicaoEmpirica(String origem, double[] valores, double[] pesos) {
+        if (valores.length == 0 || valores.length != pesos.length) {
+            throw new IllegalArgumentException("Empírica " + origem + ": valores e pesos vazios ou de tamanhos diferentes");
+        }
+        int[] indices = new int[valores.length];
+        double soma = 0.0, total = 0.0;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < valores.length; i++) {
+            if (!(valores[i] >= 0)) throw new IllegalArgumentException("Empírica " + origem + ": valor negativo " + valores[i]);
+            indices[i] = i;
+            soma += valores[i] * pesos[i];
+            total += pesos[i];
+            min = Math.min(min, valores[i]);
+            max = Math.max(max, valores[i]);
+        }
+        this.origem = origem;
+        this.valores = valores.clone();
+        this.pesos = pesos.clone();
+        this.tabela = new TabelaAlias(pesos, indices);
+        this.media = soma / total;
+        double quadrados = 0.0;
+        for (int i = 0; i < valores.length; i++) {
+            quadrados += (valores[i] - media) * (valores[i] - media) * pesos[i];
+        }
+        this.variancia = quadrados / total;
+        this.minimo = min;
+        this.maximo = max;
+    }
+
+    // Arquivo texto com um valor por linha, opcionalmente seguido do seu peso
+    // (frequência); linhas vazias e iniciadas por # são ignoradas
+    public static DistribuicaoEmpirica lerArquivo(String arquivo) {
+        double[] valores = new double[64];
+        double[] pesos = new double[64];
+        int n = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(arquivo))) {
+            String linha;
+            int numero = 0;
+            while ((linha = reader.readLine()) != null) {
+                numero++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) continue;
+                String[] campos = linha.split("[\\s,;]+");
+                if (n == valores.length) {
+                    valores = Arrays.copyOf(valores, n * 2);
+                    pesos = Arrays.copyOf(pesos, n * 2);
+                }
+                try {
+                    valores[n] = Double.parseDouble(campos[0]);
+                    pesos[n] = campos.length > 1 ? Double.parseDouble(campos[1]) : 1.0;
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(arquivo + ":" + numero + ": valor inválido: " + linha);
+                }
+                n++;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Não foi possível ler " + arquivo + ": " + e.getMessage(), e);
+        }
+        return new DistribuicaoEmpirica(arquivo, Arrays.copyOf(valores, n), Arrays.copyOf(pesos, n));
+    }
+
+    // Lê o formato de escrever() (depois do nome): os valores gravados, sem reler o arquivo
+    static DistribuicaoEmpirica ler(DataInput in) throws IOException {
+        String origem = in.readUTF();
+        int n = in.readInt();
+        double[] valores = new double[n];
+        double[] pesos = new double[n];
+        for (int i = 0; i < n; i++) valores[i] = in.readDouble();
+        for (int i = 0; i < n; i++) pesos[i] = in.readDouble();
+        return new DistribuicaoEmpirica(origem, valores, pesos);
+    }
+
+    @Override
+    public double amostrar(FonteAleatoria rng) {
+        return valores[tabela.sortear(rng.nextRandom())];
+    }
+
+    @Override
+    public double media() {
+        return media;
+    }
+
+    @Override
+    public double variancia() {
+        return variancia;
+    }
+
+    @Override
+    public double minimo() {
+        return minimo;
+    }
+
+    @Override
+    public double maximo() {
+        return maximo;
+    }
+
+    @Override
+    public String toString() {
+        return "empirical " + origem;
+    }
+
+    @Override
+    public void escrever(DataOutput out) throws IOException {
+        out.writeUTF("empirical");
+        out.writeUTF(origem);
+        out.writeInt(valores.length);
+        for (double v : valores) out.writeDouble(v);
+        for (double p : pesos) out.writeDouble(p);
+    }
+}
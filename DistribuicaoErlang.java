@@ -0,0 +1,56 @@
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Erlang-k com a média informada: soma de k exponenciais de média media / k
+public final class DistribuicaoErlang implements Distribuicao {
+    private final int k;
+    private final double media;
+    private final double mediaFase;
+
+    public DistribuicaoErlang(int k, double media) {
+        if (k < 1) throw new IllegalArgumentException("Erlang: k deve ser >= 1");
+        if (!(media > 0)) throw new IllegalArgumentException("Erlang: média deve ser positiva");
+        this.k = k;
+        this.media = media;
+        this.mediaFase = media / k;
+    }
+
+    @Override
+    public double amostrar(FonteAleatoria rng) {
+        double soma = 0.0;
+        for (int i = 0; i < k; i++) soma += Ziggurat.exponencial(rng);
+        return mediaFase * soma;
+    }
+
+    @Override
+    public double media() {
+        return media;
+    }
+
+    @Override
+    public double variancia() {
+        return media * mediaFase;
+    }
+
+    @Override
+    public double minimo() {
+        return 0.0;
+    }
+
+    @Override
+    public double maximo() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return "erlang " + k + " " + Distribuicao.formatar(media);
+    }
+
+    @Override
+    public void escrever(DataOutput out) throws IOException {
+        out.writeUTF("erlang");
+        out.writeInt(k);
+        out.writeDouble(media);
+    }
+}
@@ -0,0 +1,48 @@
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Exponencial com a média informada, amostrada por ziggurat
+public final class DistribuicaoExponencial implements Distribuicao {
+    private final double media;
+
+    public DistribuicaoExponencial(double media) {
+        if (!(media > 0)) throw new IllegalArgumentException("Exponencial: média deve ser positiva");
+        this.media = media;
+    }
+
+    @Override
+    public double amostrar(FonteAleatoria rng) {
+        return media * Ziggurat.exponencial(rng);
+    }
+
+    @Override
+    public double media() {
+        return media;
+    }
+
+    @Override
+    public double variancia() {
+        return media * media;
+    }
+
+    @Override
+    public double minimo() {
+        return 0.0;
+    }
+
+    @Override
+    public double maximo() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return "exponential " + Distribuicao.formatar(media);
+    }
+
+    @Override
+    public void escrever(DataOutput out) throws IOException {
+        out.writeUTF("exponential");
+        out.writeDouble(media);
+    }
+}
@@ -0,0 +1,59 @@
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Lognormal parametrizada pela média e pelo desvio padrão do próprio tempo
+// (não do logaritmo), como costumam ser reportados os dados de atendimento
+public final class DistribuicaoLogNormal implements Distribuicao {
+    private final double media;
+    private final double desvio;
+    private final double mu;
+    private final double sigma;
+
+    public DistribuicaoLogNormal(double media, double desvio) {
+        if (!(media > 0) || !(desvio >= 0)) {
+            throw new IllegalArgumentException("Lognormal: média deve ser positiva e desvio não negativo");
+        }
+        this.media = media;
+        this.desvio = desvio;
+        double s2 = Math.log(1 + (desvio * desvio) / (media * media));
+        this.sigma = Math.sqrt(s2);
+        this.mu = Math.log(media) - s2 / 2;
+    }
+
+    @Override
+    public double amostrar(FonteAleatoria rng) {
+        return Math.exp(mu + sigma * Ziggurat.normal(rng));
+    }
+
+    @Override
+    public double media() {
+        return media;
+    }
+
+    @Override
+    public double variancia() {
+        return desvio * desvio;
+    }
+
+    @Override
+    public double minimo() {
+        return 0.0;
+    }
+
+    @Override
+    public double maximo() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return "lognormal " + Distribuicao.formatar(media) + " " + Distribuicao.formatar(desvio);
+    }
+
+    @Override
+    public void escrever(DataOutput out) throws IOException {
+        out.writeUTF("lognormal");
+        out.writeDouble(media);
+        out.writeDouble(desvio);
+    }
+}
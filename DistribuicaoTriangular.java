@@ -0,0 +1,61 @@
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Triangular em [min, max] com moda informada, por inversão (um aleatório por amostra)
+public final class DistribuicaoTriangular implements Distribuicao {
+    private final double min;
+    private final double moda;
+    private final double max;
+    private final double corte; // F(moda)
+
+    public DistribuicaoTriangular(double min, double moda, double max) {
+        if (!(min >= 0 && min <= moda && moda <= max && min < max)) {
+            throw new IllegalArgumentException("Triangular inválida: " + min + ", " + moda + ", " + max);
+        }
+        this.min = min;
+        this.moda = moda;
+        this.max = max;
+        this.corte = (moda - min) / (max - min);
+    }
+
+    @Override
+    public double amostrar(FonteAleatoria rng) {
+        double u = rng.nextRandom();
+        if (u < corte) return min + Math.sqrt(u * (max - min) * (moda - min));
+        return max - Math.sqrt((1 - u) * (max - min) * (max - moda));
+    }
+
+    @Override
+    public double media() {
+        return (min + moda + max) / 3;
+    }
+
+    @Override
+    public double variancia() {
+        return (min * min + moda * moda + max * max - min * moda - min * max - moda * max) / 18;
+    }
+
+    @Override
+    public double minimo() {
+        return min;
+    }
+
+    @Override
+    public double maximo() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "triangular " + Distribuicao.formatar(min) + " " + Distribuicao.formatar(moda) + " "
+                + Distribuicao.formatar(max);
+    }
+
+    @Override
+    public void escrever(DataOutput out) throws IOException {
+        out.writeUTF("triangular");
+        out.writeDouble(min);
+        out.writeDouble(moda);
+        out.writeDouble(max);
+    }
+}
@@ -0,0 +1,51 @@
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Uniforme em [min, max): um número aleatório por amostra (distribuição original do simulador)
+public final class DistribuicaoUniforme implements Distribuicao {
+    private final double min;
+    private final double max;
+
+    public DistribuicaoUniforme(double min, double max) {
+        if (!(min >= 0 && min <= max)) throw new IllegalArgumentException("Uniforme inválida: " + min + ".." + max);
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public double amostrar(FonteAleatoria rng) {
+        return min + (max - min) * rng.nextRandom();
+    }
+
+    @Override
+    public double media() {
+        return (min + max) / 2;
+    }
+
+    @Override
+    public double variancia() {
+        return (max - min) * (max - min) / 12;
+    }
+
+    @Override
+    public double minimo() {
+        return min;
+    }
+
+    @Override
+    public double maximo() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "uniform " + Distribuicao.formatar(min) + " " + Distribuicao.formatar(max);
+    }
+
+    @Override
+    public void escrever(DataOutput out) throws IOException {
+        out.writeUTF("uniform");
+        out.writeDouble(min);
+        out.writeDouble(max);
+    }
+}
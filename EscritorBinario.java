@@ -0,0 +1,44 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Formato binário compacto: cabeçalho (MAGICO, VERSAO) seguido dos registros de
+// ResultadoSimulacao.escrever(). Leitura com EscritorBinario.abrir() + ResultadoSimulacao.ler().
+public class EscritorBinario implements EscritorResultado {
+
+    public static final int MAGICO = 0x53494D52; // "SIMR"
+    public static final int VERSAO = 3;
+
+    private final DataOutputStream out;
+    private boolean cabecalhoEscrito;
+
+    public EscritorBinario(OutputStream saida) {
+        this.out = new DataOutputStream(saida);
+    }
+
+    @Override
+    public void escrever(ResultadoSimulacao resultado) throws IOException {
+        if (!cabecalhoEscrito) {
+            out.writeInt(MAGICO);
+            out.writeInt(VERSAO);
+            cabecalhoEscrito = true;
+        }
+        resultado.escrever(out);
+    }
+
+    // Valida o cabeçalho e devolve o fluxo posicionado no primeiro registro
+    public static DataInputStream abrir(InputStream entrada) throws IOException {
+        DataInputStream in = new DataInputStream(entrada);
+        if (in.readInt() != MAGICO) throw new IOException("Arquivo não é um resultado binário do simulador");
+        int versao = in.readInt();
+        if (versao != VERSAO) throw new IOException("Versão de resultado binário não suportada: " + versao);
+        return in;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
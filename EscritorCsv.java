@@ -0,0 +1,73 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Uma linha por fila por execução; a distribuição de estados vai em uma coluna
+// com as probabilidades separadas por ';'
+public class EscritorCsv implements EscritorResultado {
+
+    private static final String CABECALHO = "seed,tempoTotal,tempoObservado,eventos,fila,nome,servidores,capacidade,"
+            + "populacaoMedia,probVazia,perdidos,atendidos,utilizacao,vazao,esperaMedia,esperaP50,esperaP95,"
+            + "esperaP99,permanenciaMedia,permanenciaP95,lotes,populacaoLotes,populacaoIC95,taxaPerdas,"
+            + "taxaPerdasIC95,probVaziaLotes,probVaziaIC95,distribuicao\n";
+
+    private final Writer out;
+    private final StringBuilder linha = new StringBuilder(256);
+    private boolean cabecalhoEscrito;
+
+    public EscritorCsv(OutputStream saida) {
+        this.out = new OutputStreamWriter(saida, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void escrever(ResultadoSimulacao r) throws IOException {
+        if (!cabecalhoEscrito) {
+            out.write(CABECALHO);
+            cabecalhoEscrito = true;
+        }
+        for (ResultadoFila f : r.filas) {
+            linha.setLength(0);
+            linha.append(r.seed).append(',').append(r.tempoTotal).append(',').append(r.tempoObservado).append(',')
+                    .append(r.eventos).append(',').append(f.id).append(',').append(f.nome).append(',')
+                    .append(f.servidores).append(',').append(f.capacidade == Fila.INFINITA ? "inf" : String.valueOf(f.capacidade))
+                    .append(',').append(f.populacaoMedia).append(',').append(f.probVazia).append(',')
+                    .append(f.perdidos).append(',').append(f.atendidos).append(',').append(f.utilizacao).append(',')
+                    .append(f.vazao).append(',');
+            valor(f.esperaMedia).append(',');
+            valor(f.esperaP50).append(',');
+            valor(f.esperaP95).append(',');
+            valor(f.esperaP99).append(',');
+            valor(f.permanenciaMedia).append(',');
+            valor(f.permanenciaP95).append(',');
+            ResultadoFila.Lotes l = f.lotes;
+            if (l != null) {
+                linha.append(l.numLotes).append(',');
+                valor(l.populacao).append(',');
+                valor(l.populacaoIC95).append(',');
+                valor(l.taxaPerdas).append(',');
+                valor(l.taxaPerdasIC95).append(',');
+                valor(l.probVazia).append(',');
+                valor(l.probVaziaIC95).append(',');
+            } else {
+                linha.append(",,,,,,,");
+            }
+            for (int j = 0; j < f.distribuicao.length; j++) {
+                if (j > 0) linha.append(';');
+                linha.append(f.distribuicao[j]);
+            }
+            linha.append('\n');
+            out.append(linha);
+        }
+    }
+
+    private StringBuilder valor(double x) {
+        return Double.isNaN(x) ? linha : linha.append(x);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,101 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Um objeto JSON por linha para cada execução (JSON Lines); NaN vira null
+public class EscritorJsonLines implements EscritorResultado {
+
+    private final Writer out;
+    private final StringBuilder sb = new StringBuilder(1024);
+
+    public EscritorJsonLines(OutputStream saida) {
+        this.out = new OutputStreamWriter(saida, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void escrever(ResultadoSimulacao r) throws IOException {
+        sb.setLength(0);
+        sb.append("{\"seed\":").append(r.seed);
+        campo("tempoTotal", r.tempoTotal);
+        campo("tempoObservado", r.tempoObservado);
+        sb.append(",\"eventos\":").append(r.eventos);
+        sb.append(",\"filas\":[");
+        for (int i = 0; i < r.filas.size(); i++) {
+            ResultadoFila f = r.filas.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":").append(f.id);
+            sb.append(",\"nome\":");
+            texto(f.nome);
+            sb.append(",\"servidores\":").append(f.servidores);
+            sb.append(",\"capacidade\":");
+            if (f.capacidade == Fila.INFINITA) sb.append("null");
+            else sb.append(f.capacidade);
+            sb.append(",\"atendimento\":");
+            texto(f.atendimento);
+            sb.append(",\"chegadas\":");
+            if (f.chegadas == null) sb.append("null");
+            else texto(f.chegadas);
+            campo("populacaoMedia", f.populacaoMedia);
+            campo("probVazia", f.probVazia);
+            sb.append(",\"perdidos\":").append(f.perdidos);
+            sb.append(",\"atendidos\":").append(f.atendidos);
+            campo("utilizacao", f.utilizacao);
+            campo("vazao", f.vazao);
+            campo("esperaMedia", f.esperaMedia);
+            campo("esperaP50", f.esperaP50);
+            campo("esperaP95", f.esperaP95);
+            campo("esperaP99", f.esperaP99);
+            campo("permanenciaMedia", f.permanenciaMedia);
+            campo("permanenciaP95", f.permanenciaP95);
+            if (f.lotes != null) {
+                ResultadoFila.Lotes l = f.lotes;
+                sb.append(",\"lotes\":{\"numLotes\":").append(l.numLotes);
+                campo("tamanhoLote", l.tamanhoLote);
+                campo("autocorrelacao", l.autocorrelacao);
+                campo("populacao", l.populacao);
+                campo("populacaoIC95", l.populacaoIC95);
+                campo("taxaPerdas", l.taxaPerdas);
+                campo("taxaPerdasIC95", l.taxaPerdasIC95);
+                campo("probVazia", l.probVazia);
+                campo("probVaziaIC95", l.probVaziaIC95);
+                sb.append('}');
+            }
+            sb.append(",\"distribuicao\":[");
+            for (int j = 0; j < f.distribuicao.length; j++) {
+                if (j > 0) sb.append(',');
+                numero(f.distribuicao[j]);
+            }
+            sb.append("]}");
+        }
+        sb.append("]}\n");
+        out.append(sb);
+    }
+
+    private void campo(String nome, double valor) {
+        sb.append(",\"").append(nome).append("\":");
+        numero(valor);
+    }
+
+    private void numero(double valor) {
+        if (Double.isNaN(valor) || Double.isInfinite(valor)) sb.append("null");
+        else sb.append(valor);
+    }
+
+    private void texto(String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,32 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Saída de resultados de simulação. Cada chamada a escrever() grava uma execução
+// (replicação); em lotes grandes os resultados são gravados assim que ficam prontos.
+public interface EscritorResultado extends Closeable {
+
+    void escrever(ResultadoSimulacao resultado) throws IOException;
+
+    // Cria o escritor do formato indicado: text, csv, jsonl ou bin
+    static EscritorResultado criar(String formato, OutputStream saida) {
+        switch (formato.toLowerCase()) {
+            case "text":
+                return new EscritorTexto(saida);
+            case "csv":
+                return new EscritorCsv(saida);
+            case "jsonl":
+                return new EscritorJsonLines(saida);
+            case "bin":
+                return new EscritorBinario(saida);
+            default:
+                throw new IllegalArgumentException("Formato de saída desconhecido: " + formato);
+        }
+    }
+
+    static EscritorResultado criar(String formato, String arquivo) throws IOException {
+        return criar(formato, new BufferedOutputStream(new FileOutputStream(arquivo), 1 << 16));
+    }
+}
@@ -0,0 +1,64 @@
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+// Formato legível, no estilo do relatório original, para qualquer número de filas
+public class EscritorTexto implements EscritorResultado {
+
+    private final PrintWriter out;
+
+    public EscritorTexto(OutputStream saida) {
+        this.out = new PrintWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void escrever(ResultadoSimulacao r) {
+        for (ResultadoFila f : r.filas) {
+            StringBuilder titulo = new StringBuilder();
+            titulo.append("Resultado da Fila ").append(f.id + 1).append(" (").append(f.nome).append("): ")
+                    .append(f.notacao()).append(", ");
+            if (f.chegadas != null) titulo.append("chegadas ").append(descricao(f.chegadas)).append(", ");
+            titulo.append("atendimento ").append(descricao(f.atendimento)).append(':');
+            out.println(titulo);
+
+            out.printf("Distribuição de probabilidades dos estados:%n");
+            for (int j = 0; j < f.distribuicao.length; j++) {
+                if (f.distribuicao[j] > 0) out.printf("   %5d: %.4f (%.2f%%)%n", j, f.distribuicao[j], f.distribuicao[j] * 100);
+            }
+            out.printf("População média: %.4f clientes%n", f.populacaoMedia);
+            out.printf("Clientes perdidos: %d%n", f.perdidos);
+            out.printf("Probabilidade da fila estar vazia (P0): %.4f (%.2f%%)%n", f.probVazia, f.probVazia * 100);
+            out.printf("Utilização: %.4f  Vazão: %.4f clientes/min%n", f.utilizacao, f.vazao);
+            if (f.temRastreamento()) {
+                out.printf("Espera: média %.4f, p50 %.4f, p95 %.4f, p99 %.4f%n",
+                        f.esperaMedia, f.esperaP50, f.esperaP95, f.esperaP99);
+                out.printf("Permanência: média %.4f, p95 %.4f%n", f.permanenciaMedia, f.permanenciaP95);
+            }
+            if (f.lotes != null) {
+                ResultadoFila.Lotes l = f.lotes;
+                out.printf("Médias em lote (%d lotes de %.1f min, |r1| %.3f), IC 95%%:%n",
+                        l.numLotes, l.tamanhoLote, l.autocorrelacao);
+                out.printf("   população %.4f ± %.4f, perdas %.5f ± %.5f clientes/min, P0 %.4f ± %.4f%n",
+                        l.populacao, l.populacaoIC95, l.taxaPerdas, l.taxaPerdasIC95, l.probVazia, l.probVaziaIC95);
+            }
+            out.println();
+        }
+        out.println("Tempo total de simulação:");
+        out.printf("%.2f minutos%n", r.tempoTotal);
+        out.println();
+        out.flush();
+    }
+
+    // Uniformes no formato original ("entre 2..4"); demais distribuições pelo nome e parâmetros
+    private static String descricao(String distribuicao) {
+        if (!distribuicao.startsWith("uniform ")) return distribuicao;
+        String[] limites = distribuicao.substring(8).split(" ");
+        return "entre " + limites[0] + ".." + limites[1];
+    }
+
+    @Override
+    public void close() {
+        out.close();
+    }
+}
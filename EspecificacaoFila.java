@@ -0,0 +1,167 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Especificação validada de uma fila. As propriedades originais (texto do YAML)
+// são mantidas para que cenários derivados (varredura) passem pela mesma validação.
+public final class EspecificacaoFila {
+
+    public static final Set<String> CHAVES = Set.of(
+            "servers", "capacity", "minService", "maxService", "minAtendimento", "maxAtendimento",
+            "minArrival", "maxArrival", "service", "arrival");
+
+    public final String nome;
+    public final int servidores;
+    public final int capacidade;       // Fila.INFINITA para fila sem limite
+    public final Distribuicao atendimento;
+    public final Distribuicao chegada;   // null se não informada
+
+    private final Map<String, String> propriedades;
+
+    public EspecificacaoFila(String nome, Map<String, String> propriedades) {
+        this.nome = nome;
+        this.propriedades = Collections.unmodifiableMap(new LinkedHashMap<>(propriedades));
+        for (String chave : propriedades.keySet()) {
+            if (!CHAVES.contains(chave)) throw erro("chave desconhecida '" + chave + "'");
+        }
+
+        this.servidores = inteiro("servers", -1);
+        if (servidores < 1) throw erro("servers deve ser >= 1");
+        this.capacidade = lerCapacidade();
+        if (capacidade < servidores) throw erro("capacity menor que servers");
+
+        // service: <distribuição> ou, uniforme, minService/maxService (nomes das instruções)
+        // ou minAtendimento/maxAtendimento
+        boolean temService = propriedades.containsKey("minService") || propriedades.containsKey("maxService");
+        boolean temAtendimento = propriedades.containsKey("minAtendimento") || propriedades.containsKey("maxAtendimento");
+        if (propriedades.containsKey("service")) {
+            if (temService || temAtendimento) throw erro("use service ou minService/maxService, não ambos");
+            this.atendimento = distribuicao("service");
+        } else if (temService) {
+            this.atendimento = uniforme("atendimento", "minService", "maxService");
+        } else if (temAtendimento) {
+            this.atendimento = uniforme("atendimento", "minAtendimento", "maxAtendimento");
+        } else {
+            this.atendimento = new DistribuicaoUniforme(1.0, 5.0);
+        }
+
+        // arrival: <distribuição> ou minArrival/maxArrival (uniforme)
+        boolean temArrival = propriedades.containsKey("minArrival") || propriedades.containsKey("maxArrival");
+        if (propriedades.containsKey("arrival")) {
+            if (temArrival) throw erro("use arrival ou minArrival/maxArrival, não ambos");
+            this.chegada = distribuicao("arrival");
+        } else if (temArrival) {
+            this.chegada = uniforme("chegada", "minArrival", "maxArrival");
+        } else {
+            this.chegada = null;
+        }
+    }
+
+    // Fila lida do formato compilado: os valores tipados já foram validados quando o
+    // arquivo foi gerado e são usados como estão
+    private EspecificacaoFila(String nome, int servidores, int capacidade, Distribuicao atendimento,
+                              Distribuicao chegada, Map<String, String> propriedades) {
+        this.nome = nome;
+        this.servidores = servidores;
+        this.capacidade = capacidade;
+        this.atendimento = atendimento;
+        this.chegada = chegada;
+        this.propriedades = Collections.unmodifiableMap(new LinkedHashMap<>(propriedades));
+    }
+
+    // Formato binário compilado (ver ConfigLoader). As propriedades originais seguem
+    // junto para que com() continue derivando cenários da varredura
+    public void escrever(DataOutput out) throws IOException {
+        out.writeUTF(nome);
+        out.writeInt(servidores);
+        out.writeInt(capacidade);
+        atendimento.escrever(out);
+        out.writeBoolean(chegada != null);
+        if (chegada != null) chegada.escrever(out);
+        out.writeInt(propriedades.size());
+        for (Map.Entry<String, String> e : propriedades.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeUTF(e.getValue());
+        }
+    }
+
+    public static EspecificacaoFila ler(DataInput in) throws IOException {
+        String nome = in.readUTF();
+        int servidores = in.readInt();
+        int capacidade = in.readInt();
+        Distribuicao atendimento = Distribuicao.ler(in);
+        Distribuicao chegada = in.readBoolean() ? Distribuicao.ler(in) : null;
+        int n = in.readInt();
+        Map<String, String> propriedades = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) propriedades.put(in.readUTF(), in.readUTF());
+        return new EspecificacaoFila(nome, servidores, capacidade, atendimento, chegada, propriedades);
+    }
+
+    // Cópia com uma propriedade alterada (revalidada)
+    public EspecificacaoFila com(String chave, String valor) {
+        Map<String, String> novas = new LinkedHashMap<>(propriedades);
+        novas.put(chave, valor);
+        return new EspecificacaoFila(nome, novas);
+    }
+
+    public Map<String, String> getPropriedades() {
+        return propriedades;
+    }
+
+    public boolean isInfinita() {
+        return capacidade == Fila.INFINITA;
+    }
+
+    private int lerCapacidade() {
+        String texto = propriedades.get("capacity");
+        if (texto == null || texto.equalsIgnoreCase("inf") || texto.equalsIgnoreCase("infinity")) {
+            return Fila.INFINITA;
+        }
+        return inteiro("capacity", -1);
+    }
+
+    private int inteiro(String chave, int padrao) {
+        String texto = propriedades.get(chave);
+        if (texto == null) {
+            if (padrao < 0) throw erro(chave + " ausente");
+            return padrao;
+        }
+        double valor = numero(chave, Double.NaN);
+        if (valor != Math.rint(valor) || valor > Integer.MAX_VALUE) throw erro(chave + " deve ser inteiro: " + texto);
+        return (int) valor;
+    }
+
+    private double numero(String chave, double padrao) {
+        String texto = propriedades.get(chave);
+        if (texto == null) return padrao;
+        try {
+            return Double.parseDouble(texto);
+        } catch (NumberFormatException e) {
+            throw erro(chave + " não é numérico: " + texto);
+        }
+    }
+
+    private Distribuicao uniforme(String nomeIntervalo, String chaveMin, String chaveMax) {
+        double min = numero(chaveMin, Double.NaN);
+        double max = numero(chaveMax, Double.NaN);
+        if (Double.isNaN(min) || Double.isNaN(max)) throw erro("intervalo de " + nomeIntervalo + " incompleto");
+        if (min < 0 || min > max) throw erro("intervalo de " + nomeIntervalo + " inválido: " + min + ".." + max);
+        return new DistribuicaoUniforme(min, max);
+    }
+
+    private Distribuicao distribuicao(String chave) {
+        try {
+            return Distribuicao.criar(propriedades.get(chave));
+        } catch (IllegalArgumentException e) {
+            throw erro(chave + ": " + e.getMessage());
+        }
+    }
+
+    private IllegalArgumentException erro(String mensagem) {
+        return new IllegalArgumentException("Fila " + nome + ": " + mensagem);
+    }
+}
@@ -0,0 +1,381 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Modelo tipado, validado e imutável de um arquivo de configuração. A ordem das
+// filas é a do arquivo, e o id de cada fila é a sua posição nessa lista. Como é
+// imutável, uma única instância pode ser compartilhada por replicações e cenários.
+public final class EspecificacaoRede {
+
+    private static final Set<String> SECOES = Set.of(
+            "rndnumbersPerSeed", "seeds", "arrivals", "queues", "network", "sweep");
+
+    // Opções gerais (chave: valor na raiz) e as que precisam ser numéricas
+    private static final Set<String> OPCOES = Set.of(
+            "rng", "substreams", "stop", "stopTime", "stopDepartures", "stopPrecision", "stopQueue",
+            "batchTime", "warmup", "trackCustomers", "output", "outputFormat", "instrumentation",
+            "progressInterval", "checkpoint", "checkpointEvents", "batchMeans", "trace",
+            "splitting", "splittingLevels", "splittingEffort", "splittingTime", "antithetic", "controlVariates",
+            "optimize", "maxLoss", "maxQueue", "costServer", "costCapacity", "optimizeTolerance", "optimizeInitial",
+            "optimizeMaxReplications", "lockstep", "partitions");
+    private static final Set<String> OPCOES_NUMERICAS = Set.of(
+            "stopTime", "stopDepartures", "stopPrecision", "batchTime", "warmup", "progressInterval", "checkpointEvents",
+            "splittingEffort", "splittingTime", "maxLoss", "maxQueue", "costServer", "costCapacity",
+            "optimizeTolerance", "optimizeInitial", "optimizeMaxReplications", "lockstep", "partitions");
+
+    public final long rndnumbersPerSeed;  // Long.MAX_VALUE se ausente
+    public final List<Long> seeds;
+    public final Map<String, Double> chegadas;
+    public final List<EspecificacaoFila> filas;
+    public final List<EspecificacaoRota> rotas;
+    public final Map<String, String> opcoes;
+    public final Map<String, List<String>> varredura;
+
+    private final Map<String, Integer> indicePorNome;
+
+    public EspecificacaoRede(long rndnumbersPerSeed, List<Long> seeds, Map<String, Double> chegadas,
+                             List<EspecificacaoFila> filas, List<EspecificacaoRota> rotas,
+                             Map<String, String> opcoes, Map<String, List<String>> varredura) {
+        this(rndnumbersPerSeed, seeds, chegadas, filas, rotas, opcoes, varredura, true);
+    }
+
+    // Com validar = false (formato compilado) os valores são aceitos como estão: já
+    // passaram pela validação quando o arquivo foi gerado
+    private EspecificacaoRede(long rndnumbersPerSeed, List<Long> seeds, Map<String, Double> chegadas,
+                              List<EspecificacaoFila> filas, List<EspecificacaoRota> rotas,
+                              Map<String, String> opcoes, Map<String, List<String>> varredura, boolean validar) {
+        this.rndnumbersPerSeed = rndnumbersPerSeed;
+        this.seeds = Collections.unmodifiableList(new ArrayList<>(seeds));
+        this.chegadas = Collections.unmodifiableMap(new LinkedHashMap<>(chegadas));
+        this.filas = Collections.unmodifiableList(new ArrayList<>(filas));
+        this.rotas = Collections.unmodifiableList(new ArrayList<>(rotas));
+        this.opcoes = Collections.unmodifiableMap(new LinkedHashMap<>(opcoes));
+        Map<String, List<String>> v = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> e : varredura.entrySet()) {
+            v.put(e.getKey(), Collections.unmodifiableList(new ArrayList<>(e.getValue())));
+        }
+        this.varredura = Collections.unmodifiableMap(v);
+
+        Map<String, Integer> indices = new LinkedHashMap<>();
+        for (int i = 0; i < this.filas.size(); i++) {
+            if (indices.put(this.filas.get(i).nome, i) != null) {
+                throw new IllegalArgumentException("Fila repetida: " + this.filas.get(i).nome);
+            }
+        }
+        this.indicePorNome = Collections.unmodifiableMap(indices);
+        if (validar) validar();
+    }
+
+    private void validar() {
+        if (rndnumbersPerSeed <= 0) throw new IllegalArgumentException("rndnumbersPerSeed deve ser positivo");
+        if (seeds.isEmpty()) throw new IllegalArgumentException("Nenhuma seed informada");
+        // sem limite de aleatórios, stop: randoms (o padrão) nunca terminaria
+        if (rndnumbersPerSeed == Long.MAX_VALUE
+                && !Set.of("time", "departures", "precision").contains(opcoes.getOrDefault("stop", "randoms"))) {
+            throw new IllegalArgumentException("rndnumbersPerSeed ausente (obrigatório exceto com stop: time, departures ou precision)");
+        }
+        if (filas.isEmpty()) throw new IllegalArgumentException("Nenhuma fila informada");
+        for (Map.Entry<String, Double> chegada : chegadas.entrySet()) {
+            String nome = chegada.getKey();
+            if (!indicePorNome.containsKey(nome)) throw new IllegalArgumentException("arrivals: fila inexistente " + nome);
+            if (filas.get(indicePorNome.get(nome)).chegada == null) {
+                throw new IllegalArgumentException("arrivals: fila " + nome + " sem arrival ou minArrival/maxArrival");
+            }
+            if (!(chegada.getValue() >= 0)) {
+                throw new IllegalArgumentException("arrivals: instante da primeira chegada inválido em " + nome);
+            }
+        }
+        Map<String, Double> somas = new LinkedHashMap<>();
+        for (EspecificacaoRota r : rotas) {
+            if (!indicePorNome.containsKey(r.origem)) throw new IllegalArgumentException("network: fila inexistente " + r.origem);
+            if (!indicePorNome.containsKey(r.destino)) throw new IllegalArgumentException("network: fila inexistente " + r.destino);
+            somas.merge(r.origem, r.probabilidade, Double::sum);
+        }
+        for (Map.Entry<String, Double> soma : somas.entrySet()) {
+            if (soma.getValue() > 1.0 + 1e-9) {
+                throw new IllegalArgumentException("network: probabilidades de saída de " + soma.getKey()
+                        + " somam " + soma.getValue() + " (> 1)");
+            }
+        }
+        for (Map.Entry<String, String> opcao : opcoes.entrySet()) {
+            if (!OPCOES.contains(opcao.getKey())) throw new IllegalArgumentException("Opção desconhecida: " + opcao.getKey());
+            if (OPCOES_NUMERICAS.contains(opcao.getKey())) opcaoNumero(opcao.getKey());
+        }
+        if (opcoes.containsKey("stopQueue") && !indicePorNome.containsKey(opcoes.get("stopQueue"))) {
+            throw new IllegalArgumentException("stopQueue: fila inexistente " + opcoes.get("stopQueue"));
+        }
+        if (opcoes.containsKey("splitting") && !indicePorNome.containsKey(opcoes.get("splitting"))) {
+            throw new IllegalArgumentException("splitting: fila inexistente " + opcoes.get("splitting"));
+        }
+        if (!varredura.isEmpty()) {
+            // cada valor da varredura precisa gerar um cenário válido
+            EspecificacaoRede base = semVarredura();
+            for (Map.Entry<String, List<String>> parametro : varredura.entrySet()) {
+                if (parametro.getValue().isEmpty()) throw new IllegalArgumentException("sweep sem valores: " + parametro.getKey());
+                for (String valor : parametro.getValue()) base.comParametro(parametro.getKey(), valor);
+            }
+        }
+    }
+
+    // Constrói a especificação a partir da árvore lida por LeitorYaml
+    public static EspecificacaoRede de(Map<String, Object> arvore) {
+        long rnd = Long.MAX_VALUE;
+        List<Long> seeds = new ArrayList<>();
+        Map<String, Double> chegadas = new LinkedHashMap<>();
+        List<EspecificacaoFila> filas = new ArrayList<>();
+        List<EspecificacaoRota> rotas = new ArrayList<>();
+        Map<String, String> opcoes = new LinkedHashMap<>();
+        Map<String, List<String>> varredura = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Object> secao : arvore.entrySet()) {
+            String chave = secao.getKey();
+            Object valor = secao.getValue();
+            if (!SECOES.contains(chave)) {
+                if (!(valor instanceof String)) throw new IllegalArgumentException("Opção " + chave + " deve ser um valor simples");
+                opcoes.put(chave, (String) valor);
+                continue;
+            }
+            switch (chave) {
+                case "rndnumbersPerSeed":
+                    rnd = (long) numero(valor, chave);
+                    break;
+                case "seeds":
+                    for (Object s : lista(valor, chave)) seeds.add(inteiro(s, "seeds"));
+                    break;
+                case "arrivals":
+                    for (Map.Entry<String, Object> e : mapa(valor, chave).entrySet()) {
+                        chegadas.put(e.getKey(), numero(e.getValue(), "arrivals." + e.getKey()));
+                    }
+                    break;
+                case "queues":
+                    for (Map.Entry<String, Object> e : mapa(valor, chave).entrySet()) {
+                        Map<String, String> props = new LinkedHashMap<>();
+                        for (Map.Entry<String, Object> p : mapa(e.getValue(), "queues." + e.getKey()).entrySet()) {
+                            props.put(p.getKey(), texto(p.getValue(), "queues." + e.getKey() + "." + p.getKey()));
+                        }
+                        filas.add(new EspecificacaoFila(e.getKey(), props));
+                    }
+                    break;
+                case "network":
+                    for (Object item : lista(valor, chave)) {
+                        Map<String, Object> conexao = mapa(item, "network");
+                        rotas.add(new EspecificacaoRota(
+                                (String) conexao.get("source"), (String) conexao.get("target"),
+                                numero(conexao.get("probability"), "network.probability")));
+                    }
+                    break;
+                case "sweep":
+                    for (Map.Entry<String, Object> e : mapa(valor, chave).entrySet()) {
+                        varredura.put(e.getKey(), valoresVarredura(e.getValue(), "sweep." + e.getKey()));
+                    }
+                    break;
+            }
+        }
+        return new EspecificacaoRede(rnd, seeds, chegadas, filas, rotas, opcoes, varredura);
+    }
+
+    public int indiceDe(String nomeFila) {
+        Integer i = indicePorNome.get(nomeFila);
+        if (i == null) throw new IllegalArgumentException("Fila inexistente: " + nomeFila);
+        return i;
+    }
+
+    public String opcao(String chave) {
+        return opcoes.get(chave);
+    }
+
+    public boolean opcaoBooleana(String chave) {
+        return Boolean.parseBoolean(opcoes.get(chave));
+    }
+
+    public double opcaoNumero(String chave) {
+        String texto = opcoes.get(chave);
+        if (texto == null) throw new IllegalArgumentException("Parâmetro numérico ausente: " + chave);
+        try {
+            return Double.parseDouble(texto);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro numérico inválido: " + chave + " = " + texto);
+        }
+    }
+
+    // ---- Derivações (cenários da varredura) ----
+
+    // Aplica "FILA.chave" (propriedade da fila) ou "ORIGEM->DESTINO" (probabilidade da rota).
+    // O cenário derivado não tem varredura, então a validação de todos os valores da
+    // seção sweep não se repete a cada cenário
+    public EspecificacaoRede comParametro(String parametro, String valor) {
+        if (parametro.contains("->")) {
+            String[] ponta = parametro.split("->", 2);
+            String origem = ponta[0].trim(), destino = ponta[1].trim();
+            List<EspecificacaoRota> novas = new ArrayList<>(rotas);
+            for (int i = 0; i < novas.size(); i++) {
+                EspecificacaoRota r = novas.get(i);
+                if (r.origem.equals(origem) && r.destino.equals(destino)) {
+                    novas.set(i, r.comProbabilidade(Double.parseDouble(valor)));
+                    return new EspecificacaoRede(rndnumbersPerSeed, seeds, chegadas, filas, novas, opcoes, Map.of());
+                }
+            }
+            throw new IllegalArgumentException("Rota inexistente: " + parametro);
+        }
+        int ponto = parametro.indexOf('.');
+        if (ponto < 0) throw new IllegalArgumentException("Parâmetro inválido: " + parametro);
+        int indice = indiceDe(parametro.substring(0, ponto));
+        List<EspecificacaoFila> novas = new ArrayList<>(filas);
+        novas.set(indice, novas.get(indice).com(parametro.substring(ponto + 1), valor));
+        return new EspecificacaoRede(rndnumbersPerSeed, seeds, chegadas, novas, rotas, opcoes, Map.of());
+    }
+
+    public EspecificacaoRede comOpcao(String chave, String valor) {
+        Map<String, String> novas = new LinkedHashMap<>(opcoes);
+        novas.put(chave, valor);
+        return new EspecificacaoRede(rndnumbersPerSeed, seeds, chegadas, filas, rotas, novas, varredura);
+    }
+
+    public EspecificacaoRede semVarredura() {
+        return new EspecificacaoRede(rndnumbersPerSeed, seeds, chegadas, filas, rotas, opcoes, Map.of());
+    }
+
+    // ---- Formato binário compilado (ver ConfigLoader) ----
+
+    public void escrever(DataOutput out) throws IOException {
+        out.writeLong(rndnumbersPerSeed);
+        out.writeInt(seeds.size());
+        for (long s : seeds) out.writeLong(s);
+        out.writeInt(chegadas.size());
+        for (Map.Entry<String, Double> e : chegadas.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeDouble(e.getValue());
+        }
+        out.writeInt(filas.size());
+        for (EspecificacaoFila f : filas) f.escrever(out);
+        out.writeInt(rotas.size());
+        for (EspecificacaoRota r : rotas) {
+            out.writeInt(indiceDe(r.origem));
+            out.writeInt(indiceDe(r.destino));
+            out.writeDouble(r.probabilidade);
+        }
+        escreverMapa(out, opcoes);
+        out.writeInt(varredura.size());
+        for (Map.Entry<String, List<String>> e : varredura.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeInt(e.getValue().size());
+            for (String v : e.getValue()) out.writeUTF(v);
+        }
+    }
+
+    public static EspecificacaoRede ler(DataInput in) throws IOException {
+        long rnd = in.readLong();
+        int n = in.readInt();
+        List<Long> seeds = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) seeds.add(in.readLong());
+        n = in.readInt();
+        Map<String, Double> chegadas = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) chegadas.put(in.readUTF(), in.readDouble());
+        n = in.readInt();
+        List<EspecificacaoFila> filas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) filas.add(EspecificacaoFila.ler(in));
+        n = in.readInt();
+        List<EspecificacaoRota> rotas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String origem = filas.get(in.readInt()).nome;
+            String destino = filas.get(in.readInt()).nome;
+            rotas.add(new EspecificacaoRota(origem, destino, in.readDouble()));
+        }
+        Map<String, String> opcoes = lerMapa(in);
+        n = in.readInt();
+        Map<String, List<String>> varredura = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            String chave = in.readUTF();
+            int m = in.readInt();
+            List<String> valores = new ArrayList<>(m);
+            for (int j = 0; j < m; j++) valores.add(in.readUTF());
+            varredura.put(chave, valores);
+        }
+        return new EspecificacaoRede(rnd, seeds, chegadas, filas, rotas, opcoes, varredura, false);
+    }
+
+    private static void escreverMapa(DataOutput out, Map<String, String> mapa) throws IOException {
+        out.writeInt(mapa.size());
+        for (Map.Entry<String, String> e : mapa.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeUTF(e.getValue());
+        }
+    }
+
+    private static Map<String, String> lerMapa(DataInput in) throws IOException {
+        int n = in.readInt();
+        Map<String, String> mapa = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) mapa.put(in.readUTF(), in.readUTF());
+        return mapa;
+    }
+
+    // ---- Conversões da árvore YAML ----
+
+    // Lista ([a, b]) ou intervalo (min..max[:passo]) de valores de um parâmetro da varredura
+    private static List<String> valoresVarredura(Object valor, String caminho) {
+        List<String> valores = new ArrayList<>();
+        if (valor instanceof List) {
+            for (Object item : (List<?>) valor) valores.add(texto(item, caminho));
+            return valores;
+        }
+        String texto = texto(valor, caminho);
+        if (!texto.contains("..")) {
+            valores.add(texto);
+            return valores;
+        }
+        try {
+            String[] limites = texto.split("\\.\\.", 2);
+            String[] fimPasso = limites[1].split(":", 2);
+            double inicio = Double.parseDouble(limites[0].trim());
+            double fim = Double.parseDouble(fimPasso[0].trim());
+            double passo = fimPasso.length > 1 ? Double.parseDouble(fimPasso[1].trim()) : 1.0;
+            if (passo <= 0) throw new IllegalArgumentException(caminho + ": passo deve ser positivo");
+            for (int k = 0; inicio + k * passo <= fim + 1e-9; k++) {
+                double v = inicio + k * passo;
+                valores.add(v == Math.rint(v) ? String.valueOf((long) v) : String.valueOf(v));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(caminho + ": intervalo inválido " + texto);
+        }
+        return valores;
+    }
+
+    private static double numero(Object valor, String caminho) {
+        String t = texto(valor, caminho);
+        try {
+            return Double.parseDouble(t);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(caminho + ": valor numérico inválido " + t);
+        }
+    }
+
+    private static long inteiro(Object valor, String caminho) {
+        String t = texto(valor, caminho);
+        try {
+            return Long.parseLong(t.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(caminho + ": valor inteiro inválido " + t);
+        }
+    }
+
+    private static String texto(Object valor, String caminho) {
+        if (!(valor instanceof String)) throw new IllegalArgumentException(caminho + ": esperado um valor simples");
+        return (String) valor;
+    }
+
+    private static List<Object> lista(Object valor, String caminho) {
+        if (!(valor instanceof List)) throw new IllegalArgumentException(caminho + ": esperada uma lista");
+        return (List<Object>) valor;
+    }
+
+    private static Map<String, Object> mapa(Object valor, String caminho) {
+        if (!(valor instanceof Map)) throw new IllegalArgumentException(caminho + ": esperado um mapa");
+        return (Map<String, Object>) valor;
+    }
+}
@@ -0,0 +1,23 @@
+// Rota probabilística entre duas filas da rede
+public final class EspecificacaoRota {
+    public final String origem;
+    public final String destino;
+    public final double probabilidade;
+
+    public EspecificacaoRota(String origem, String destino, double probabilidade) {
+        if (origem == null || destino == null) {
+            throw new IllegalArgumentException("Rota precisa de source e target");
+        }
+        if (!(probabilidade >= 0 && probabilidade <= 1)) {
+            throw new IllegalArgumentException("Probabilidade da rota " + origem + " -> " + destino
+                    + " fora de [0, 1]: " + probabilidade);
+        }
+        this.origem = origem;
+        this.destino = destino;
+        this.probabilidade = probabilidade;
+    }
+
+    public EspecificacaoRota comProbabilidade(double p) {
+        return new EspecificacaoRota(origem, destino, p);
+    }
+}
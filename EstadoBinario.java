@@ -0,0 +1,75 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Buffer de escrita que cresce conforme a necessidade, usado para gravar o estado
+// da simulação (ponto de controle). A leitura usa diretamente um ByteBuffer, que
+// pode ser o do próprio arquivo mapeado em memória.
+public class EstadoBinario {
+
+    private ByteBuffer buffer;
+
+    public EstadoBinario() {
+        this(4096);
+    }
+
+    public EstadoBinario(int capacidadeInicial) {
+        buffer = ByteBuffer.allocate(capacidadeInicial).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void garantir(int bytes) {
+        if (buffer.remaining() >= bytes) return;
+        int capacidade = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+        ByteBuffer maior = ByteBuffer.allocate(capacidade).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        maior.put(buffer);
+        buffer = maior;
+    }
+
+    public void putInt(int v) {
+        garantir(4);
+        buffer.putInt(v);
+    }
+
+    public void putLong(long v) {
+        garantir(8);
+        buffer.putLong(v);
+    }
+
+    public void putDouble(double v) {
+        garantir(8);
+        buffer.putDouble(v);
+    }
+
+    public void putBoolean(boolean v) {
+        garantir(1);
+        buffer.put((byte) (v ? 1 : 0));
+    }
+
+    // n seguido dos n primeiros valores do array
+    public void putDoubles(double[] valores, int n) {
+        garantir(4 + 8 * n);
+        buffer.putInt(n);
+        for (int i = 0; i < n; i++) buffer.putDouble(valores[i]);
+    }
+
+    public static double[] getDoubles(ByteBuffer in) {
+        double[] valores = new double[in.getInt()];
+        for (int i = 0; i < valores.length; i++) valores[i] = in.getDouble();
+        return valores;
+    }
+
+    public static boolean getBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    public int tamanho() {
+        return buffer.position();
+    }
+
+    // Conteúdo escrito até aqui, pronto para leitura (ordem little-endian)
+    public ByteBuffer paraLeitura() {
+        ByteBuffer copia = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        copia.flip();
+        return copia;
+    }
+}
@@ -7,6 +7,7 @@ public class Evento implements Comparable<Evento> {
     int tipo;
     int filaOrigem;
     int filaDestino;
+    long sequencia; // desempate: eventos simultâneos saem na ordem de agendamento
 
     public Evento(double tempo, int tipo, int filaOrigem, int filaDestino) {
         this.tempo = tempo;
@@ -17,6 +18,7 @@ public class Evento implements Comparable<Evento> {
 
     @Override
     public int compareTo(Evento o) {
-        return Double.compare(this.tempo, o.tempo);
+        int c = Double.compare(this.tempo, o.tempo);
+        return c != 0 ? c : Long.compare(this.sequencia, o.sequencia);
     }
-}
\ No newline at end of file
+}
@@ -1,41 +1,182 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 public class Fila {
+    // Capacidade usada para filas sem limite (capacity: inf no YAML)
+    public static final int INFINITA = Integer.MAX_VALUE;
+    // Tamanho inicial do histograma de estados quando a capacidade é grande
+    private static final int ESTADOS_INICIAIS = 64;
+
     // Parâmetros da Fila
     public final int id;
+    public final String nome;
     public final int servidores;
     public final int capacidade;
-    public final double minAtendimento;
+    public final double minAtendimento; // suporte da distribuição de atendimento
     public final double maxAtendimento;
+    public final Distribuicao atendimento;
 
     // Variáveis de Estado e Estatísticas
     public int clientesNoSistema;
     public int clientesPerdidos;
+    public long clientesAtendidos; // atendimentos concluídos
+    // Histograma de tempo por estado: cresce conforme a maior população observada,
+    // de modo que memória, reset e relatório não dependem da capacidade configurada
     public double[] temposPorEstado;
+    public int maiorEstado;
     public double tempoUltimoEvento;
+    // Integral da população no tempo (soma de clientes * duração)
+    public double areaPopulacao;
+    // Somas dos tempos sorteados de atendimento e de intervalo entre chegadas externas
+    // (variáveis de controle: as médias verdadeiras são as das distribuições)
+    public double somaAtendimentos;
+    public long atendimentosSorteados;
+    public double somaIntervalos;
+    public long intervalosSorteados;
+
+    // Rastreamento opcional por cliente (espera e permanência); null = desligado
+    public RastreamentoClientes rastreamento;
 
     public Fila(int id, int servidores, int capacidade, double minAtendimento, double maxAtendimento) {
+        this(id, "FILA" + (id + 1), servidores, capacidade, minAtendimento, maxAtendimento);
+    }
+
+    public Fila(int id, String nome, int servidores, int capacidade, double minAtendimento, double maxAtendimento) {
+        this(id, nome, servidores, capacidade, new DistribuicaoUniforme(minAtendimento, maxAtendimento));
+    }
+
+    public Fila(int id, String nome, int servidores, int capacidade, Distribuicao atendimento) {
         this.id = id;
+        this.nome = nome;
         this.servidores = servidores;
         this.capacidade = capacidade;
-        this.minAtendimento = minAtendimento;
-        this.maxAtendimento = maxAtendimento;
-        this.temposPorEstado = new double[capacidade + 1];
+        this.atendimento = atendimento;
+        this.minAtendimento = atendimento.minimo();
+        this.maxAtendimento = atendimento.maximo();
+        this.temposPorEstado = new double[Math.min(capacidade, ESTADOS_INICIAIS) + 1];
         reset();
     }
 
     public void reset() {
         this.clientesNoSistema = 0;
         this.clientesPerdidos = 0;
+        this.clientesAtendidos = 0;
         this.tempoUltimoEvento = 0.0;
-        for (int i = 0; i < temposPorEstado.length; i++) {
-            temposPorEstado[i] = 0.0;
+        this.areaPopulacao = 0.0;
+        zerarSorteios();
+        Arrays.fill(temposPorEstado, 0, maiorEstado + 1, 0.0);
+        this.maiorEstado = 0;
+        if (rastreamento != null) rastreamento.reset();
+    }
+
+    // Descarta as estatísticas coletadas até o tempo informado (fim do aquecimento),
+    // mantendo o estado atual da fila
+    public void descartarEstatisticas(double tempo) {
+        acumulaTempo(tempo);
+        Arrays.fill(temposPorEstado, 0, maiorEstado + 1, 0.0);
+        this.maiorEstado = clientesNoSistema;
+        this.clientesPerdidos = 0;
+        this.clientesAtendidos = 0;
+        this.areaPopulacao = 0.0;
+        zerarSorteios();
+        if (rastreamento != null) rastreamento.descartarEstatisticas();
+    }
+
+    private void zerarSorteios() {
+        somaAtendimentos = 0.0;
+        atendimentosSorteados = 0;
+        somaIntervalos = 0.0;
+        intervalosSorteados = 0;
+    }
+
+    // Estado e estatísticas da fila (ponto de controle); os parâmetros não são gravados
+    public void salvarEstado(EstadoBinario out) {
+        out.putInt(clientesNoSistema);
+        out.putInt(clientesPerdidos);
+        out.putLong(clientesAtendidos);
+        out.putDouble(tempoUltimoEvento);
+        out.putDouble(areaPopulacao);
+        out.putDouble(somaAtendimentos);
+        out.putLong(atendimentosSorteados);
+        out.putDouble(somaIntervalos);
+        out.putLong(intervalosSorteados);
+        out.putDoubles(temposPorEstado, maiorEstado + 1);
+        out.putBoolean(rastreamento != null);
+        if (rastreamento != null) rastreamento.salvarEstado(out);
+    }
+
+    public void restaurarEstado(ByteBuffer in) {
+        clientesNoSistema = in.getInt();
+        clientesPerdidos = in.getInt();
+        clientesAtendidos = in.getLong();
+        tempoUltimoEvento = in.getDouble();
+        areaPopulacao = in.getDouble();
+        somaAtendimentos = in.getDouble();
+        atendimentosSorteados = in.getLong();
+        somaIntervalos = in.getDouble();
+        intervalosSorteados = in.getLong();
+        double[] tempos = EstadoBinario.getDoubles(in);
+        if (tempos.length - 1 > capacidade) {
+            throw new IllegalArgumentException("Fila " + nome + ": estado salvo excede a capacidade " + capacidade);
+        }
+        maiorEstado = tempos.length - 1;
+        temposPorEstado = Arrays.copyOf(tempos, Math.max(tempos.length, Math.min(capacidade, ESTADOS_INICIAIS) + 1));
+        boolean rastreado = EstadoBinario.getBoolean(in);
+        if (rastreado) {
+            if (rastreamento == null) rastreamento = new RastreamentoClientes();
+            rastreamento.restaurarEstado(in);
+        } else {
+            rastreamento = null;
         }
     }
 
-    // Acumula o tempo gasto no estado atual da fila
+    public boolean isInfinita() {
+        return capacidade == INFINITA;
+    }
+
+    // Acumula o tempo gasto no estado atual da fila desde a última mudança.
+    // Deve ser chamado antes de qualquer alteração em clientesNoSistema.
     public void acumulaTempo(double tempoGlobal) {
         if (clientesNoSistema <= capacidade) {
-            temposPorEstado[clientesNoSistema] += tempoGlobal - tempoUltimoEvento;
+            if (clientesNoSistema > maiorEstado) {
+                maiorEstado = clientesNoSistema;
+                if (maiorEstado >= temposPorEstado.length) {
+                    int novoTamanho = (int) Math.min((long) capacidade + 1, 2L * temposPorEstado.length);
+                    temposPorEstado = Arrays.copyOf(temposPorEstado, Math.max(novoTamanho, maiorEstado + 1));
+                }
+            }
+            double duracao = tempoGlobal - tempoUltimoEvento;
+            temposPorEstado[clientesNoSistema] += duracao;
+            areaPopulacao += clientesNoSistema * duracao;
         }
         tempoUltimoEvento = tempoGlobal;
     }
-}
\ No newline at end of file
+
+    // População média ponderada pelo tempo, considerando o tempo total observado
+    public double populacaoMedia(double tempoTotal) {
+        double soma = 0.0;
+        for (int j = 0; j <= maiorEstado; j++) {
+            soma += j * (temposPorEstado[j] / tempoTotal);
+        }
+        return soma;
+    }
+
+    // Probabilidade da fila estar vazia (P0)
+    public double probabilidadeVazia(double tempoTotal) {
+        return temposPorEstado[0] / tempoTotal;
+    }
+
+    // Fração média dos servidores ocupados
+    public double utilizacao(double tempoTotal) {
+        double ocupados = 0.0;
+        for (int j = 0; j <= maiorEstado; j++) {
+            ocupados += Math.min(j, servidores) * temposPorEstado[j];
+        }
+        return ocupados / (servidores * tempoTotal);
+    }
+
+    // Atendimentos concluídos por unidade de tempo
+    public double vazao(double tempoTotal) {
+        return clientesAtendidos / tempoTotal;
+    }
+}
@@ -0,0 +1,5 @@
+// Origem dos números uniformes em [0, 1) sorteados pelas distribuições. Só sorteia:
+// subfluxos, cópias e pontos de controle ficam com o GeradorAleatorio por trás dela
+public interface FonteAleatoria {
+    double nextRandom();
+}
@@ -0,0 +1,243 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Estimativa de probabilidades de perda pequenas (1e-5, 1e-6) por fracionamento em
+// níveis com esforço fixo (fixed-effort multilevel splitting) sobre a população da
+// fila alvo. Com níveis l1 < l2 < ... < K (K = capacidade), toda perda acontece em uma
+// excursão que começa quando a população sobe para l1 e termina quando cai abaixo de l1:
+//
+//   P(perda) = (excursões por chegada) * P(l1 -> l2) * ... * P(l_m -> K) * E[perdas | K]
+//
+// O estágio 0 é uma execução normal por splittingTime que conta as excursões e as
+// chegadas à fila e guarda o estado (Simulador.salvarEstado) em cada subida para l1.
+// Em cada estágio seguinte, esforco ramos partem dos estados de entrada (em rodízio),
+// cada um com seus próprios subfluxos (Simulador.ramificar), e correm até atingir o
+// próximo nível (sucesso: o estado vira entrada do estágio seguinte) ou cair abaixo
+// de l1. Do nível K os ramos contam as perdas até caírem abaixo de l1. Cada seed é uma
+// replicação independente do procedimento inteiro; o IC vem da variação entre elas.
+public class Fracionamento {
+
+    public static final int ESFORCO_PADRAO = 1000;
+    private static final int ESTAGIOS_PADRAO = 4;
+
+    // Resultado de uma replicação
+    private static class Replicacao {
+        double probPerda;
+        double excursoesPorChegada;
+        double[] probEstagio;      // P(nivel k -> nivel k + 1)
+        double perdasPorVisita;    // E[perdas até cair abaixo de l1 | atingiu K]
+        long perdasDiretas;        // perdas vistas no estágio 0 (sem fracionamento)
+        long chegadas;
+        long eventos;
+    }
+
+    // Médias e intervalos de confiança sobre as replicações
+    public static class Resultado {
+        public final String fila;
+        public final int[] niveis;   // l1, ..., K
+        public final int esforco;
+        public final AcumuladorMedia probPerda = new AcumuladorMedia();
+        public final AcumuladorMedia excursoesPorChegada = new AcumuladorMedia();
+        public final AcumuladorMedia[] probEstagio;
+        public final AcumuladorMedia perdasPorVisita = new AcumuladorMedia();
+        public long perdasDiretas;
+        public long chegadas;
+        public long eventos;
+
+        Resultado(String fila, int[] niveis, int esforco) {
+            this.fila = fila;
+            this.niveis = niveis;
+            this.esforco = esforco;
+            this.probEstagio = new AcumuladorMedia[niveis.length - 1];
+            for (int k = 0; k < probEstagio.length; k++) probEstagio[k] = new AcumuladorMedia();
+        }
+
+        void adicionar(Replicacao r) {
+            probPerda.adicionar(r.probPerda);
+            excursoesPorChegada.adicionar(r.excursoesPorChegada);
+            for (int k = 0; k < probEstagio.length; k++) probEstagio[k].adicionar(r.probEstagio[k]);
+            perdasPorVisita.adicionar(r.perdasPorVisita);
+            perdasDiretas += r.perdasDiretas;
+            chegadas += r.chegadas;
+            eventos += r.eventos;
+        }
+
+        public void imprimir() {
+            System.out.printf("Fracionamento na fila %s: níveis %s, esforço %d, replicações %d (IC de 95%%)\n\n",
+                    fila, Arrays.toString(niveis), esforco, probPerda.getN());
+            imprimirMetrica("Excursões acima de " + niveis[0] + " por chegada", excursoesPorChegada);
+            for (int k = 0; k < probEstagio.length; k++) {
+                imprimirMetrica("P(" + niveis[k] + " -> " + niveis[k + 1] + ")", probEstagio[k]);
+            }
+            imprimirMetrica("Perdas por visita a " + niveis[niveis.length - 1], perdasPorVisita);
+            System.out.println();
+            imprimirMetrica("Probabilidade de perda", probPerda);
+            System.out.printf("  %-34s %d em %d chegadas\n", "Perdas sem fracionamento:", perdasDiretas, chegadas);
+            System.out.printf("  %-34s %d\n", "Eventos simulados:", eventos);
+        }
+
+        private static void imprimirMetrica(String nome, AcumuladorMedia a) {
+            System.out.printf("  %-34s %12.6g ± %.3g\n", nome + ":", a.getMedia(), a.getSemiAmplitudeIC95());
+        }
+    }
+
+    // splitting: fila alvo; splittingLevels: "l1, l2, ..." abaixo da capacidade (padrão:
+    // 4 estágios iguais); splittingEffort: ramos por estágio; splittingTime: duração do
+    // estágio 0 (padrão: stopTime)
+    public static Resultado executar(EspecificacaoRede config, int paralelismo) {
+        int alvo = config.indiceDe(config.opcao("splitting"));
+        int[] niveis = lerNiveis(config, alvo);
+        int esforco = config.opcoes.containsKey("splittingEffort")
+                ? (int) config.opcaoNumero("splittingEffort") : ESFORCO_PADRAO;
+        if (esforco <= 0) throw new IllegalArgumentException("splittingEffort deve ser positivo");
+        double tempo = config.opcoes.containsKey("splittingTime")
+                ? config.opcaoNumero("splittingTime") : config.opcaoNumero("stopTime");
+        // o estágio 0 e cada ramo ocupam 2n + 1 subfluxos; com o LCG (256 subfluxos) os
+        // ramos passariam a repetir os números uns dos outros
+        long subfluxos = (2L * config.filas.size() + 1) * (1 + (long) niveis.length * esforco);
+        if (subfluxos > Main.criarGerador(config, config.seeds, 0).subfluxos()) {
+            throw new IllegalArgumentException("splitting com " + niveis.length + " estágios e esforço " + esforco
+                    + " precisa de rng: xoshiro (o LCG tem 256 subfluxos)");
+        }
+
+        List<Callable<Replicacao>> tarefas = new ArrayList<>();
+        for (int i = 0; i < config.seeds.size(); i++) {
+            GeradorAleatorio rng = Main.criarGerador(config, config.seeds, i);
+            tarefas.add(() -> replicar(config, rng, alvo, niveis, esforco, tempo));
+        }
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            Resultado resultado = new Resultado(config.filas.get(alvo).nome, niveis, esforco);
+            for (Future<Replicacao> futuro : pool.invokeAll(tarefas)) resultado.adicionar(futuro.get());
+            return resultado;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Fracionamento interrompido", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro em uma replicação: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Níveis crescentes em [1, K) seguidos da capacidade K da fila alvo
+    static int[] lerNiveis(EspecificacaoRede config, int alvo) {
+        int capacidade = config.filas.get(alvo).capacidade;
+        if (capacidade == Fila.INFINITA) {
+            throw new IllegalArgumentException("splitting: a fila " + config.filas.get(alvo).nome + " não tem capacidade finita");
+        }
+        String texto = config.opcao("splittingLevels");
+        int[] niveis;
+        if (texto == null) {
+            int estagios = Math.min(ESTAGIOS_PADRAO, capacidade);
+            niveis = new int[estagios];
+            for (int k = 0; k < estagios; k++) niveis[k] = Math.max(1, (int) Math.round((double) (k + 1) * capacidade / estagios));
+        } else {
+            String[] partes = texto.split(",");
+            niveis = new int[partes.length + 1];
+            for (int k = 0; k < partes.length; k++) {
+                try {
+                    niveis[k] = Integer.parseInt(partes[k].trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("splittingLevels inválido: " + texto);
+                }
+            }
+            niveis[partes.length] = capacidade;
+        }
+        for (int k = 0; k < niveis.length; k++) {
+            if (niveis[k] < 1 || (k > 0 && niveis[k] <= niveis[k - 1])) {
+                throw new IllegalArgumentException("splittingLevels deve ser crescente, entre 1 e a capacidade (" + capacidade + ")");
+            }
+        }
+        return niveis;
+    }
+
+    private static Replicacao replicar(EspecificacaoRede config, GeradorAleatorio rng, int alvo, int[] niveis,
+                                       int esforco, double tempo) {
+        Simulador base = Main.construirSimulador(config, rng);
+        base.setCriterioParada(CriterioParada.porTempo(tempo));
+        base.setRastrearClientes(false);
+        base.setMediasEmLote(false, 0);
+        // cada ramo usa os subfluxos 0..2n de um gerador próprio; os geradores dos ramos
+        // começam depois dos subfluxos do estágio 0 e se sucedem com o mesmo passo
+        int passo = 2 * config.filas.size() + 1;
+        GeradorAleatorio ramos = rng.fluxo(passo);
+
+        // estágio 0: excursões, chegadas e estados de entrada em l1. Guarda no máximo
+        // 2 * esforco estados, espaçados igualmente ao longo da execução
+        Replicacao r = new Replicacao();
+        r.probEstagio = new double[niveis.length - 1];
+        Fila fila = base.getFilas().get(alvo);
+        List<ByteBuffer> entradas = new ArrayList<>();
+        long excursoes = 0;
+        long espacamento = 1;
+        base.iniciar();
+        int anterior = fila.clientesNoSistema;
+        while (!base.avancar(1)) {
+            int populacao = fila.clientesNoSistema;
+            if (populacao == niveis[0] && anterior < niveis[0] && excursoes++ % espacamento == 0) {
+                entradas.add(base.salvarEstado());
+                if (entradas.size() == 2 * esforco) {
+                    List<ByteBuffer> mantidas = new ArrayList<>();
+                    for (int i = 0; i < entradas.size(); i += 2) mantidas.add(entradas.get(i));
+                    entradas = mantidas;
+                    espacamento *= 2;
+                }
+            }
+            anterior = populacao;
+        }
+        r.eventos = base.getEventosProcessados();
+        r.perdasDiretas = fila.clientesPerdidos;
+        r.chegadas = fila.clientesAtendidos + fila.clientesNoSistema + fila.clientesPerdidos;
+        r.excursoesPorChegada = r.chegadas > 0 ? (double) excursoes / r.chegadas : 0.0;
+
+        double estimativa = r.excursoesPorChegada;
+        for (int k = 0; k + 1 < niveis.length; k++) {
+            List<ByteBuffer> proximas = new ArrayList<>();
+            for (int j = 0; j < esforco && !entradas.isEmpty(); j++) {
+                Simulador ramo = base.ramificar(entradas.get(j % entradas.size()), ramos);
+                ramos = ramos.fluxo(passo);
+                ramo.setCriterioParada(CriterioParada.porTempo(Double.MAX_VALUE));
+                long inicio = ramo.getEventosProcessados();
+                if (correr(ramo, alvo, niveis[0], niveis[k + 1]) >= niveis[k + 1]) proximas.add(ramo.salvarEstado());
+                r.eventos += ramo.getEventosProcessados() - inicio;
+            }
+            r.probEstagio[k] = (double) proximas.size() / esforco;
+            estimativa *= r.probEstagio[k];
+            entradas = proximas;
+        }
+
+        // nível K: perdas até a população cair abaixo de l1
+        long perdas = 0;
+        for (int j = 0; j < esforco && !entradas.isEmpty(); j++) {
+            Simulador ramo = base.ramificar(entradas.get(j % entradas.size()), ramos);
+            ramos = ramos.fluxo(passo);
+            ramo.setCriterioParada(CriterioParada.porTempo(Double.MAX_VALUE));
+            long inicio = ramo.getEventosProcessados();
+            int perdidosAntes = ramo.getFilas().get(alvo).clientesPerdidos;
+            correr(ramo, alvo, niveis[0], Integer.MAX_VALUE);
+            perdas += ramo.getFilas().get(alvo).clientesPerdidos - perdidosAntes;
+            r.eventos += ramo.getEventosProcessados() - inicio;
+        }
+        r.perdasPorVisita = entradas.isEmpty() ? 0.0 : (double) perdas / esforco;
+        r.probPerda = estimativa * r.perdasPorVisita;
+        return r;
+    }
+
+    // Avança o ramo até a população da fila alvo atingir teto ou cair abaixo de piso;
+    // devolve a população final (-1 se a execução terminou antes)
+    private static int correr(Simulador ramo, int alvo, int piso, int teto) {
+        Fila fila = ramo.getFilas().get(alvo);
+        while (!ramo.avancar(1)) {
+            int populacao = fila.clientesNoSistema;
+            if (populacao >= teto || populacao < piso) return populacao;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,87 @@
+import java.nio.ByteBuffer;
+
+// Base dos geradores de números pseudoaleatórios usados pelo simulador.
+// Cada gerador é um fluxo independente e sem sincronização; para execuções
+// paralelas ou fluxos separados por finalidade, derive subfluxos com fluxo(k)
+// em vez de compartilhar uma instância entre threads.
+public abstract class GeradorAleatorio implements FonteAleatoria {
+
+    // Limite opcional de números que podem ser sorteados por este gerador
+    private long count;
+
+    protected GeradorAleatorio(long count) {
+        this.count = count;
+    }
+
+    // Números que ainda podem ser sorteados
+    protected long restantes() {
+        return count;
+    }
+
+    public boolean hasNext() {
+        return count > 0;
+    }
+
+    @Override
+    public final double nextRandom() {
+        if (count <= 0) throw new RuntimeException("Limite de aleatórios atingido!");
+        count--;
+        return proximo();
+    }
+
+    public double uniforme(double min, double max) {
+        return min + (max - min) * nextRandom();
+    }
+
+    // Próximo número uniforme em [0, 1)
+    protected abstract double proximo();
+
+    // Grava os próximos n números da sequência em destino[inicio..inicio + n), sem
+    // descontar do limite (quem chama controla o orçamento). Subclasses podem gerar o
+    // bloco inteiro de uma vez em vez de número a número
+    protected void preencher(double[] destino, int inicio, int n) {
+        for (int j = 0; j < n; j++) destino[inicio + j] = proximo();
+    }
+
+    // Subfluxo k deste gerador: sequência independente e sem sobreposição com
+    // os demais subfluxos (dentro dos limites do período de cada gerador).
+    // O estado deste gerador não é alterado, e o subfluxo não tem limite de sorteios.
+    public abstract GeradorAleatorio fluxo(int k);
+
+    // Quantos subfluxos distintos fluxo(k) oferece (a partir daí as sequências se repetem)
+    public long subfluxos() {
+        return Long.MAX_VALUE;
+    }
+
+    // Estado completo (ponto de controle): limite restante e estado interno do gerador
+    public final void salvarEstado(EstadoBinario out) {
+        out.putLong(count);
+        salvarInterno(out);
+    }
+
+    public final void restaurarEstado(ByteBuffer in) {
+        count = in.getLong();
+        restaurarInterno(in);
+    }
+
+    protected abstract void salvarInterno(EstadoBinario out);
+
+    protected abstract void restaurarInterno(ByteBuffer in);
+
+    // Cópia independente, no mesmo ponto da sequência
+    public abstract GeradorAleatorio copiar();
+
+    // Cria um gerador pelo nome usado no YAML (chave rng)
+    public static GeradorAleatorio criar(String tipo, long seed) {
+        switch (tipo == null ? "lcg" : tipo.toLowerCase()) {
+            case "lcg":
+                return new LCG(seed);
+            case "lcg-mascara":
+                return new LCGMascara(seed);
+            case "xoshiro":
+                return new Xoshiro256(seed);
+            default:
+                throw new IllegalArgumentException("Gerador aleatório desconhecido: " + tipo);
+        }
+    }
+}
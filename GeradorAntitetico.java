@@ -0,0 +1,58 @@
+import java.nio.ByteBuffer;
+
+// Espelho de outro gerador: sorteia 1 - u para cada u da sequência original, na mesma
+// ordem. Uma execução com o gerador e outra com o seu espelho formam um par antitético
+// (variáveis antitéticas): com as duas médias negativamente correlacionadas, a média do
+// par varia menos que a de duas execuções independentes. Os subfluxos são os espelhos
+// dos subfluxos do original, então substreams: true mantém o sincronismo por finalidade.
+public class GeradorAntitetico extends GeradorAleatorio {
+    private final GeradorAleatorio original;
+
+    // Espelha a sequência de original a partir do ponto atual (original não é alterado)
+    public GeradorAntitetico(GeradorAleatorio original) {
+        this(original.copiar(), original.restantes());
+    }
+
+    private GeradorAntitetico(GeradorAleatorio proprio, long count) {
+        super(count);
+        this.original = proprio;
+    }
+
+    @Override
+    protected double proximo() {
+        // u = 0 fica em 0 para manter o intervalo [0, 1) (1 - u daria 1)
+        double u = original.proximo();
+        return u == 0.0 ? 0.0 : 1.0 - u;
+    }
+
+    @Override
+    protected void preencher(double[] destino, int inicio, int n) {
+        original.preencher(destino, inicio, n);
+        for (int j = inicio; j < inicio + n; j++) destino[j] = destino[j] == 0.0 ? 0.0 : 1.0 - destino[j];
+    }
+
+    @Override
+    public GeradorAleatorio fluxo(int k) {
+        return new GeradorAntitetico(original.fluxo(k), Long.MAX_VALUE);
+    }
+
+    @Override
+    public long subfluxos() {
+        return original.subfluxos();
+    }
+
+    @Override
+    public GeradorAleatorio copiar() {
+        return new GeradorAntitetico(original.copiar(), restantes());
+    }
+
+    @Override
+    protected void salvarInterno(EstadoBinario out) {
+        original.salvarInterno(out);
+    }
+
+    @Override
+    protected void restaurarInterno(ByteBuffer in) {
+        original.restaurarInterno(in);
+    }
+}
@@ -0,0 +1,151 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Rastro binário de todos os eventos processados, para depuração (ver LeitorRastro).
+// Cada registro guarda o tipo, o tempo como diferença dos bits do tempo anterior
+// (zigzag + varint), as filas de origem e destino e a população delas após o evento.
+// O simulador escreve em um buffer em memória; buffers cheios vão para uma thread
+// que grava no FileChannel, de modo que a simulação só espera o disco se todos os
+// BUFFERS estiverem pendentes.
+public class GravadorRastro implements AutoCloseable {
+
+    public static final int MAGICO = 0x53494D54; // "SIMT"
+    public static final int VERSAO = 1;
+
+    // Tipos de registro além dos eventos (Evento.CHEGADA, PASSAGEM, SAIDA)
+    public static final int AQUECIMENTO = 8;   // estatísticas descartadas no instante do registro
+    public static final int FIM = 9;           // fim da execução (tempos finais creditados)
+
+    private static final int TAMANHO_BUFFER = 1 << 20;
+    private static final int BUFFERS = 4;
+    private static final int MAIOR_REGISTRO = 1 + 10 + 4 * 5;
+
+    private final FileChannel canal;
+    private final BlockingQueue<ByteBuffer> livres = new ArrayBlockingQueue<>(BUFFERS);
+    private final BlockingQueue<ByteBuffer> cheios = new ArrayBlockingQueue<>(BUFFERS + 1);
+    private final Thread gravadora;
+    private volatile IOException erro;
+    private ByteBuffer atual;
+    private long bitsAnteriores;
+    private boolean fechado;
+
+    private GravadorRastro(FileChannel canal) {
+        this.canal = canal;
+        for (int i = 0; i < BUFFERS - 1; i++) livres.add(ByteBuffer.allocateDirect(TAMANHO_BUFFER));
+        this.atual = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        this.gravadora = new Thread(this::gravar, "rastro-eventos");
+        this.gravadora.setDaemon(true);
+        this.gravadora.start();
+    }
+
+    // Cria o arquivo com o cabeçalho: número de filas e, para cada uma, servidores e capacidade
+    public static GravadorRastro abrir(Path arquivo, List<Fila> filas) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        GravadorRastro gravador = new GravadorRastro(canal);
+        ByteBuffer b = gravador.atual;
+        b.putInt(MAGICO);
+        b.putInt(VERSAO);
+        b.putInt(filas.size());
+        for (Fila f : filas) {
+            b.putInt(f.servidores);
+            b.putInt(f.capacidade);
+        }
+        return gravador;
+    }
+
+    // Evento processado; origem/destino -1 quando não se aplicam (chegada externa, saída do sistema)
+    public void registrar(double tempo, int tipo, int origem, int destino, int populacaoOrigem, int populacaoDestino) {
+        if (atual.remaining() < MAIOR_REGISTRO) trocarBuffer();
+        atual.put((byte) tipo);
+        escreverTempo(tempo);
+        escreverVarint(origem + 1);
+        escreverVarint(destino + 1);
+        if (origem >= 0) escreverVarint(populacaoOrigem);
+        if (destino >= 0) escreverVarint(populacaoDestino);
+    }
+
+    public void registrarAquecimento(double tempo) {
+        registrarMarca(AQUECIMENTO, tempo);
+    }
+
+    public void registrarFim(double tempo) {
+        registrarMarca(FIM, tempo);
+    }
+
+    private void registrarMarca(int tipo, double tempo) {
+        if (atual.remaining() < MAIOR_REGISTRO) trocarBuffer();
+        atual.put((byte) tipo);
+        escreverTempo(tempo);
+    }
+
+    private void escreverTempo(double tempo) {
+        long bits = Double.doubleToRawLongBits(tempo);
+        long delta = bits - bitsAnteriores;
+        bitsAnteriores = bits;
+        escreverVarint((delta << 1) ^ (delta >> 63));
+    }
+
+    private void escreverVarint(long v) {
+        while ((v & ~0x7FL) != 0) {
+            atual.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        atual.put((byte) v);
+    }
+
+    // Entrega o buffer cheio à thread de gravação e continua em um livre
+    private void trocarBuffer() {
+        if (erro != null) throw new IllegalStateException("Falha ao gravar o rastro de eventos", erro);
+        atual.flip();
+        try {
+            cheios.put(atual);
+            atual = livres.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Gravação do rastro interrompida", e);
+        }
+    }
+
+    private void gravar() {
+        try {
+            while (true) {
+                ByteBuffer b = cheios.take();
+                if (!b.hasRemaining() && b.capacity() == 0) return; // fim
+                try {
+                    while (b.hasRemaining()) canal.write(b);
+                } catch (IOException e) {
+                    if (erro == null) erro = e;
+                }
+                b.clear();
+                livres.put(b);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Grava o que falta, espera a thread de gravação e fecha o arquivo
+    @Override
+    public void close() throws IOException {
+        if (fechado) return;
+        fechado = true;
+        try {
+            atual.flip();
+            cheios.put(atual);
+            cheios.put(ByteBuffer.allocate(0));
+            gravadora.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            canal.close();
+        }
+        if (erro != null) throw erro;
+    }
+}
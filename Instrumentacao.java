@@ -0,0 +1,265 @@
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+
+// Instrumentação opcional de execuções longas. O Simulador conta os eventos em
+// variáveis locais e publica aqui a cada INTERVALO_PUBLICACAO eventos, de modo que
+// o laço principal só paga uma verificação de null quando ela está desligada e um
+// incremento local quando está ligada. Os contadores são LongAdder porque várias
+// replicações em paralelo publicam na mesma instância.
+//
+// Os valores ficam visíveis por JMX (simulacao:type=Instrumentacao), por uma linha
+// de progresso periódica em System.err e por eventos JFR (simulacao.Progresso,
+// periódico, e simulacao.Execucao, um por replicação).
+public class Instrumentacao implements InstrumentacaoMBean, Closeable {
+
+    public static final int INTERVALO_PUBLICACAO = 4096;
+
+    private final String[] nomesFilas;
+    private final LongAdder eventos = new LongAdder();
+    private final LongAdder[] eventosPorTipo = {new LongAdder(), new LongAdder(), new LongAdder()};
+    private final LongAdder[] perdidosPorFila;
+    private final LongAdder execucoesConcluidas = new LongAdder();
+    private final AtomicIntegerArray ocupacao;
+    private volatile double tempoSimulado;
+    private volatile int tamanhoAgenda;
+    private volatile double progresso = Double.NaN;
+    private volatile double eventosPorSegundo;
+    private volatile boolean cancelado;
+
+    // Amostragem da taxa de eventos e linha de progresso
+    private ScheduledExecutorService agendador;
+    private long eventosAnteriores;
+    private long nanosAnteriores;
+    private ObjectName nomeJmx;
+    private Runnable ganchoJfr;
+
+    public Instrumentacao(String[] nomesFilas) {
+        this.nomesFilas = nomesFilas.clone();
+        this.perdidosPorFila = new LongAdder[nomesFilas.length];
+        for (int i = 0; i < nomesFilas.length; i++) perdidosPorFila[i] = new LongAdder();
+        this.ocupacao = new AtomicIntegerArray(nomesFilas.length);
+    }
+
+    // Registra o MBean, o evento JFR periódico e a amostragem da taxa; com
+    // intervaloProgresso > 0 imprime uma linha de progresso a cada intervalo (segundos)
+    public Instrumentacao iniciar(String nome, double intervaloProgresso) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            nomeJmx = new ObjectName("simulacao:type=Instrumentacao,name=" + ObjectName.quote(nome));
+            servidor.registerMBean(this, nomeJmx);
+        } catch (JMException e) {
+            System.err.println("Aviso: instrumentação sem JMX: " + e.getMessage());
+            nomeJmx = null;
+        }
+
+        ganchoJfr = () -> {
+            ProgressoJfr evento = new ProgressoJfr();
+            evento.eventos = eventos.sum();
+            evento.eventosPorSegundo = eventosPorSegundo;
+            evento.tempoSimulado = tempoSimulado;
+            evento.tamanhoAgenda = tamanhoAgenda;
+            evento.perdidos = getClientesPerdidos();
+            evento.progresso = progresso;
+            evento.commit();
+        };
+        FlightRecorder.addPeriodicEvent(ProgressoJfr.class, ganchoJfr);
+
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "instrumentacao");
+            t.setDaemon(true);
+            return t;
+        });
+        nanosAnteriores = System.nanoTime();
+        agendador.scheduleAtFixedRate(this::amostrarTaxa, 1, 1, TimeUnit.SECONDS);
+        if (intervaloProgresso > 0) {
+            long ms = (long) (intervaloProgresso * 1000);
+            agendador.scheduleAtFixedRate(() -> System.err.println(linhaProgresso()), ms, ms, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    private void amostrarTaxa() {
+        long agora = System.nanoTime();
+        long total = eventos.sum();
+        eventosPorSegundo = (total - eventosAnteriores) * 1e9 / Math.max(1, agora - nanosAnteriores);
+        eventosAnteriores = total;
+        nanosAnteriores = agora;
+    }
+
+    // Chamado pelo Simulador; devolve true se as execuções devem ser interrompidas
+    boolean publicar(long novosEventos, long[] porTipo, double tempo, int agenda, double fracao) {
+        eventos.add(novosEventos);
+        for (int t = 0; t < porTipo.length; t++) {
+            if (porTipo[t] != 0) eventosPorTipo[t].add(porTipo[t]);
+            porTipo[t] = 0;
+        }
+        tempoSimulado = tempo;
+        tamanhoAgenda = agenda;
+        progresso = fracao;
+        return cancelado;
+    }
+
+    void publicarFila(int fila, int clientes, long novosPerdidos) {
+        ocupacao.lazySet(fila, clientes);
+        if (novosPerdidos != 0) perdidosPorFila[fila].add(novosPerdidos);
+    }
+
+    void concluirExecucao(long eventosExecucao, double tempo, ExecucaoJfr evento) {
+        execucoesConcluidas.increment();
+        if (evento.shouldCommit()) {
+            evento.eventos = eventosExecucao;
+            evento.tempoSimulado = tempo;
+            evento.commit();
+        }
+    }
+
+    public String linhaProgresso() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "[progresso] t=%.1f", tempoSimulado));
+        if (!Double.isNaN(progresso)) sb.append(String.format(Locale.ROOT, " (%.1f%%)", progresso * 100));
+        sb.append(String.format(Locale.ROOT, " eventos=%d (%.0f/s) agenda=%d perdidos=%d concluídas=%d",
+                eventos.sum(), eventosPorSegundo, tamanhoAgenda, getClientesPerdidos(), execucoesConcluidas.sum()));
+        for (int i = 0; i < nomesFilas.length; i++) {
+            sb.append(' ').append(nomesFilas[i]).append('=').append(ocupacao.get(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        if (agendador != null) agendador.shutdownNow();
+        if (ganchoJfr != null) FlightRecorder.removePeriodicEvent(ganchoJfr);
+        if (nomeJmx != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(nomeJmx);
+            } catch (JMException e) {
+                // já removido
+            }
+        }
+    }
+
+    @Override
+    public long getEventosProcessados() {
+        return eventos.sum();
+    }
+
+    @Override
+    public double getEventosPorSegundo() {
+        return eventosPorSegundo;
+    }
+
+    @Override
+    public long getChegadas() {
+        return eventosPorTipo[Evento.CHEGADA].sum();
+    }
+
+    @Override
+    public long getPassagens() {
+        return eventosPorTipo[Evento.PASSAGEM].sum();
+    }
+
+    @Override
+    public long getSaidas() {
+        return eventosPorTipo[Evento.SAIDA].sum();
+    }
+
+    @Override
+    public long getClientesPerdidos() {
+        long total = 0;
+        for (LongAdder p : perdidosPorFila) total += p.sum();
+        return total;
+    }
+
+    @Override
+    public long getExecucoesConcluidas() {
+        return execucoesConcluidas.sum();
+    }
+
+    @Override
+    public double getTempoSimulado() {
+        return tempoSimulado;
+    }
+
+    @Override
+    public int getTamanhoAgenda() {
+        return tamanhoAgenda;
+    }
+
+    @Override
+    public double getProgresso() {
+        return progresso;
+    }
+
+    @Override
+    public String[] getNomesFilas() {
+        return nomesFilas.clone();
+    }
+
+    @Override
+    public int[] getOcupacaoFilas() {
+        int[] valores = new int[ocupacao.length()];
+        for (int i = 0; i < valores.length; i++) valores[i] = ocupacao.get(i);
+        return valores;
+    }
+
+    @Override
+    public long[] getPerdidosPorFila() {
+        long[] valores = new long[perdidosPorFila.length];
+        for (int i = 0; i < valores.length; i++) valores[i] = perdidosPorFila[i].sum();
+        return valores;
+    }
+
+    @Override
+    public boolean isCancelado() {
+        return cancelado;
+    }
+
+    @Override
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    @Name("simulacao.Progresso")
+    @Label("Progresso da simulação")
+    @Category("Simulação")
+    @Period("1 s")
+    static class ProgressoJfr extends Event {
+        @Label("Eventos processados")
+        long eventos;
+        @Label("Eventos por segundo")
+        double eventosPorSegundo;
+        @Label("Tempo simulado")
+        double tempoSimulado;
+        @Label("Tamanho da agenda")
+        int tamanhoAgenda;
+        @Label("Clientes perdidos")
+        long perdidos;
+        @Label("Progresso")
+        double progresso;
+    }
+
+    @Name("simulacao.Execucao")
+    @Label("Execução da simulação")
+    @Category("Simulação")
+    static class ExecucaoJfr extends Event {
+        @Label("Eventos processados")
+        long eventos;
+        @Label("Tempo simulado")
+        double tempoSimulado;
+    }
+}
@@ -0,0 +1,37 @@
+// Interface JMX da instrumentação (ver Instrumentacao). Com várias replicações em
+// paralelo, os contadores somam todas elas e os valores instantâneos (tempo, agenda,
+// ocupação) são os da última replicação que publicou.
+public interface InstrumentacaoMBean {
+
+    long getEventosProcessados();
+
+    double getEventosPorSegundo();
+
+    long getChegadas();
+
+    long getPassagens();
+
+    long getSaidas();
+
+    long getClientesPerdidos();
+
+    long getExecucoesConcluidas();
+
+    double getTempoSimulado();
+
+    int getTamanhoAgenda();
+
+    // Fração concluída da execução segundo o critério de parada (NaN se desconhecida)
+    double getProgresso();
+
+    String[] getNomesFilas();
+
+    int[] getOcupacaoFilas();
+
+    long[] getPerdidosPorFila();
+
+    boolean isCancelado();
+
+    // Interrompe as execuções em andamento na próxima publicação
+    void cancelar();
+}
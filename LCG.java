@@ -1,27 +1,119 @@
-public class LCG {
-    private long a = 1664525;
-    private long c = 1013904223;
+import java.nio.ByteBuffer;
+
+public class LCG extends GeradorAleatorio {
+    static final long A = 1664525;
+    static final long C = 1013904223;
+    // Distância entre subfluxos: o período é 2^32, então cabem 256 subfluxos de 2^24 números
+    static final long ESPACAMENTO_FLUXO = 1L << 24;
+    // Saltos de 1..BLOCO passos: x_j = MULT_BLOCO[j - 1] * x_0 + SOMA_BLOCO[j - 1] (mod 2^32)
+    static final int BLOCO = 64;
+    private static final long[] MULT_BLOCO = new long[BLOCO];
+    private static final long[] SOMA_BLOCO = new long[BLOCO];
+    private static final long MASCARA = 0xFFFFFFFFL;
+    private static final double ESCALA = 0x1.0p-32;
+
+    static {
+        long mult = 1, soma = 0;
+        for (int j = 0; j < BLOCO; j++) {
+            mult = mult * A;
+            soma = soma * A + C;
+            MULT_BLOCO[j] = mult & MASCARA;
+            SOMA_BLOCO[j] = soma & MASCARA;
+        }
+    }
+
+    private long a = A;
+    private long c = C;
     private long M = (long) Math.pow(2, 32);
     private long seed;
-    private int count;
 
-    public LCG(long seed, int count) {
-        this.seed = seed;
-        this.count = count;
+    public LCG(long seed) {
+        this(seed, Long.MAX_VALUE);
     }
 
-    public boolean hasNext() {
-        return count > 0;
+    public LCG(long seed, long count) {
+        super(count);
+        this.seed = seed;
     }
 
-    public double nextRandom() {
-        if (count <= 0) throw new RuntimeException("Limite de aleatórios atingido!");
+    @Override
+    protected double proximo() {
         seed = (a * seed + c) % M;
-        count--;
         return (double) seed / M;
     }
 
-    public double uniforme(double min, double max) {
-        return min + (max - min) * nextRandom();
+    // Para seeds em [0, 2^32) a sequência é a mesma de proximo()
+    @Override
+    protected void preencher(double[] destino, int inicio, int n) {
+        if (seed >= 0 && seed < M) seed = preencherBloco(seed, destino, inicio, n);
+        else super.preencher(destino, inicio, n);
+    }
+
+    // Avança o gerador n passos em O(log n)
+    public void saltar(long n) {
+        seed = saltarEstado(seed, n);
+    }
+
+    @Override
+    public GeradorAleatorio fluxo(int k) {
+        LCG sub = new LCG(seed);
+        sub.saltar(k * ESPACAMENTO_FLUXO);
+        return sub;
+    }
+
+    @Override
+    public long subfluxos() {
+        return (1L << 32) / ESPACAMENTO_FLUXO;
+    }
+
+    @Override
+    public GeradorAleatorio copiar() {
+        return new LCG(seed, restantes());
+    }
+
+    @Override
+    protected void salvarInterno(EstadoBinario out) {
+        out.putLong(seed);
+    }
+
+    @Override
+    protected void restaurarInterno(ByteBuffer in) {
+        seed = in.getLong();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // Gera n números a partir de estado em blocos de BLOCO: cada número do bloco sai
+    // direto de x_0 pelas tabelas de salto, sem depender do anterior, então o laço não
+    // tem cadeia de dependência e pode ser vetorizado pelo JIT. Devolve o estado final
+    static long preencherBloco(long estado, double[] destino, int inicio, int n) {
+        while (n > 0) {
+            int m = Math.min(n, BLOCO);
+            for (int j = 0; j < m; j++) {
+                destino[inicio + j] = ((MULT_BLOCO[j] * estado + SOMA_BLOCO[j]) & MASCARA) * ESCALA;
+            }
+            estado = (MULT_BLOCO[m - 1] * estado + SOMA_BLOCO[m - 1]) & MASCARA;
+            inicio += m;
+            n -= m;
+        }
+        return estado;
+    }
+
+    // Estado após n passos de x -> A*x + C (mod 2^32), por quadrados sucessivos (Brown, 1994)
+    static long saltarEstado(long estado, long n) {
+        long multAcum = 1, somaAcum = 0;
+        long mult = A, soma = C;
+        while (n > 0) {
+            if ((n & 1) != 0) {
+                multAcum *= mult;
+                somaAcum = somaAcum * mult + soma;
+            }
+            soma = (mult + 1) * soma;
+            mult *= mult;
+            n >>>= 1;
+        }
+        return (multAcum * estado + somaAcum) & 0xFFFFFFFFL;
     }
 }
@@ -0,0 +1,63 @@
+import java.nio.ByteBuffer;
+
+// Mesmo LCG do curso (a = 1664525, c = 1013904223, M = 2^32), mas com o módulo
+// feito por máscara de bits e a divisão trocada por multiplicação por 2^-32.
+// Para seeds em [0, 2^32) gera exatamente a mesma sequência que LCG.
+public class LCGMascara extends GeradorAleatorio {
+    private static final long MASCARA = 0xFFFFFFFFL;
+    private static final double ESCALA = 0x1.0p-32;
+
+    private long seed;
+
+    public LCGMascara(long seed) {
+        this(seed, Long.MAX_VALUE);
+    }
+
+    public LCGMascara(long seed, long count) {
+        super(count);
+        this.seed = seed;
+    }
+
+    @Override
+    protected double proximo() {
+        seed = (LCG.A * seed + LCG.C) & MASCARA;
+        return seed * ESCALA;
+    }
+
+    @Override
+    protected void preencher(double[] destino, int inicio, int n) {
+        seed = LCG.preencherBloco(seed, destino, inicio, n);
+    }
+
+    // Avança o gerador n passos em O(log n)
+    public void saltar(long n) {
+        seed = LCG.saltarEstado(seed, n);
+    }
+
+    @Override
+    public GeradorAleatorio fluxo(int k) {
+        LCGMascara sub = new LCGMascara(seed);
+        sub.saltar(k * LCG.ESPACAMENTO_FLUXO);
+        return sub;
+    }
+
+    @Override
+    public long subfluxos() {
+        return (1L << 32) / LCG.ESPACAMENTO_FLUXO;
+    }
+
+    @Override
+    public GeradorAleatorio copiar() {
+        return new LCGMascara(seed, restantes());
+    }
+
+    @Override
+    protected void salvarInterno(EstadoBinario out) {
+        out.putLong(seed);
+    }
+
+    @Override
+    protected void restaurarInterno(ByteBuffer in) {
+        seed = in.getLong();
+    }
+}
@@ -0,0 +1,146 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Leitura sequencial de um rastro gravado por GravadorRastro: proximo() avança um
+// registro e deixa seus campos em tipo/tempo/origem/destino/populacao*. reproduzir()
+// refaz as estatísticas das filas só a partir do rastro, para conferir o simulador.
+public class LeitorRastro implements AutoCloseable {
+
+    private final DataInputStream in;
+    private final int[] servidores;
+    private final int[] capacidades;
+    private long bitsAnteriores;
+    private long eventos;
+
+    // Registro corrente
+    public int tipo;
+    public double tempo;
+    public int origem;             // -1 se não se aplica
+    public int destino;
+    public int populacaoOrigem;    // população após o evento
+    public int populacaoDestino;
+
+    public LeitorRastro(InputStream entrada) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(entrada, 1 << 16));
+        // o cabeçalho é gravado pelo ByteBuffer (big-endian), como lê o DataInputStream
+        if (in.readInt() != GravadorRastro.MAGICO) throw new IOException("Arquivo não é um rastro de eventos");
+        int versao = in.readInt();
+        if (versao != GravadorRastro.VERSAO) throw new IOException("Versão de rastro não suportada: " + versao);
+        int n = in.readInt();
+        servidores = new int[n];
+        capacidades = new int[n];
+        for (int i = 0; i < n; i++) {
+            servidores[i] = in.readInt();
+            capacidades[i] = in.readInt();
+        }
+    }
+
+    public static LeitorRastro abrir(Path arquivo) throws IOException {
+        return new LeitorRastro(Files.newInputStream(arquivo));
+    }
+
+    // Eventos lidos até aqui (sem contar as marcas de aquecimento e fim)
+    public long getEventos() {
+        return eventos;
+    }
+
+    public int getNumFilas() {
+        return servidores.length;
+    }
+
+    // Lê o próximo registro; false no fim do arquivo
+    public boolean proximo() throws IOException {
+        int b = in.read();
+        if (b < 0) return false;
+        tipo = b;
+        long delta = lerVarint();
+        bitsAnteriores += (delta >>> 1) ^ -(delta & 1);
+        tempo = Double.longBitsToDouble(bitsAnteriores);
+        origem = -1;
+        destino = -1;
+        if (tipo == GravadorRastro.AQUECIMENTO || tipo == GravadorRastro.FIM) return true;
+        eventos++;
+        origem = (int) lerVarint() - 1;
+        destino = (int) lerVarint() - 1;
+        if (origem >= 0) populacaoOrigem = (int) lerVarint();
+        if (destino >= 0) populacaoDestino = (int) lerVarint();
+        return true;
+    }
+
+    private long lerVarint() throws IOException {
+        long v = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException("Rastro truncado");
+            v |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Varint inválido no rastro");
+    }
+
+    // Reaplica o rastro em filas novas (mesmo modelo da execução gravada), conferindo as
+    // populações registradas; as perdas são deduzidas de chegadas que não mudam a população.
+    // Devolve o tempo observado (fim menos aquecimento), como Simulador.getTempoObservado().
+    public double reproduzir(List<Fila> filas) throws IOException {
+        if (filas.size() != servidores.length) {
+            throw new IllegalArgumentException("Rastro com " + servidores.length + " filas; o modelo tem " + filas.size());
+        }
+        for (Fila f : filas) {
+            if (f.servidores != servidores[f.id] || f.capacidade != capacidades[f.id]) {
+                throw new IllegalArgumentException("Fila " + f.nome + " difere da execução gravada");
+            }
+            f.reset();
+        }
+        double inicioColeta = 0.0;
+        while (proximo()) {
+            switch (tipo) {
+                case GravadorRastro.AQUECIMENTO:
+                    inicioColeta = tempo;
+                    for (Fila f : filas) f.descartarEstatisticas(tempo);
+                    break;
+                case GravadorRastro.FIM:
+                    for (Fila f : filas) f.acumulaTempo(tempo);
+                    return tempo - inicioColeta;
+                default:
+                    reproduzirEvento(filas);
+            }
+        }
+        throw new EOFException("Rastro sem registro de fim");
+    }
+
+    private void reproduzirEvento(List<Fila> filas) throws IOException {
+        if (origem >= 0) {
+            Fila f = filas.get(origem);
+            f.acumulaTempo(tempo);
+            f.clientesNoSistema--;
+            f.clientesAtendidos++;
+        }
+        if (destino >= 0) {
+            Fila f = filas.get(destino);
+            if (populacaoDestino == f.clientesNoSistema + 1) {
+                f.acumulaTempo(tempo);
+                f.clientesNoSistema++;
+            } else if (populacaoDestino == f.clientesNoSistema) {
+                f.clientesPerdidos++;
+            } else {
+                throw new IOException(String.format("Rastro inconsistente em t = %s: fila %s com %d clientes, registrado %d",
+                        tempo, f.nome, f.clientesNoSistema, populacaoDestino));
+            }
+        }
+        if (origem >= 0 && filas.get(origem).clientesNoSistema != populacaoOrigem) {
+            throw new IOException(String.format("Rastro inconsistente em t = %s: fila %s com %d clientes, registrado %d",
+                    tempo, filas.get(origem).nome, filas.get(origem).clientesNoSistema, populacaoOrigem));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,171 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Leitor do subconjunto de YAML usado nos arquivos de configuração: mapas e
+// sequências em bloco (por indentação), itens de sequência que começam um mapa
+// ("- source: X"), listas em fluxo ([a, b]) e comentários. As linhas são lidas
+// uma a uma (com uma linha de antecipação), sem carregar o arquivo inteiro.
+// Mapas preservam a ordem do arquivo; escalares ficam como String.
+public class LeitorYaml {
+
+    private final BufferedReader reader;
+    private final String origem;
+    private int numeroLinha;
+
+    // Linha de antecipação: indentação, conteúdo (sem indentação e sem comentário) e número
+    private boolean temLinha;
+    private int indentacao;
+    private String conteudo;
+    private int linhaAtual;
+
+    public LeitorYaml(Reader reader, String origem) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.origem = origem;
+    }
+
+    // Lê o documento inteiro; a raiz deve ser um mapa
+    public Map<String, Object> lerDocumento() throws IOException {
+        avancar();
+        if (!temLinha) return new LinkedHashMap<>();
+        if (indentacao != 0) throw erro("Documento deve começar sem indentação");
+        Map<String, Object> raiz = lerMapa(0);
+        if (temLinha) throw erro("Indentação inesperada");
+        return raiz;
+    }
+
+    private Object lerBloco(int indent) throws IOException {
+        if (ehItemSequencia()) return lerSequencia(indent);
+        return lerMapa(indent);
+    }
+
+    private Map<String, Object> lerMapa(int indent) throws IOException {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        while (temLinha && indentacao == indent && !ehItemSequencia()) {
+            int separador = separadorChave(conteudo);
+            if (separador < 0) throw erro("Esperado 'chave: valor'");
+            String chave = conteudo.substring(0, separador).trim();
+            String valor = conteudo.substring(separador + 1).trim();
+            if (chave.isEmpty()) throw erro("Chave vazia");
+            if (mapa.containsKey(chave)) throw erro("Chave repetida: " + chave);
+            int linhaChave = linhaAtual;
+            avancar();
+
+            if (!valor.isEmpty()) {
+                mapa.put(chave, escalarOuLista(valor, linhaChave));
+            } else if (temLinha && indentacao > indent) {
+                mapa.put(chave, lerBloco(indentacao));
+            } else if (temLinha && indentacao == indent && ehItemSequencia()) {
+                mapa.put(chave, lerSequencia(indent)); // sequência na mesma coluna da chave
+            } else {
+                mapa.put(chave, null);
+            }
+        }
+        if (temLinha && indentacao > indent) throw erro("Indentação inesperada");
+        return mapa;
+    }
+
+    private List<Object> lerSequencia(int indent) throws IOException {
+        List<Object> lista = new ArrayList<>();
+        while (temLinha && indentacao == indent && ehItemSequencia()) {
+            String resto = conteudo.substring(1);
+            int espacos = 0;
+            while (espacos < resto.length() && resto.charAt(espacos) == ' ') espacos++;
+            resto = resto.substring(espacos);
+
+            if (resto.isEmpty()) {
+                avancar();
+                if (temLinha && indentacao > indent) lista.add(lerBloco(indentacao));
+                else lista.add(null);
+            } else if (separadorChave(resto) >= 0) {
+                // "- chave: valor": o item é um mapa cuja primeira chave está nesta linha
+                indentacao = indent + 1 + espacos;
+                conteudo = resto;
+                lista.add(lerMapa(indentacao));
+            } else {
+                int linhaItem = linhaAtual;
+                avancar();
+                lista.add(escalarOuLista(resto, linhaItem));
+            }
+        }
+        return lista;
+    }
+
+    private Object escalarOuLista(String valor, int linha) throws IOException {
+        if (valor.startsWith("[")) {
+            if (!valor.endsWith("]")) throw erro(linha, "Lista sem ']'");
+            List<Object> lista = new ArrayList<>();
+            String interno = valor.substring(1, valor.length() - 1).trim();
+            if (!interno.isEmpty()) {
+                for (String item : interno.split(",")) lista.add(escalar(item.trim()));
+            }
+            return lista;
+        }
+        return escalar(valor);
+    }
+
+    private static String escalar(String valor) {
+        if (valor.length() >= 2 && (valor.startsWith("\"") && valor.endsWith("\"")
+                || valor.startsWith("'") && valor.endsWith("'"))) {
+            return valor.substring(1, valor.length() - 1);
+        }
+        return valor;
+    }
+
+    private boolean ehItemSequencia() {
+        return conteudo.equals("-") || conteudo.startsWith("- ");
+    }
+
+    // Posição do ':' que separa chave e valor (seguido de espaço ou fim da linha)
+    private static int separadorChave(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\'' || c == '[') return -1;
+            if (c == ':' && (i + 1 == s.length() || s.charAt(i + 1) == ' ')) return i;
+        }
+        return -1;
+    }
+
+    // Lê a próxima linha significativa (ignora vazias, comentários e marcas como !PARAMETERS)
+    private void avancar() throws IOException {
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            numeroLinha++;
+            String margem = linha.substring(0, linha.length() - linha.stripLeading().length());
+            if (margem.indexOf('\t') >= 0 && !linha.isBlank()) {
+                throw erro(numeroLinha, "Use espaços, não tabulações, na indentação");
+            }
+            String semComentario = removerComentario(linha);
+            String texto = semComentario.trim();
+            if (texto.isEmpty() || texto.startsWith("!")) continue;
+            temLinha = true;
+            indentacao = semComentario.length() - semComentario.stripLeading().length();
+            conteudo = texto;
+            linhaAtual = numeroLinha;
+            return;
+        }
+        temLinha = false;
+    }
+
+    private static String removerComentario(String linha) {
+        boolean aspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (c == '"') aspas = !aspas;
+            if (c == '#' && !aspas && (i == 0 || linha.charAt(i - 1) == ' ')) return linha.substring(0, i);
+        }
+        return linha;
+    }
+
+    private IllegalArgumentException erro(String mensagem) {
+        return erro(linhaAtual, mensagem);
+    }
+
+    private IllegalArgumentException erro(int linha, String mensagem) {
+        return new IllegalArgumentException(origem + ", linha " + linha + ": " + mensagem);
+    }
+}
@@ -0,0 +1,98 @@
+import java.nio.ByteBuffer;
+
+// Médias em lote das métricas de uma fila em uma única execução longa: população
+// (ponderada pelo tempo), taxa de perdas e P0, com os mesmos limites de lote para as três.
+// Os intervalos de confiança usam lotes agrupados dois a dois enquanto a autocorrelação
+// de lag 1 de alguma métrica passar de LIMIAR_AUTOCORRELACAO (mínimo de
+// CriterioParada.LOTES_MINIMOS lotes). Memória O(número de lotes).
+public class LotesFila {
+
+    public static final double LIMIAR_AUTOCORRELACAO = 0.2;
+
+    public final MediasEmLote populacao;
+    public final MediasEmLote perdas;     // clientes perdidos por unidade de tempo
+    public final MediasEmLote vazia;      // fração do tempo com a fila vazia
+
+    // Acumulados da fila no início do lote corrente
+    private double areaInicio;
+    private double vazioInicio;
+    private long perdidosInicio;
+
+    public LotesFila(double tamanhoLoteInicial, int maxLotes) {
+        populacao = new MediasEmLote(tamanhoLoteInicial, maxLotes);
+        perdas = new MediasEmLote(tamanhoLoteInicial, maxLotes);
+        vazia = new MediasEmLote(tamanhoLoteInicial, maxLotes);
+    }
+
+    // Fecha o lote corrente; a fila já deve ter acumulado o tempo até o fim do lote
+    public void fechar(Fila f, double duracao) {
+        populacao.adicionar((f.areaPopulacao - areaInicio) / duracao);
+        perdas.adicionar((f.clientesPerdidos - perdidosInicio) / duracao);
+        vazia.adicionar((f.temposPorEstado[0] - vazioInicio) / duracao);
+        areaInicio = f.areaPopulacao;
+        perdidosInicio = f.clientesPerdidos;
+        vazioInicio = f.temposPorEstado[0];
+    }
+
+    // Primeiro lote começando no estado atual da fila
+    public void iniciar(Fila f) {
+        areaInicio = f.areaPopulacao;
+        perdidosInicio = f.clientesPerdidos;
+        vazioInicio = f.temposPorEstado[0];
+    }
+
+    // Fim do aquecimento: as estatísticas da fila foram zeradas
+    public void descartar() {
+        areaInicio = 0;
+        perdidosInicio = 0;
+        vazioInicio = 0;
+    }
+
+    public void salvarEstado(EstadoBinario out) {
+        populacao.salvarEstado(out);
+        perdas.salvarEstado(out);
+        vazia.salvarEstado(out);
+        out.putDouble(areaInicio);
+        out.putDouble(vazioInicio);
+        out.putLong(perdidosInicio);
+    }
+
+    public void restaurarEstado(ByteBuffer in) {
+        populacao.restaurarEstado(in);
+        perdas.restaurarEstado(in);
+        vazia.restaurarEstado(in);
+        areaInicio = in.getDouble();
+        vazioInicio = in.getDouble();
+        perdidosInicio = in.getLong();
+    }
+
+    // Estimativas de estado estacionário com IC 95% (null com menos de LOTES_MINIMOS lotes)
+    public ResultadoFila.Lotes resumo() {
+        if (populacao.getNumLotes() < CriterioParada.LOTES_MINIMOS) return null;
+        MediasEmLote p = populacao, l = perdas, v = vazia;
+        while (p.getNumLotes() / 2 >= CriterioParada.LOTES_MINIMOS && !independentes(p, l, v)) {
+            p = p.agrupados();
+            l = l.agrupados();
+            v = v.agrupados();
+        }
+        double r1 = maior(maior(Math.abs(p.getAutocorrelacaoLag1()), Math.abs(l.getAutocorrelacaoLag1())),
+                Math.abs(v.getAutocorrelacaoLag1()));
+        return new ResultadoFila.Lotes(p.getNumLotes(), p.getTamanhoLote(), r1,
+                p.getMedia(), p.getSemiAmplitudeIC95(), l.getMedia(), l.getSemiAmplitudeIC95(),
+                v.getMedia(), v.getSemiAmplitudeIC95());
+    }
+
+    // Lotes com variância nula (ex.: nenhuma perda) têm autocorrelação NaN e contam como independentes
+    private static boolean independentes(MediasEmLote... metricas) {
+        for (MediasEmLote m : metricas) {
+            if (Math.abs(m.getAutocorrelacaoLag1()) > LIMIAR_AUTOCORRELACAO) return false;
+        }
+        return true;
+    }
+
+    private static double maior(double a, double b) {
+        if (Double.isNaN(a)) return b;
+        if (Double.isNaN(b)) return a;
+        return Math.max(a, b);
+    }
+}
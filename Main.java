@@ -1,104 +1,314 @@
-import java.util.Map;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class Main {
     public static void main(String[] args) {
         try {
-            // 1. Carregar configuração do YAML
-            Map<String, Object> config = ConfigLoader.loadConfig("Tandem.yml");
+            // 1. Carregar configuração do YAML (arquivo pode ser passado como argumento;
+            // com --cache, reaproveita a versão compilada em arquivo.yml.bin;
+            // com --resume estado, continua a execução salva em um ponto de controle;
+            // com --replay rastro, refaz as estatísticas a partir de um rastro de eventos;
+            // com --analytic, resolve a rede analiticamente em vez de simular;
+            // com --coordinator porta, distribui as replicações entre processos --worker host:porta;
+            // com a opção splitting, estima a probabilidade de perda da fila por fracionamento;
+            // com optimize: true, busca entre os cenários do sweep o de menor custo viável;
+            // com partitions: p, executa a rede em p processos lógicos paralelos)
+            boolean usarCache = false;
+            String arquivo = "Tandem.yml";
+            String retomar = null;
+            String reproduzir = null;
+            boolean analitico = false;
+            String trabalhador = null;
+            int porta = -1;
+            int trabalhadoresLocais = 0;
+            int threads = Runtime.getRuntime().availableProcessors();
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--cache")) usarCache = true;
+                else if (args[i].equals("--analytic")) analitico = true;
+                else if (args[i].equals("--resume") && i + 1 < args.length) retomar = args[++i];
+                else if (args[i].equals("--replay") && i + 1 < args.length) reproduzir = args[++i];
+                else if (args[i].equals("--worker") && i + 1 < args.length) trabalhador = args[++i];
+                else if (args[i].equals("--threads") && i + 1 < args.length) threads = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--coordinator") && i + 1 < args.length) porta = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--local-workers") && i + 1 < args.length) {
+                    trabalhadoresLocais = Integer.parseInt(args[++i]);
+                }
+                else arquivo = args[i];
+            }
+            if (trabalhador != null) {
+                int separador = trabalhador.lastIndexOf(':');
+                Trabalhador.executar(trabalhador.substring(0, separador),
+                        Integer.parseInt(trabalhador.substring(separador + 1)), threads);
+                return;
+            }
+            EspecificacaoRede config = usarCache ? ConfigLoader.carregarComCache(arquivo) : ConfigLoader.carregar(arquivo);
 
-            // 2. Extrair parâmetros da simulação
-            int rndnumbersPerSeed = ((Number) config.get("rndnumbersPerSeed")).intValue();
-            List<Integer> seeds = (List<Integer>) config.get("seeds");
-            long seed = seeds.get(0).longValue();
-
-            // 3. Parâmetros de chegada (usar TRIAGEM como referência)
-            Map<String, Object> arrivals = (Map<String, Object>) config.get("arrivals");
-            double minChegada = 1.0;  // valor padrão
-            double maxChegada = 5.0;  // valor padrão
-            
-            if (arrivals != null && arrivals.containsKey("TRIAGEM")) {
-                double arrivalRate = ((Number) arrivals.get("TRIAGEM")).doubleValue();
-                minChegada = arrivalRate * 0.8;  // 80% da taxa base
-                maxChegada = arrivalRate * 1.2;  // 120% da taxa base
+            if (analitico) {
+                resolverAnaliticamente(config);
+                return;
+            }
+            if (reproduzir != null) {
+                reproduzir(config, Paths.get(reproduzir));
+                return;
+            }
+            if (porta >= 0) {
+                coordenar(config, porta, trabalhadoresLocais, threads);
+                return;
+            }
+            if (config.opcao("splitting") != null) {
+                Fracionamento.executar(config, threads).imprimir();
+                return;
+            }
+            if (config.opcaoBooleana("optimize")) {
+                OtimizadorCapacidade.executar(config, threads).imprimir();
+                return;
+            }
+            if (config.opcoes.containsKey("partitions")) {
+                simularEmParalelo(config);
+                return;
             }
 
-            // 4. Criar simulador com parâmetros do YAML
-            // Primeiro cliente chega em t = 2.0 conforme instruções
-            Simulador simulador = new Simulador(minChegada, maxChegada, seed, rndnumbersPerSeed, 2.0);
-
-            // 5. Criar filas baseadas no YAML
-            Map<String, Object> queues = (Map<String, Object>) config.get("queues");
-            Map<String, Integer> nomeParaId = new LinkedHashMap<>();
-            
-            int filaId = 0;
-            // System.out.println("Criando filas baseadas no YAML:");
-            for (Map.Entry<String, Object> entry : queues.entrySet()) {
-                String nomeFila = entry.getKey();
-                Map<String, Object> props = (Map<String, Object>) entry.getValue();
-
-                int servers = ((Number) props.get("servers")).intValue();
-                int capacity = ((Number) props.get("capacity")).intValue();
-                
-                // Buscar minService/maxService (nomes das instruções) ou minAtendimento/maxAtendimento
-                double minService = 0, maxService = 0;
-                if (props.containsKey("minService")) {
-                    minService = ((Number) props.get("minService")).doubleValue();
-                    maxService = ((Number) props.get("maxService")).doubleValue();
-                } else if (props.containsKey("minAtendimento")) {
-                    minService = ((Number) props.get("minAtendimento")).doubleValue();
-                    maxService = ((Number) props.get("maxAtendimento")).doubleValue();
-                } else {
-                    // System.err.println("Aviso: Fila " + nomeFila + " sem tempos de serviço definidos");
-                    minService = 1.0;
-                    maxService = 5.0;
-                }
+            // 2. Extrair parâmetros da simulação
+            List<Long> seeds = config.seeds;
 
-                Fila fila = new Fila(filaId, servers, capacity, minService, maxService);
-                simulador.adicionarFila(fila);
-                nomeParaId.put(nomeFila, filaId);
-                
-                // System.out.printf(" - %s (ID %d): %d servidores, capacidade %d, serviço [%.1f-%.1f]\n", 
-                //                  nomeFila, filaId, servers, capacity, minService, maxService);
-                filaId++;
+            // instrumentation: true liga contadores por JMX/JFR e a linha de progresso
+            try (Instrumentacao instrumentacao = criarInstrumentacao(config, arquivo)) {
+                if (retomar != null) retomar(config, seeds.get(0), Paths.get(retomar), instrumentacao);
+                else executar(config, seeds, threads, instrumentacao);
             }
 
-            // 6. Configurar rotas probabilísticas
-            List<Map<String, Object>> network = (List<Map<String, Object>>) config.get("network");
-            // System.out.println("\nConfigurando rotas probabilísticas:");
-            
-            if (network != null) {
-                for (Map<String, Object> conexao : network) {
-                    String sourceName = (String) conexao.get("source");
-                    String targetName = (String) conexao.get("target");
-                    double probability = ((Number) conexao.get("probability")).doubleValue();
-
-                    Integer sourceId = nomeParaId.get(sourceName);
-                    Integer targetId = nomeParaId.get(targetName);
-
-                    if (sourceId != null && targetId != null) {
-                        simulador.adicionarTransicao(sourceId, targetId, probability);
-                        // System.out.printf(" - %s (ID %d) -> %s (ID %d): %.1f%%\n", 
-                        //                  sourceName, sourceId, targetName, targetId, probability * 100);
-                    } else {
-                        // System.err.println("Aviso: Rota inválida " + sourceName + " -> " + targetName);
-                    }
-                }
+        } catch (Exception e) {
+            System.err.println("Erro na simulação: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void executar(EspecificacaoRede config, List<Long> seeds, int paralelismo,
+                                 Instrumentacao instrumentacao) throws java.io.IOException {
+
+        // 3. Com seção sweep, executa todos os cenários x seeds e imprime a comparação
+        if (!config.varredura.isEmpty()) {
+            Varredura.executar(config, seeds, paralelismo, instrumentacao).imprimir();
+            return;
+        }
+
+        // 4. Com várias seeds, executa as replicações em paralelo e imprime médias com IC
+        // (com output, o resultado completo de cada replicação é gravado no arquivo)
+        if (seeds.size() > 1) {
+            try (EscritorResultado saida = abrirSaida(config)) {
+                Replicador.Resumo resumo = Replicador.executar(config, seeds, paralelismo, saida, instrumentacao);
+                resumo.imprimir();
             }
+            return;
+        }
+
+        // 5. Executar simulação
+        // System.out.println("\nParâmetros da simulação:");
+        // System.out.printf(" - Seed: %d\n", seed);
+        // System.out.printf(" - Números aleatórios: %d\n", rndnumbersPerSeed);
+        // System.out.printf(" - Chegadas: [%.1f - %.1f]\n", minChegada, maxChegada);
+        // System.out.printf(" - Primeiro cliente: t = 2.0\n");
+
+        Simulador simulador = construirSimulador(config, seeds.get(0));
+        simulador.setInstrumentacao(instrumentacao);
+        // trace: arquivo grava o rastro binário de todos os eventos (ver --replay)
+        String trace = config.opcao("trace");
+        try (GravadorRastro rastro = trace != null ? GravadorRastro.abrir(Paths.get(trace), simulador.getFilas()) : null) {
+            simulador.setRastro(rastro);
+            simularComCheckpoint(config, simulador);
+        }
+        escreverSaida(config, simulador, seeds.get(0));
+    }
 
-            // 7. Executar simulação
-            // System.out.println("\nParâmetros da simulação:");
-            // System.out.printf(" - Seed: %d\n", seed);
-            // System.out.printf(" - Números aleatórios: %d\n", rndnumbersPerSeed);
-            // System.out.printf(" - Chegadas: [%.1f - %.1f]\n", minChegada, maxChegada);
-            // System.out.printf(" - Primeiro cliente: t = 2.0\n");
-            
+    private static void simularComCheckpoint(EspecificacaoRede config, Simulador simulador) throws java.io.IOException {
+        String checkpoint = config.opcao("checkpoint");
+        if (checkpoint == null) {
             simulador.simular();
+        } else {
+            // checkpoint: arquivo com o estado após checkpointEvents eventos (padrão: ao final)
+            long eventos = config.opcoes.containsKey("checkpointEvents")
+                    ? (long) config.opcaoNumero("checkpointEvents") : Long.MAX_VALUE;
+            simulador.iniciar();
+            simulador.avancar(eventos);
+            simulador.salvarCheckpoint(Paths.get(checkpoint));
+            simulador.avancar(Long.MAX_VALUE);
+            simulador.imprimirResultados();
+        }
+    }
 
-        } catch (Exception e) {
-            System.err.println("Erro na simulação: " + e.getMessage());
-            e.printStackTrace();
+    // Execução distribuída (ver Coordenador): os trabalhadores podem ser iniciados em outras
+    // máquinas com --worker host:porta; --local-workers n inicia n JVMs nesta máquina
+    private static void coordenar(EspecificacaoRede config, int porta, int locais, int threads)
+            throws java.io.IOException {
+        try (Coordenador coordenador = new Coordenador(config, porta);
+             EscritorResultado saida = abrirSaida(config)) {
+            System.err.println("Coordenador aguardando trabalhadores na porta " + coordenador.getPorta());
+            if (locais > 0) coordenador.iniciarTrabalhadoresLocais(locais, threads);
+            Varredura.Resultado resultado = coordenador.executar(saida);
+            if (config.varredura.isEmpty()) resultado.resumo(0).imprimir();
+            else resultado.imprimir();
+        }
+    }
+
+    // Uma execução da rede dividida em processos lógicos com uma thread cada (ver
+    // SimuladorParalelo), para a primeira seed
+    private static void simularEmParalelo(EspecificacaoRede config) throws java.io.IOException {
+        SimuladorParalelo simulador = new SimuladorParalelo(config, criarGerador(config, config.seeds, 0),
+                (int) config.opcaoNumero("partitions"));
+        simulador.executar();
+        System.out.printf("Simulação paralela: %d processos lógicos, lookahead %.4g, %d janelas, %d mensagens\n\n",
+                simulador.getProcessos(), simulador.getLookahead(), simulador.getJanelas(), simulador.getMensagens());
+        ResultadoSimulacao resultado = simulador.getResultado(config.seeds.get(0));
+        new EscritorTexto(System.out).escrever(resultado);
+        try (EscritorResultado saida = abrirSaida(config)) {
+            if (saida != null) saida.escrever(resultado);
+        }
+    }
+
+    // Solução analítica (ver AnaliseJackson); com seção sweep, uma tabela por cenário,
+    // para triagem antes de simular só os cenários promissores
+    private static void resolverAnaliticamente(EspecificacaoRede config) {
+        if (config.varredura.isEmpty()) {
+            AnaliseJackson.imprimir(AnaliseJackson.resolver(config), System.out);
+            return;
+        }
+        for (Varredura.Cenario cenario : Varredura.expandir(config)) {
+            System.out.println("Cenário " + cenario.descricao + ":");
+            AnaliseJackson.imprimir(AnaliseJackson.resolver(cenario.config), System.out);
+            System.out.println();
+        }
+    }
+
+    // Refaz as estatísticas das filas só a partir do rastro e imprime no formato do simulador;
+    // sem médias em lote, o relatório deve ser idêntico ao da execução que gravou o rastro
+    private static void reproduzir(EspecificacaoRede config, Path arquivo) throws java.io.IOException {
+        Simulador modelo = construirSimulador(config, config.seeds.get(0));
+        List<Fila> filas = modelo.getFilas();
+        try (LeitorRastro leitor = LeitorRastro.abrir(arquivo)) {
+            double tempoObservado = leitor.reproduzir(filas);
+            List<ResultadoFila> resultados = new ArrayList<>();
+            for (Fila f : filas) {
+                Distribuicao chegadas = config.chegadas.containsKey(f.nome) ? config.filas.get(f.id).chegada : null;
+                resultados.add(ResultadoFila.de(f, tempoObservado, chegadas, null));
+            }
+            new EscritorTexto(System.out).escrever(new ResultadoSimulacao(config.seeds.get(0), leitor.tempo,
+                    tempoObservado, leitor.getEventos(), resultados));
+        }
+    }
+
+    // Continua uma execução salva (checkpoint) com o modelo da configuração, que pode
+    // diferir do original em servidores, capacidades, rotas e critério de parada
+    private static void retomar(EspecificacaoRede config, long seed, Path estado, Instrumentacao instrumentacao)
+            throws java.io.IOException {
+        Simulador simulador = construirSimulador(config, seed);
+        simulador.setInstrumentacao(instrumentacao);
+        simulador.restaurarCheckpoint(estado);
+        simulador.avancar(Long.MAX_VALUE);
+        simulador.imprimirResultados();
+        escreverSaida(config, simulador, seed);
+    }
+
+    private static void escreverSaida(EspecificacaoRede config, Simulador simulador, long seed) throws java.io.IOException {
+        try (EscritorResultado saida = abrirSaida(config)) {
+            if (saida != null) saida.escrever(simulador.getResultado(seed));
+        }
+    }
+
+    // Instrumentação das execuções (null se desligada); progressInterval em segundos (padrão 10, 0 = sem linha)
+    private static Instrumentacao criarInstrumentacao(EspecificacaoRede config, String arquivo) {
+        if (!config.opcaoBooleana("instrumentation")) return null;
+        String[] nomes = new String[config.filas.size()];
+        for (int i = 0; i < nomes.length; i++) nomes[i] = config.filas.get(i).nome;
+        double intervalo = config.opcoes.containsKey("progressInterval") ? config.opcaoNumero("progressInterval") : 10;
+        return new Instrumentacao(nomes).iniciar(arquivo, intervalo);
+    }
+
+    // Arquivo de resultados (output) no formato outputFormat: text, csv, jsonl ou bin; null se ausente
+    private static EscritorResultado abrirSaida(EspecificacaoRede config) throws java.io.IOException {
+        String output = config.opcao("output");
+        if (output == null) return null;
+        String formato = config.opcoes.getOrDefault("outputFormat", "jsonl");
+        return EscritorResultado.criar(formato, output);
+    }
+
+    // Monta um Simulador completo (filas e rotas) a partir da configuração, para a seed informada.
+    // Cada chamada cria instâncias novas de Simulador, LCG e Fila, podendo ser usada em paralelo.
+    public static Simulador construirSimulador(EspecificacaoRede config, long seed) {
+        return construirSimulador(config, GeradorAleatorio.criar(config.opcao("rng"), seed));
+    }
+
+    // Gerador da replicação de índice indice. Com rng: xoshiro, a primeira seed define o
+    // gerador base e cada replicação usa um salto longo dele (sequências sem sobreposição);
+    // com os LCGs, cada replicação usa a sua própria seed, como no enunciado.
+    public static GeradorAleatorio criarGerador(EspecificacaoRede config, List<Long> seeds, int indice) {
+        String tipo = config.opcao("rng");
+        if ("xoshiro".equalsIgnoreCase(tipo)) {
+            return new Xoshiro256(seeds.get(0)).replicacao(indice);
+        }
+        return GeradorAleatorio.criar(tipo, seeds.get(indice));
+    }
+
+    public static Simulador construirSimulador(EspecificacaoRede config, GeradorAleatorio rng) {
+        Simulador simulador = new Simulador(rng, config.rndnumbersPerSeed);
+        simulador.setFluxosSeparados(config.opcaoBooleana("substreams"));
+
+        // Criar filas na ordem do arquivo (id = posição na especificação)
+        for (int filaId = 0; filaId < config.filas.size(); filaId++) {
+            EspecificacaoFila f = config.filas.get(filaId);
+            simulador.adicionarFila(new Fila(filaId, f.nome, f.servidores, f.capacidade, f.atendimento));
+        }
+
+        // Cada fila listada em arrivals é uma fonte independente: o valor é o instante da
+        // primeira chegada e arrival (ou minArrival/maxArrival) da fila define o intervalo entre chegadas
+        for (Map.Entry<String, Double> chegada : config.chegadas.entrySet()) {
+            int filaId = config.indiceDe(chegada.getKey());
+            simulador.adicionarChegadaExterna(filaId, config.filas.get(filaId).chegada, chegada.getValue());
+        }
+
+        // Configurar rotas probabilísticas (já validadas pela especificação)
+        for (EspecificacaoRota rota : config.rotas) {
+            simulador.adicionarTransicao(config.indiceDe(rota.origem), config.indiceDe(rota.destino), rota.probabilidade);
+        }
+
+        simulador.setCriterioParada(lerCriterioParada(config));
+        simulador.setRastrearClientes(config.opcaoBooleana("trackCustomers"));
+        // batchMeans: true estima IC de estado estacionário em uma execução longa (batchTime opcional)
+        simulador.setMediasEmLote(config.opcaoBooleana("batchMeans"),
+                config.opcoes.containsKey("batchTime") ? config.opcaoNumero("batchTime") : 0);
+
+        return simulador;
+    }
+
+    // Critério de parada: stop: randoms (padrão) | time | departures | precision,
+    // com stopTime, stopDepartures, stopPrecision/stopQueue/batchTime e warmup
+    private static CriterioParada lerCriterioParada(EspecificacaoRede config) {
+        String modo = config.opcoes.getOrDefault("stop", "randoms");
+        CriterioParada parada;
+        switch (modo) {
+            case "randoms":
+                parada = CriterioParada.porAleatorios();
+                break;
+            case "time":
+                parada = CriterioParada.porTempo(config.opcaoNumero("stopTime"));
+                break;
+            case "departures":
+                parada = CriterioParada.porSaidas((long) config.opcaoNumero("stopDepartures"));
+                break;
+            case "precision":
+                String nomeFila = config.opcao("stopQueue");
+                if (nomeFila == null) throw new IllegalArgumentException("stopQueue ausente");
+                parada = CriterioParada.porPrecisao(config.indiceDe(nomeFila),
+                        config.opcaoNumero("stopPrecision"), config.opcaoNumero("batchTime"));
+                break;
+            default:
+                throw new IllegalArgumentException("Critério de parada desconhecido: " + modo);
+        }
+        if (config.opcoes.containsKey("warmup")) {
+            parada = parada.comAquecimento(config.opcaoNumero("warmup"));
         }
+        return parada;
     }
 }
@@ -0,0 +1,100 @@
+import java.nio.ByteBuffer;
+
+// Médias em lote com número limitado de lotes: quando o limite é atingido,
+// lotes vizinhos são agrupados dois a dois e a duração dos próximos lotes dobra.
+// A memória é O(maxLotes), não importa o tamanho da execução.
+public class MediasEmLote {
+
+    private final double[] medias;
+    private int numLotes;
+    private double tamanhoLote;
+
+    public MediasEmLote(double tamanhoLoteInicial, int maxLotes) {
+        if (maxLotes < 4 || maxLotes % 2 != 0) {
+            throw new IllegalArgumentException("Número máximo de lotes deve ser par e >= 4");
+        }
+        this.medias = new double[maxLotes];
+        this.tamanhoLote = tamanhoLoteInicial;
+    }
+
+    private MediasEmLote(double[] medias, int numLotes, double tamanhoLote) {
+        this.medias = medias;
+        this.numLotes = numLotes;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    // Registra a média de um lote completo (de duração getTamanhoLote())
+    public void adicionar(double mediaDoLote) {
+        medias[numLotes++] = mediaDoLote;
+        if (numLotes == medias.length) {
+            for (int i = 0; i < numLotes / 2; i++) {
+                medias[i] = (medias[2 * i] + medias[2 * i + 1]) / 2;
+            }
+            numLotes /= 2;
+            tamanhoLote *= 2;
+        }
+    }
+
+    public void salvarEstado(EstadoBinario out) {
+        out.putDouble(tamanhoLote);
+        out.putDoubles(medias, numLotes);
+    }
+
+    public void restaurarEstado(ByteBuffer in) {
+        tamanhoLote = in.getDouble();
+        double[] salvas = EstadoBinario.getDoubles(in);
+        if (salvas.length > medias.length) throw new IllegalStateException("Mais lotes que o máximo configurado");
+        System.arraycopy(salvas, 0, medias, 0, salvas.length);
+        numLotes = salvas.length;
+    }
+
+    // Cópia com os lotes vizinhos agrupados dois a dois (lotes com o dobro da duração);
+    // com número ímpar de lotes o último fica de fora
+    public MediasEmLote agrupados() {
+        double[] agrupadas = new double[medias.length];
+        for (int i = 0; i < numLotes / 2; i++) {
+            agrupadas[i] = (medias[2 * i] + medias[2 * i + 1]) / 2;
+        }
+        return new MediasEmLote(agrupadas, numLotes / 2, tamanhoLote * 2);
+    }
+
+    // Autocorrelação de lag 1 entre médias de lotes consecutivos (NaN com menos de 3 lotes
+    // ou lotes todos iguais)
+    public double getAutocorrelacaoLag1() {
+        if (numLotes < 3) return Double.NaN;
+        double media = getMedia();
+        double variancia = 0, covariancia = 0;
+        for (int i = 0; i < numLotes; i++) {
+            double d = medias[i] - media;
+            variancia += d * d;
+            if (i > 0) covariancia += d * (medias[i - 1] - media);
+        }
+        return variancia > 0 ? covariancia / variancia : Double.NaN;
+    }
+
+    public double getTamanhoLote() {
+        return tamanhoLote;
+    }
+
+    public int getNumLotes() {
+        return numLotes;
+    }
+
+    public double getMedia() {
+        double soma = 0;
+        for (int i = 0; i < numLotes; i++) soma += medias[i];
+        return numLotes > 0 ? soma / numLotes : Double.NaN;
+    }
+
+    public double getSemiAmplitudeIC95() {
+        if (numLotes < 2) return Double.NaN;
+        double media = getMedia();
+        double soma = 0;
+        for (int i = 0; i < numLotes; i++) {
+            double d = medias[i] - media;
+            soma += d * d;
+        }
+        double variancia = soma / (numLotes - 1);
+        return AcumuladorMedia.quantilT95(numLotes - 1) * Math.sqrt(variancia / numLotes);
+    }
+}
@@ -0,0 +1,292 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Busca a configuração de menor custo entre os candidatos da seção sweep (servidores e
+// capacidades das filas) que respeita, em todas as filas, a fração de clientes perdidos
+// <= maxLoss e a fila média (Lq) <= maxQueue. O custo é determinístico
+// (costServer * servidores + costCapacity * capacidade finita), então a parte estocástica
+// é decidir a viabilidade: cada restrição de cada candidato é testada de forma sequencial,
+// com a região de continuação triangular do procedimento KN (Kim e Nelson; na forma de
+// Batur e Kim para restrições), depois de optimizeInitial replicações. Um candidato sai
+// da disputa assim que uma restrição é claramente violada, ou assim que outro mais barato
+// é confirmado viável (dominado); só os que continuam em dúvida recebem replicações, em
+// paralelo e com números aleatórios comuns entre os candidatos.
+public class OtimizadorCapacidade {
+
+    private static final double ALFA = 0.05;
+    public static final int REPLICACOES_INICIAIS = 10;
+    public static final int MAX_REPLICACOES = 200;
+    public static final double TOLERANCIA_PADRAO = 0.1;
+
+    public enum Situacao {
+        EM_AVALIACAO("em avaliação"), VIAVEL("viável"), INVIAVEL("inviável"), DOMINADO("dominado"),
+        INDECISO("indeciso");
+
+        private final String descricao;
+
+        Situacao(String descricao) {
+            this.descricao = descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    public static class Candidato {
+        public final Varredura.Cenario cenario;
+        public final double custo;
+        public Situacao situacao = Situacao.EM_AVALIACAO;
+        public int replicacoes;
+        // Por restrição (fila x tipo): médias observadas, soma de (Y - limite),
+        // variância das replicações iniciais e se já foi decidida como satisfeita
+        final AcumuladorMedia[] observacoes;
+        final double[] somas;
+        final double[] variancias;
+        final boolean[] satisfeitas;
+
+        Candidato(Varredura.Cenario cenario, double custo, int restricoes) {
+            this.cenario = cenario;
+            this.custo = custo;
+            this.observacoes = new AcumuladorMedia[restricoes];
+            for (int k = 0; k < restricoes; k++) observacoes[k] = new AcumuladorMedia();
+            this.somas = new double[restricoes];
+            this.variancias = new double[restricoes];
+            this.satisfeitas = new boolean[restricoes];
+        }
+
+        // Maior média observada entre as filas na restrição de tipo (0: perdas, 1: fila)
+        public double pior(int tipo, int numFilas) {
+            double pior = 0.0;
+            for (int f = 0; f < numFilas; f++) pior = Math.max(pior, observacoes[2 * f + tipo].getMedia());
+            return pior;
+        }
+    }
+
+    public static class Resultado {
+        public final List<Candidato> candidatos;   // em ordem de custo
+        public final int numFilas;
+        public final double maxPerdas;
+        public final double maxFila;
+        public final int maxReplicacoes;
+
+        Resultado(List<Candidato> candidatos, int numFilas, double maxPerdas, double maxFila, int maxReplicacoes) {
+            this.candidatos = candidatos;
+            this.numFilas = numFilas;
+            this.maxPerdas = maxPerdas;
+            this.maxFila = maxFila;
+            this.maxReplicacoes = maxReplicacoes;
+        }
+
+        // Candidato viável de menor custo (null se nenhum foi confirmado)
+        public Candidato melhor() {
+            for (Candidato c : candidatos) if (c.situacao == Situacao.VIAVEL) return c;
+            return null;
+        }
+
+        public void imprimir() {
+            System.out.printf("Otimização: %d candidatos, perdas <= %s e fila média <= %s em todas as filas (95%%)\n\n",
+                    candidatos.size(), Double.isInfinite(maxPerdas) ? "-" : String.valueOf(maxPerdas),
+                    Double.isInfinite(maxFila) ? "-" : String.valueOf(maxFila));
+            // coluna do cenário na largura da maior descrição
+            int largura = "Cenário".length();
+            for (Candidato c : candidatos) largura = Math.max(largura, c.cenario.descricao.length());
+            String cenario = "%-" + largura + "s";
+            System.out.printf(cenario + " %9s %6s %12s %10s  %s\n", "Cenário", "Custo", "Repl.", "Perdas máx.", "Fila máx.",
+                    "Situação");
+            long total = 0;
+            for (Candidato c : candidatos) {
+                total += c.replicacoes;
+                if (c.replicacoes == 0) {
+                    System.out.printf(cenario + " %9.2f %6d %12s %10s  %s\n", c.cenario.descricao, c.custo, 0, "-", "-",
+                            c.situacao);
+                } else {
+                    System.out.printf(cenario + " %9.2f %6d %12.5f %10.4f  %s\n", c.cenario.descricao, c.custo,
+                            c.replicacoes, c.pior(0, numFilas), c.pior(1, numFilas), c.situacao);
+                }
+            }
+            System.out.println();
+            Candidato melhor = melhor();
+            if (melhor == null) System.out.println("Nenhuma configuração confirmada como viável");
+            else System.out.printf("Melhor configuração: %s (custo %.2f)\n", melhor.cenario.descricao, melhor.custo);
+            int indecisos = 0;
+            for (Candidato c : candidatos) {
+                if (c.situacao == Situacao.INDECISO && (melhor == null || c.custo <= melhor.custo)) indecisos++;
+            }
+            if (indecisos > 0) {
+                System.out.printf("Atenção: %d candidato(s) mais barato(s) sem decisão após %d replicações"
+                        + " (aumente optimizeMaxReplications ou optimizeTolerance)\n", indecisos, maxReplicacoes);
+            }
+            System.out.printf("Replicações: %d (todos os candidatos até o máximo: %d)\n", total,
+                    (long) candidatos.size() * maxReplicacoes);
+        }
+    }
+
+    // optimize: true; maxLoss / maxQueue: limites (ao menos um); costServer (padrão 1) e
+    // costCapacity (padrão 0); optimizeTolerance: zona de indiferença relativa ao limite;
+    // optimizeInitial / optimizeMaxReplications: replicações iniciais e máximas por candidato
+    public static Resultado executar(EspecificacaoRede config, int paralelismo) {
+        if (config.varredura.isEmpty()) {
+            throw new IllegalArgumentException("optimize: declare os candidatos na seção sweep");
+        }
+        double maxPerdas = opcao(config, "maxLoss", Double.POSITIVE_INFINITY);
+        double maxFila = opcao(config, "maxQueue", Double.POSITIVE_INFINITY);
+        if (Double.isInfinite(maxPerdas) && Double.isInfinite(maxFila)) {
+            throw new IllegalArgumentException("optimize: defina maxLoss e/ou maxQueue");
+        }
+        if (!(maxPerdas > 0) || !(maxFila > 0)) throw new IllegalArgumentException("maxLoss e maxQueue devem ser positivos");
+        double custoServidor = opcao(config, "costServer", 1.0);
+        double custoCapacidade = opcao(config, "costCapacity", 0.0);
+        double tolerancia = opcao(config, "optimizeTolerance", TOLERANCIA_PADRAO);
+        int iniciais = (int) opcao(config, "optimizeInitial", REPLICACOES_INICIAIS);
+        int maximo = (int) opcao(config, "optimizeMaxReplications", MAX_REPLICACOES);
+        if (iniciais < 2 || maximo < iniciais) {
+            throw new IllegalArgumentException("optimizeInitial deve ser >= 2 e <= optimizeMaxReplications");
+        }
+
+        int numFilas = config.filas.size();
+        double[] limites = new double[2 * numFilas];
+        double[] indiferenca = new double[2 * numFilas];
+        for (int f = 0; f < numFilas; f++) {
+            limites[2 * f] = maxPerdas;
+            limites[2 * f + 1] = maxFila;
+        }
+        for (int k = 0; k < limites.length; k++) indiferenca[k] = tolerancia * limites[k];
+
+        List<Candidato> candidatos = new ArrayList<>();
+        for (Varredura.Cenario cenario : Varredura.expandir(config)) {
+            double custo = 0.0;
+            for (EspecificacaoFila f : cenario.config.filas) {
+                custo += custoServidor * f.servidores;
+                if (f.capacidade != Fila.INFINITA) custo += custoCapacidade * f.capacidade;
+            }
+            candidatos.add(new Candidato(cenario, custo, limites.length));
+        }
+        candidatos.sort(Comparator.comparingDouble(c -> c.custo));
+
+        // Bonferroni sobre candidatos x restrições ativas; h² de KN para n0 replicações
+        int ativas = (Double.isInfinite(maxPerdas) ? 0 : numFilas) + (Double.isInfinite(maxFila) ? 0 : numFilas);
+        double alfa = ALFA / ((double) candidatos.size() * ativas);
+        double eta = 0.5 * (Math.pow(2 * alfa, -2.0 / (iniciais - 1)) - 1);
+        double h2 = 2 * eta * (iniciais - 1);
+
+        // sementes de todas as replicações possíveis (as do YAML e as seguintes)
+        List<Long> seeds = new ArrayList<>(config.seeds);
+        while (seeds.size() < maximo) seeds.add(seeds.get(seeds.size() - 1) + 1);
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            while (true) {
+                // rodada: os candidatos em avaliação mais baratos (um por thread), de modo que
+                // os mais caros que um viável já confirmado nem chegam a ser simulados
+                List<Candidato> vivos = new ArrayList<>();
+                for (Candidato c : candidatos) {
+                    if (c.situacao == Situacao.EM_AVALIACAO && vivos.size() < paralelismo) vivos.add(c);
+                }
+                if (vivos.isEmpty()) break;
+                // replicações iniciais para quem começa; para os demais, o suficiente para ocupar as threads
+                int passoSeguinte = Math.max(1, paralelismo / vivos.size());
+                List<Callable<double[]>> tarefas = new ArrayList<>();
+                for (Candidato c : vivos) {
+                    int passo = c.replicacoes == 0 ? iniciais : passoSeguinte;
+                    for (int r = c.replicacoes; r < Math.min(c.replicacoes + passo, maximo); r++) {
+                        EspecificacaoRede cfg = c.cenario.config;
+                        int indice = r;
+                        tarefas.add(() -> observar(cfg, seeds, indice));
+                    }
+                }
+                List<Future<double[]>> futuros = pool.invokeAll(tarefas);
+                int proximo = 0;
+                for (Candidato c : vivos) {
+                    int fim = Math.min(c.replicacoes + (c.replicacoes == 0 ? iniciais : passoSeguinte), maximo);
+                    int inicio = c.replicacoes;
+                    for (int r = inicio; r < fim; r++) {
+                        double[] y = futuros.get(proximo++).get();
+                        if (c.situacao != Situacao.EM_AVALIACAO) continue; // decidido nesta rodada
+                        registrar(c, y, limites, iniciais);
+                        if (c.replicacoes >= iniciais) decidir(c, h2, indiferenca, limites);
+                    }
+                    if (c.situacao == Situacao.EM_AVALIACAO && c.replicacoes >= maximo) c.situacao = Situacao.INDECISO;
+                }
+                eliminarDominados(candidatos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Otimização interrompida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro em uma replicação: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new Resultado(candidatos, numFilas, maxPerdas, maxFila, maximo);
+    }
+
+    private static double opcao(EspecificacaoRede config, String chave, double padrao) {
+        return config.opcoes.containsKey(chave) ? config.opcaoNumero(chave) : padrao;
+    }
+
+    // Uma replicação do candidato: fração de perdas e fila média (Lq) de cada fila
+    private static double[] observar(EspecificacaoRede config, List<Long> seeds, int indice) {
+        Simulador simulador = Main.construirSimulador(config, Main.criarGerador(config, seeds, indice));
+        simulador.executar();
+        ResultadoSimulacao resultado = simulador.getResultado(seeds.get(indice));
+        double[] y = new double[2 * resultado.filas.size()];
+        for (ResultadoFila f : resultado.filas) {
+            long chegadas = f.perdidos + f.atendidos;
+            y[2 * f.id] = chegadas > 0 ? (double) f.perdidos / chegadas : 0.0;
+            y[2 * f.id + 1] = f.populacaoMedia - f.utilizacao * f.servidores;
+        }
+        return y;
+    }
+
+    // A variância S² de cada restrição é a das replicações iniciais, fixa daí em diante
+    private static void registrar(Candidato c, double[] y, double[] limites, int iniciais) {
+        c.replicacoes++;
+        for (int k = 0; k < y.length; k++) {
+            c.observacoes[k].adicionar(y[k]);
+            c.somas[k] += y[k] - limites[k];
+            if (c.replicacoes == iniciais) c.variancias[k] = c.observacoes[k].getVariancia();
+        }
+    }
+
+    // Região de continuação triangular: com r replicações, a restrição k está satisfeita
+    // se soma(Y - limite) <= -R e violada se >= R, com R = max(0, h² S² / (2 eps) - eps r / 2)
+    private static void decidir(Candidato c, double h2, double[] indiferenca, double[] limites) {
+        boolean todas = true;
+        for (int k = 0; k < c.somas.length; k++) {
+            if (c.satisfeitas[k]) continue;
+            if (Double.isInfinite(limites[k])) {
+                c.satisfeitas[k] = true;
+                continue;
+            }
+            double eps = indiferenca[k];
+            double r = Math.max(0.0, h2 * c.variancias[k] / (2 * eps) - eps * c.replicacoes / 2);
+            if (c.somas[k] <= -r) {
+                c.satisfeitas[k] = true;
+            } else if (c.somas[k] >= r) {
+                c.situacao = Situacao.INVIAVEL;
+                return;
+            } else {
+                todas = false;
+            }
+        }
+        if (todas) c.situacao = Situacao.VIAVEL;
+    }
+
+    // Candidatos mais caros que o viável mais barato já não podem ser a resposta
+    private static void eliminarDominados(List<Candidato> candidatos) {
+        double melhor = Double.POSITIVE_INFINITY;
+        for (Candidato c : candidatos) if (c.situacao == Situacao.VIAVEL) melhor = Math.min(melhor, c.custo);
+        for (Candidato c : candidatos) {
+            if (c.custo > melhor && (c.situacao == Situacao.EM_AVALIACAO || c.situacao == Situacao.VIAVEL)) {
+                c.situacao = Situacao.DOMINADO;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Estimador de quantil P² (Jain e Chlamtac, 1985): acompanha um quantil p
+// com cinco marcadores, sem guardar as observações (memória constante).
+public class QuantilP2 {
+
+    private final double p;
+    private final double[] alturas = new double[5];
+    private final double[] posicoes = new double[5];
+    private final double[] desejadas = new double[5];
+    private final double[] incrementos;
+    private long contagem;
+
+    public QuantilP2(double p) {
+        if (p <= 0 || p >= 1) throw new IllegalArgumentException("Quantil deve estar em (0, 1): " + p);
+        this.p = p;
+        this.incrementos = new double[] {0, p / 2, p, (1 + p) / 2, 1};
+    }
+
+    public void adicionar(double x) {
+        if (contagem < 5) {
+            alturas[(int) contagem++] = x;
+            if (contagem == 5) {
+                Arrays.sort(alturas);
+                for (int i = 0; i < 5; i++) posicoes[i] = i + 1;
+                desejadas[0] = 1;
+                desejadas[1] = 1 + 2 * p;
+                desejadas[2] = 1 + 4 * p;
+                desejadas[3] = 3 + 2 * p;
+                desejadas[4] = 5;
+            }
+            return;
+        }
+        contagem++;
+
+        // célula em que x cai, ajustando os extremos se necessário
+        int k;
+        if (x < alturas[0]) {
+            alturas[0] = x;
+            k = 0;
+        } else if (x < alturas[1]) {
+            k = 0;
+        } else if (x < alturas[2]) {
+            k = 1;
+        } else if (x < alturas[3]) {
+            k = 2;
+        } else if (x <= alturas[4]) {
+            k = 3;
+        } else {
+            alturas[4] = x;
+            k = 3;
+        }
+        for (int i = k + 1; i < 5; i++) posicoes[i]++;
+        for (int i = 0; i < 5; i++) desejadas[i] += incrementos[i];
+
+        // ajusta os marcadores centrais
+        for (int i = 1; i <= 3; i++) {
+            double d = desejadas[i] - posicoes[i];
+            if ((d >= 1 && posicoes[i + 1] - posicoes[i] > 1) || (d <= -1 && posicoes[i - 1] - posicoes[i] < -1)) {
+                int s = d > 0 ? 1 : -1;
+                double q = parabolica(i, s);
+                if (alturas[i - 1] < q && q < alturas[i + 1]) {
+                    alturas[i] = q;
+                } else {
+                    alturas[i] += s * (alturas[i + s] - alturas[i]) / (posicoes[i + s] - posicoes[i]);
+                }
+                posicoes[i] += s;
+            }
+        }
+    }
+
+    private double parabolica(int i, int s) {
+        double ni = posicoes[i], nAnt = posicoes[i - 1], nProx = posicoes[i + 1];
+        return alturas[i] + s / (nProx - nAnt)
+                * ((ni - nAnt + s) * (alturas[i + 1] - alturas[i]) / (nProx - ni)
+                + (nProx - ni - s) * (alturas[i] - alturas[i - 1]) / (ni - nAnt));
+    }
+
+    public double getQuantil() {
+        if (contagem == 0) return Double.NaN;
+        if (contagem < 5) {
+            double[] ordenadas = Arrays.copyOf(alturas, (int) contagem);
+            Arrays.sort(ordenadas);
+            return ordenadas[(int) Math.min(contagem - 1, Math.round(p * (contagem - 1)))];
+        }
+        return alturas[2];
+    }
+
+    public void reset() {
+        contagem = 0;
+    }
+
+    public void salvarEstado(EstadoBinario out) {
+        out.putLong(contagem);
+        for (int i = 0; i < 5; i++) {
+            out.putDouble(alturas[i]);
+            out.putDouble(posicoes[i]);
+            out.putDouble(desejadas[i]);
+        }
+    }
+
+    public void restaurarEstado(ByteBuffer in) {
+        contagem = in.getLong();
+        for (int i = 0; i < 5; i++) {
+            alturas[i] = in.getDouble();
+            posicoes[i] = in.getDouble();
+            desejadas[i] = in.getDouble();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.nio.ByteBuffer;
+
+// Rastreamento por cliente de uma fila, sem objeto por cliente: os instantes de
+// chegada ficam em um buffer circular de primitivos (FIFO) e, no início de cada
+// atendimento, o mais antigo é retirado para calcular espera e permanência.
+// A memória depende apenas do número de clientes presentes na fila.
+public class RastreamentoClientes {
+
+    private double[] chegadas = new double[16];
+    private int inicio;
+    private int tamanho;
+
+    public final ResumoStreaming espera = new ResumoStreaming();
+    public final ResumoStreaming permanencia = new ResumoStreaming();
+
+    // Cliente admitido na fila no instante informado
+    public void registrarEntrada(double tempo) {
+        if (tamanho == chegadas.length) crescer();
+        chegadas[(inicio + tamanho) & (chegadas.length - 1)] = tempo;
+        tamanho++;
+    }
+
+    // Início do atendimento do cliente mais antigo, com o tempo de serviço já sorteado
+    public void registrarInicioAtendimento(double tempo, double servico) {
+        if (tamanho == 0) return;
+        double chegada = chegadas[inicio];
+        inicio = (inicio + 1) & (chegadas.length - 1);
+        tamanho--;
+        double tempoEspera = tempo - chegada;
+        espera.adicionar(tempoEspera);
+        permanencia.adicionar(tempoEspera + servico);
+    }
+
+    public int getClientesRastreados() {
+        return tamanho;
+    }
+
+    // Zera o buffer e as estatísticas
+    public void reset() {
+        inicio = 0;
+        tamanho = 0;
+        descartarEstatisticas();
+    }
+
+    // Zera apenas as estatísticas, mantendo os clientes presentes (fim do aquecimento)
+    public void descartarEstatisticas() {
+        espera.reset();
+        permanencia.reset();
+    }
+
+    // Clientes presentes (em ordem de chegada) e estatísticas
+    public void salvarEstado(EstadoBinario out) {
+        out.putInt(tamanho);
+        for (int i = 0; i < tamanho; i++) out.putDouble(chegadas[(inicio + i) & (chegadas.length - 1)]);
+        espera.salvarEstado(out);
+        permanencia.salvarEstado(out);
+    }
+
+    public void restaurarEstado(ByteBuffer in) {
+        int n = in.getInt();
+        int capacidade = 16;
+        while (capacidade < n) capacidade *= 2;
+        chegadas = new double[capacidade];
+        for (int i = 0; i < n; i++) chegadas[i] = in.getDouble();
+        inicio = 0;
+        tamanho = n;
+        espera.restaurarEstado(in);
+        permanencia.restaurarEstado(in);
+    }
+
+    private void crescer() {
+        double[] novo = new double[chegadas.length * 2];
+        for (int i = 0; i < tamanho; i++) {
+            novo[i] = chegadas[(inicio + i) & (chegadas.length - 1)];
+        }
+        chegadas = novo;
+        inicio = 0;
+    }
+}
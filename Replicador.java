@@ -0,0 +1,403 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+// Executa uma replicação por seed em paralelo (um Simulador/LCG/Fila por seed)
+// e combina os resultados de cada fila em médias com intervalo de confiança.
+// Redução de variância opcional: antithetic: true executa cada seed em par com o
+// gerador espelhado (GeradorAntitetico) e usa a média do par como observação;
+// controlVariates: true corrige população e perdas pelas médias amostrais dos tempos
+// de atendimento e entre chegadas, cujas médias verdadeiras são conhecidas.
+// lockstep: K executa as replicações em grupos de K por thread (SimuladorLockstep),
+// com resultados idênticos aos do Simulador.
+public class Replicador {
+
+    // Índices das métricas coletadas por fila em cada replicação
+    public static final int POPULACAO_MEDIA = 0;
+    public static final int PROB_VAZIA = 1;
+    public static final int PERDIDOS = 2;
+    public static final int UTILIZACAO = 3;
+    public static final int VAZAO = 4;
+    public static final int ESPERA_MEDIA = 5;       // NaN sem rastreamento de clientes
+    public static final int PERMANENCIA_MEDIA = 6;  // NaN sem rastreamento de clientes
+    public static final int NUM_METRICAS = 7;
+
+    public static Resumo executar(EspecificacaoRede config, List<Long> seeds) {
+        return executar(config, seeds, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Resumo executar(EspecificacaoRede config, List<Long> seeds, int paralelismo) {
+        return executar(config, seeds, paralelismo, null);
+    }
+
+    // Se saida não for null, o resultado completo de cada replicação é gravado nela
+    // assim que a replicação termina (ordem de término, não de seed)
+    public static Resumo executar(EspecificacaoRede config, List<Long> seeds, int paralelismo,
+                                  EscritorResultado saida) {
+        return executar(config, seeds, paralelismo, saida, null);
+    }
+
+    // Com instrumentacao não nula, todas as replicações publicam nela o seu progresso
+    public static Resumo executar(EspecificacaoRede config, List<Long> seeds, int paralelismo,
+                                  EscritorResultado saida, Instrumentacao instrumentacao) {
+        boolean antitetico = config.opcaoBooleana("antithetic");
+        boolean controles = config.opcaoBooleana("controlVariates");
+        // um gerador por execução (dois por seed com pares antitéticos), na ordem das seeds
+        List<Long> seedDe = new ArrayList<>();
+        List<GeradorAleatorio> geradores = new ArrayList<>();
+        for (int i = 0; i < seeds.size(); i++) {
+            GeradorAleatorio original = Main.criarGerador(config, seeds, i);
+            seedDe.add(seeds.get(i));
+            geradores.add(original);
+            if (antitetico) {
+                seedDe.add(seeds.get(i));
+                geradores.add(new GeradorAntitetico(original));
+            }
+        }
+
+        // lockstep: K executa grupos de K execuções por tarefa em um SimuladorLockstep
+        int raias = config.opcoes.containsKey("lockstep") ? (int) config.opcaoNumero("lockstep") : 0;
+        if (raias > 0 && instrumentacao != null) {
+            throw new IllegalArgumentException("lockstep não suporta instrumentation");
+        }
+        List<Callable<Replicacao[]>> tarefas = new ArrayList<>();
+        int grupo = Math.max(1, raias);
+        for (int inicio = 0; inicio < geradores.size(); inicio += grupo) {
+            List<GeradorAleatorio> rngs = geradores.subList(inicio, Math.min(geradores.size(), inicio + grupo));
+            List<Long> seedsGrupo = seedDe.subList(inicio, inicio + rngs.size());
+            if (raias > 0) tarefas.add(() -> {
+                SimuladorLockstep motor = new SimuladorLockstep(config, rngs);
+                motor.executar();
+                Replicacao[] rs = new Replicacao[rngs.size()];
+                for (int r = 0; r < rs.length; r++) {
+                    ResultadoSimulacao resultado = motor.getResultado(r, seedsGrupo.get(r));
+                    gravar(saida, resultado);
+                    rs[r] = Replicacao.de(resultado);
+                    if (controles) rs[r] = rs[r].comControles(motor.getFilas(r), motor::getChegadas);
+                }
+                return rs;
+            });
+            else tarefas.add(() -> {
+                Simulador simulador = Main.construirSimulador(config, rngs.get(0));
+                simulador.setInstrumentacao(instrumentacao);
+                simulador.executar();
+                ResultadoSimulacao resultado = simulador.getResultado(seedsGrupo.get(0));
+                gravar(saida, resultado);
+                Replicacao r = Replicacao.de(resultado);
+                return new Replicacao[] { controles ? r.comControles(simulador) : r };
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            List<Replicacao> execucoes = new ArrayList<>();
+            for (Future<Replicacao[]> futuro : pool.invokeAll(tarefas)) execucoes.addAll(Arrays.asList(futuro.get()));
+            if (execucoes.isEmpty()) return null;
+            Resumo resumo = new Resumo(execucoes.get(0).nomes);
+            for (int i = 0; i < execucoes.size(); i += antitetico ? 2 : 1) {
+                if (antitetico) resumo.adicionarPar(execucoes.get(i), execucoes.get(i + 1));
+                else resumo.adicionar(execucoes.get(i));
+            }
+            return resumo;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Replicações interrompidas", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro em uma replicação: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void gravar(EscritorResultado saida, ResultadoSimulacao resultado) {
+        if (saida == null) return;
+        synchronized (saida) {
+            try {
+                saida.escrever(resultado);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Executa uma única replicação e extrai as métricas de cada fila
+    public static Replicacao replicar(EspecificacaoRede config, long seed, GeradorAleatorio rng) {
+        return replicar(config, seed, rng, null);
+    }
+
+    public static Replicacao replicar(EspecificacaoRede config, long seed, GeradorAleatorio rng,
+                                      Instrumentacao instrumentacao) {
+        Simulador simulador = Main.construirSimulador(config, rng);
+        simulador.setInstrumentacao(instrumentacao);
+        simulador.executar();
+        return Replicacao.de(simulador.getResultado(seed));
+    }
+
+    // Resultado de uma replicação: métricas[fila][métrica] e tempo total simulado
+    public static class Replicacao {
+        public final long seed;
+        public final String[] nomes;
+        public final double[][] metricas;
+        public final double tempoTotal;
+        // Variáveis de controle centradas (média amostral menos a verdadeira): atendimento
+        // da fila i em [i], intervalo entre chegadas externas à fila i em [n + i]; NaN se a
+        // fila não teve sorteios; null sem controlVariates
+        public final double[] controles;
+
+        public Replicacao(long seed, String[] nomes, double[][] metricas, double tempoTotal) {
+            this(seed, nomes, metricas, tempoTotal, null);
+        }
+
+        public Replicacao(long seed, String[] nomes, double[][] metricas, double tempoTotal, double[] controles) {
+            this.seed = seed;
+            this.nomes = nomes;
+            this.metricas = metricas;
+            this.tempoTotal = tempoTotal;
+            this.controles = controles;
+        }
+
+        // Esta replicação com os controles medidos no simulador que a executou
+        public Replicacao comControles(Simulador simulador) {
+            return comControles(simulador.getFilas(), simulador::getChegadas);
+        }
+
+        // chegadas: distribuição das chegadas externas de cada fila (null se não recebe)
+        public Replicacao comControles(List<Fila> filas, IntFunction<Distribuicao> chegadas) {
+            int n = filas.size();
+            double[] c = new double[2 * n];
+            for (Fila f : filas) {
+                Distribuicao externas = chegadas.apply(f.id);
+                c[f.id] = f.atendimentosSorteados > 0
+                        ? f.somaAtendimentos / f.atendimentosSorteados - f.atendimento.media() : Double.NaN;
+                c[n + f.id] = externas != null && f.intervalosSorteados > 0
+                        ? f.somaIntervalos / f.intervalosSorteados - externas.media() : Double.NaN;
+            }
+            return new Replicacao(seed, nomes, metricas, tempoTotal, c);
+        }
+
+        // Média de um par antitético (métricas e controles)
+        public static Replicacao par(Replicacao a, Replicacao b) {
+            double[][] metricas = new double[a.metricas.length][NUM_METRICAS];
+            for (int i = 0; i < metricas.length; i++) {
+                for (int m = 0; m < NUM_METRICAS; m++) metricas[i][m] = (a.metricas[i][m] + b.metricas[i][m]) / 2;
+            }
+            double[] controles = null;
+            if (a.controles != null && b.controles != null) {
+                controles = new double[a.controles.length];
+                for (int k = 0; k < controles.length; k++) controles[k] = (a.controles[k] + b.controles[k]) / 2;
+            }
+            return new Replicacao(a.seed, a.nomes, metricas, (a.tempoTotal + b.tempoTotal) / 2, controles);
+        }
+
+        public static Replicacao de(ResultadoSimulacao resultado) {
+            List<ResultadoFila> filas = resultado.filas;
+            String[] nomes = new String[filas.size()];
+            double[][] metricas = new double[filas.size()][NUM_METRICAS];
+            for (int i = 0; i < filas.size(); i++) {
+                ResultadoFila f = filas.get(i);
+                nomes[i] = f.nome;
+                metricas[i][POPULACAO_MEDIA] = f.populacaoMedia;
+                metricas[i][PROB_VAZIA] = f.probVazia;
+                metricas[i][PERDIDOS] = f.perdidos;
+                metricas[i][UTILIZACAO] = f.utilizacao;
+                metricas[i][VAZAO] = f.vazao;
+                metricas[i][ESPERA_MEDIA] = f.esperaMedia;
+                metricas[i][PERMANENCIA_MEDIA] = f.permanenciaMedia;
+            }
+            return new Replicacao(resultado.seed, nomes, metricas, resultado.tempoTotal);
+        }
+    }
+
+    // Médias e intervalos de confiança sobre todas as replicações
+    public static class Resumo {
+        public final String[] nomes;
+        public final AcumuladorMedia[][] metricas;
+        public final AcumuladorMedia tempoTotal = new AcumuladorMedia();
+        // Execuções isoladas dos pares antitéticos (null sem pares), para o fator de redução
+        private AcumuladorMedia[][] individuais;
+        // Observações com controles, para o estimador com variáveis de controle
+        private final List<Replicacao> comControles = new ArrayList<>();
+
+        public Resumo(String[] nomes) {
+            this.nomes = nomes;
+            this.metricas = new AcumuladorMedia[nomes.length][NUM_METRICAS];
+            for (int i = 0; i < nomes.length; i++) {
+                for (int m = 0; m < NUM_METRICAS; m++) {
+                    metricas[i][m] = new AcumuladorMedia();
+                }
+            }
+        }
+
+        public void adicionar(Replicacao r) {
+            for (int i = 0; i < nomes.length; i++) {
+                for (int m = 0; m < NUM_METRICAS; m++) {
+                    metricas[i][m].adicionar(r.metricas[i][m]);
+                }
+            }
+            tempoTotal.adicionar(r.tempoTotal);
+            if (r.controles != null) comControles.add(r);
+        }
+
+        // Par antitético: a observação é a média das duas execuções
+        public void adicionarPar(Replicacao a, Replicacao b) {
+            if (individuais == null) {
+                individuais = new AcumuladorMedia[nomes.length][NUM_METRICAS];
+                for (AcumuladorMedia[] linha : individuais) {
+                    for (int m = 0; m < NUM_METRICAS; m++) linha[m] = new AcumuladorMedia();
+                }
+            }
+            for (Replicacao r : new Replicacao[] { a, b }) {
+                for (int i = 0; i < nomes.length; i++) {
+                    for (int m = 0; m < NUM_METRICAS; m++) individuais[i][m].adicionar(r.metricas[i][m]);
+                }
+            }
+            adicionar(Replicacao.par(a, b));
+        }
+
+        // Variância de duas execuções independentes sobre a variância do par antitético
+        // (NaN sem pares); acima de 1, os pares compensaram o custo
+        public double fatorAntitetico(int fila, int metrica) {
+            if (individuais == null) return Double.NaN;
+            return individuais[fila][metrica].getVariancia() / 2 / metricas[fila][metrica].getVariancia();
+        }
+
+        // Estimador com variáveis de controle y - beta (c - mu) da métrica da fila, com beta
+        // por mínimos quadrados sobre as observações (Lavenberg e Welch). Controles: o
+        // atendimento da própria fila e os intervalos de todas as fontes externas.
+        // Devolve {média, semi-amplitude do IC de 95%, fator de redução da variância da
+        // média (sem os controles sobre com eles)},
+        // ou null se não há controles ou observações suficientes.
+        public double[] comControle(int fila, int metrica) {
+            int n = nomes.length;
+            List<Integer> colunas = new ArrayList<>();
+            for (int k = 0; k < 2 * n; k++) {
+                if (k < n && k != fila) continue;
+                boolean disponivel = !comControles.isEmpty();
+                for (Replicacao r : comControles) disponivel &= !Double.isNaN(r.controles[k]);
+                if (disponivel) colunas.add(k);
+            }
+            int q = colunas.size();
+            int m = comControles.size();
+            if (q == 0 || m - q - 1 < 2) return null;
+
+            double mediaY = 0;
+            double[] mediaC = new double[q];
+            for (Replicacao r : comControles) {
+                mediaY += r.metricas[fila][metrica] / m;
+                for (int j = 0; j < q; j++) mediaC[j] += r.controles[colunas.get(j)] / m;
+            }
+            double[][] scc = new double[q][q];
+            double[] scy = new double[q];
+            double syy = 0;
+            for (Replicacao r : comControles) {
+                double dy = r.metricas[fila][metrica] - mediaY;
+                syy += dy * dy;
+                for (int j = 0; j < q; j++) {
+                    double dj = r.controles[colunas.get(j)] - mediaC[j];
+                    scy[j] += dj * dy;
+                    for (int k = 0; k < q; k++) scc[j][k] += dj * (r.controles[colunas.get(k)] - mediaC[k]);
+                }
+            }
+            double[] beta = resolverSistema(scc, scy);
+            if (beta == null || syy == 0) return null;
+
+            // controles centrados: a esperança verdadeira de cada um é 0
+            double estimativa = mediaY;
+            double residuos = syy;
+            for (int j = 0; j < q; j++) {
+                estimativa -= beta[j] * mediaC[j];
+                residuos -= beta[j] * scy[j];
+            }
+            double varianciaResidual = Math.max(residuos, 0) / (m - q - 1);
+            // variância da média controlada: s²_res (1/m + c̄' Scc⁻¹ c̄), que inclui o erro de
+            // estimar beta nas mesmas observações
+            double[] x = resolverSistema(scc, mediaC);
+            if (x == null) return null;
+            double forma = 0;
+            for (int j = 0; j < q; j++) forma += mediaC[j] * x[j];
+            double varianciaControlada = varianciaResidual * (1.0 / m + forma);
+            return new double[] { estimativa,
+                    AcumuladorMedia.quantilT95(m - q - 1) * Math.sqrt(varianciaControlada),
+                    syy / (m - 1) / m / varianciaControlada };
+        }
+
+        // Eliminação de Gauss com pivoteamento parcial; null se o sistema é singular
+        private static double[] resolverSistema(double[][] a, double[] b) {
+            int q = b.length;
+            double[][] m = new double[q][];
+            for (int i = 0; i < q; i++) {
+                m[i] = Arrays.copyOf(a[i], q + 1);
+                m[i][q] = b[i];
+            }
+            for (int c = 0; c < q; c++) {
+                int pivo = c;
+                for (int i = c + 1; i < q; i++) if (Math.abs(m[i][c]) > Math.abs(m[pivo][c])) pivo = i;
+                if (Math.abs(m[pivo][c]) < 1e-300) return null;
+                double[] t = m[c];
+                m[c] = m[pivo];
+                m[pivo] = t;
+                for (int i = c + 1; i < q; i++) {
+                    double f = m[i][c] / m[c][c];
+                    for (int j = c; j <= q; j++) m[i][j] -= f * m[c][j];
+                }
+            }
+            double[] x = new double[q];
+            for (int i = q - 1; i >= 0; i--) {
+                double soma = m[i][q];
+                for (int j = i + 1; j < q; j++) soma -= m[i][j] * x[j];
+                x[i] = soma / m[i][i];
+            }
+            return x;
+        }
+
+        public long getReplicacoes() {
+            return tempoTotal.getN();
+        }
+
+        public void imprimir() {
+            if (individuais != null) System.out.printf("Replicações: %d pares antitéticos (IC de 95%%)\n\n", getReplicacoes());
+            else System.out.printf("Replicações: %d (IC de 95%%)\n\n", getReplicacoes());
+            for (int i = 0; i < nomes.length; i++) {
+                System.out.printf("Fila %s:\n", nomes[i]);
+                imprimirMetrica("População média", metricas[i][POPULACAO_MEDIA]);
+                imprimirReducao(i, POPULACAO_MEDIA);
+                imprimirMetrica("Probabilidade de vazia (P0)", metricas[i][PROB_VAZIA]);
+                imprimirMetrica("Clientes perdidos", metricas[i][PERDIDOS]);
+                imprimirReducao(i, PERDIDOS);
+                imprimirMetrica("Utilização", metricas[i][UTILIZACAO]);
+                imprimirMetrica("Vazão", metricas[i][VAZAO]);
+                if (!Double.isNaN(metricas[i][ESPERA_MEDIA].getMedia())) {
+                    imprimirMetrica("Espera média", metricas[i][ESPERA_MEDIA]);
+                    imprimirMetrica("Permanência média", metricas[i][PERMANENCIA_MEDIA]);
+                }
+                System.out.println();
+            }
+            imprimirMetrica("Tempo total de simulação", tempoTotal);
+        }
+
+        private static void imprimirMetrica(String nome, AcumuladorMedia a) {
+            System.out.printf("  %-30s %12.4f ± %.4f\n", nome + ":", a.getMedia(), a.getSemiAmplitudeIC95());
+        }
+
+        // Fatores de redução da variância alcançados (variância sem a técnica / com ela)
+        private void imprimirReducao(int fila, int metrica) {
+            double fator = fatorAntitetico(fila, metrica);
+            if (!Double.isNaN(fator)) System.out.printf("    %-28s %12.2fx\n", "redução (antitéticas):", fator);
+            if (comControles.isEmpty()) return;
+            double[] controle = comControle(fila, metrica);
+            if (controle == null) {
+                System.out.printf("    %-28s %12s\n", "com controles:", "(sem dados)");
+            } else {
+                System.out.printf("    %-28s %12.4f ± %.4f   redução %.2fx\n", "com controles:",
+                        controle[0], controle[1], controle[2]);
+            }
+        }
+    }
+}
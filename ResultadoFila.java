@@ -0,0 +1,134 @@
+// Resultado de uma fila ao fim de uma execução
+public class ResultadoFila {
+    public final int id;
+    public final String nome;
+    public final int servidores;
+    public final int capacidade;          // Fila.INFINITA para fila sem limite
+    public final double minAtendimento;   // suporte da distribuição de atendimento
+    public final double maxAtendimento;
+    public final double minChegada;       // NaN se a fila não recebe chegadas externas
+    public final double maxChegada;
+    public final String atendimento;      // descrição das distribuições, ex.: "exponential 5"
+    public final String chegadas;         // null se a fila não recebe chegadas externas
+
+    public final double[] distribuicao;   // probabilidade de cada estado 0..maiorEstado
+    public final double populacaoMedia;
+    public final double probVazia;
+    public final long perdidos;
+    public final long atendidos;
+    public final double utilizacao;
+    public final double vazao;
+
+    // Estatísticas por cliente (NaN sem rastreamento)
+    public final double esperaMedia;
+    public final double esperaP50;
+    public final double esperaP95;
+    public final double esperaP99;
+    public final double permanenciaMedia;
+    public final double permanenciaP95;
+
+    // Médias em lote da execução longa (null se desligadas ou com poucos lotes)
+    public final Lotes lotes;
+
+    // Estimativas de estado estacionário por médias em lote, com semi-amplitude do IC 95%
+    public static class Lotes {
+        public final int numLotes;            // após o agrupamento por autocorrelação
+        public final double tamanhoLote;
+        public final double autocorrelacao;   // maior |r1| entre as três métricas
+        public final double populacao;
+        public final double populacaoIC95;
+        public final double taxaPerdas;       // clientes perdidos por unidade de tempo
+        public final double taxaPerdasIC95;
+        public final double probVazia;
+        public final double probVaziaIC95;
+
+        public Lotes(int numLotes, double tamanhoLote, double autocorrelacao, double populacao, double populacaoIC95,
+                     double taxaPerdas, double taxaPerdasIC95, double probVazia, double probVaziaIC95) {
+            this.numLotes = numLotes;
+            this.tamanhoLote = tamanhoLote;
+            this.autocorrelacao = autocorrelacao;
+            this.populacao = populacao;
+            this.populacaoIC95 = populacaoIC95;
+            this.taxaPerdas = taxaPerdas;
+            this.taxaPerdasIC95 = taxaPerdasIC95;
+            this.probVazia = probVazia;
+            this.probVaziaIC95 = probVaziaIC95;
+        }
+    }
+
+    public ResultadoFila(int id, String nome, int servidores, int capacidade, double minAtendimento,
+                         double maxAtendimento, double minChegada, double maxChegada, String atendimento,
+                         String chegadas, double[] distribuicao,
+                         double populacaoMedia, double probVazia, long perdidos, long atendidos,
+                         double utilizacao, double vazao, double esperaMedia, double esperaP50,
+                         double esperaP95, double esperaP99, double permanenciaMedia, double permanenciaP95, Lotes lotes) {
+        this.id = id;
+        this.nome = nome;
+        this.servidores = servidores;
+        this.capacidade = capacidade;
+        this.minAtendimento = minAtendimento;
+        this.maxAtendimento = maxAtendimento;
+        this.minChegada = minChegada;
+        this.maxChegada = maxChegada;
+        this.atendimento = atendimento;
+        this.chegadas = chegadas;
+        this.distribuicao = distribuicao;
+        this.populacaoMedia = populacaoMedia;
+        this.probVazia = probVazia;
+        this.perdidos = perdidos;
+        this.atendidos = atendidos;
+        this.utilizacao = utilizacao;
+        this.vazao = vazao;
+        this.esperaMedia = esperaMedia;
+        this.esperaP50 = esperaP50;
+        this.esperaP95 = esperaP95;
+        this.esperaP99 = esperaP99;
+        this.permanenciaMedia = permanenciaMedia;
+        this.permanenciaP95 = permanenciaP95;
+        this.lotes = lotes;
+    }
+
+    public static ResultadoFila de(Fila f, double tempoObservado, Distribuicao chegadas, LotesFila lotes) {
+        double[] distribuicao = new double[f.maiorEstado + 1];
+        for (int j = 0; j <= f.maiorEstado; j++) {
+            distribuicao[j] = f.temposPorEstado[j] / tempoObservado;
+        }
+        RastreamentoClientes r = f.rastreamento;
+        return new ResultadoFila(f.id, f.nome, f.servidores, f.capacidade, f.minAtendimento, f.maxAtendimento,
+                chegadas != null ? chegadas.minimo() : Double.NaN, chegadas != null ? chegadas.maximo() : Double.NaN,
+                f.atendimento.toString(), chegadas != null ? chegadas.toString() : null,
+                distribuicao, f.populacaoMedia(tempoObservado),
+                f.probabilidadeVazia(tempoObservado), f.clientesPerdidos, f.clientesAtendidos,
+                f.utilizacao(tempoObservado), f.vazao(tempoObservado),
+                r != null ? r.espera.getMedia() : Double.NaN,
+                r != null ? r.espera.getP50() : Double.NaN,
+                r != null ? r.espera.getP95() : Double.NaN,
+                r != null ? r.espera.getP99() : Double.NaN,
+                r != null ? r.permanencia.getMedia() : Double.NaN,
+                r != null ? r.permanencia.getP95() : Double.NaN,
+                lotes != null ? lotes.resumo() : null);
+    }
+
+    public boolean temRastreamento() {
+        return !Double.isNaN(esperaMedia);
+    }
+
+    // Notação de Kendall A/S/c ou A/S/c/K, com A e S pelo tipo das distribuições de chegadas
+    // externas e de atendimento (fila sem chegadas externas fica com G nas chegadas)
+    public String notacao() {
+        String prefixo = kendall(chegadas) + "/" + kendall(atendimento) + "/" + servidores;
+        return capacidade == Fila.INFINITA ? prefixo : prefixo + "/" + capacidade;
+    }
+
+    // M para exponencial, D para determinística, Ek para Erlang de k fases, G para as demais
+    private static String kendall(String distribuicao) {
+        if (distribuicao == null) return "G";
+        String[] partes = distribuicao.split(" ");
+        switch (partes[0]) {
+            case "exponential": return "M";
+            case "deterministic": return "D";
+            case "erlang": return "E" + partes[1];
+            default: return "G";
+        }
+    }
+}
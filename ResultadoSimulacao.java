@@ -0,0 +1,124 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Resultado completo de uma execução (replicação): todas as filas da rede
+public class ResultadoSimulacao {
+
+    public final long seed;
+    public final double tempoTotal;      // relógio ao fim da execução
+    public final double tempoObservado;  // tempo de coleta, descontado o aquecimento
+    public final long eventos;
+    public final List<ResultadoFila> filas;
+
+    public ResultadoSimulacao(long seed, double tempoTotal, double tempoObservado, long eventos, List<ResultadoFila> filas) {
+        this.seed = seed;
+        this.tempoTotal = tempoTotal;
+        this.tempoObservado = tempoObservado;
+        this.eventos = eventos;
+        this.filas = Collections.unmodifiableList(filas);
+    }
+
+    public static ResultadoSimulacao de(long seed, Simulador simulador) {
+        double tempo = simulador.getTempoObservado();
+        List<ResultadoFila> filas = new ArrayList<>();
+        for (Fila f : simulador.getFilas()) {
+            filas.add(ResultadoFila.de(f, tempo, simulador.getChegadas(f.id), simulador.getLotesFila(f.id)));
+        }
+        return new ResultadoSimulacao(seed, simulador.getTempoGlobal(), tempo, simulador.getEventosProcessados(), filas);
+    }
+
+    // Formato binário compacto (ver EscritorBinario)
+    public void escrever(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeDouble(tempoTotal);
+        out.writeDouble(tempoObservado);
+        out.writeLong(eventos);
+        out.writeInt(filas.size());
+        for (ResultadoFila f : filas) {
+            out.writeInt(f.id);
+            out.writeUTF(f.nome);
+            out.writeInt(f.servidores);
+            out.writeInt(f.capacidade);
+            out.writeDouble(f.minAtendimento);
+            out.writeDouble(f.maxAtendimento);
+            out.writeDouble(f.minChegada);
+            out.writeDouble(f.maxChegada);
+            out.writeUTF(f.atendimento);
+            out.writeUTF(f.chegadas != null ? f.chegadas : "");
+            out.writeInt(f.distribuicao.length);
+            for (double p : f.distribuicao) out.writeDouble(p);
+            out.writeDouble(f.populacaoMedia);
+            out.writeDouble(f.probVazia);
+            out.writeLong(f.perdidos);
+            out.writeLong(f.atendidos);
+            out.writeDouble(f.utilizacao);
+            out.writeDouble(f.vazao);
+            out.writeDouble(f.esperaMedia);
+            out.writeDouble(f.esperaP50);
+            out.writeDouble(f.esperaP95);
+            out.writeDouble(f.esperaP99);
+            out.writeDouble(f.permanenciaMedia);
+            out.writeDouble(f.permanenciaP95);
+            out.writeBoolean(f.lotes != null);
+            if (f.lotes != null) {
+                ResultadoFila.Lotes l = f.lotes;
+                out.writeInt(l.numLotes);
+                out.writeDouble(l.tamanhoLote);
+                out.writeDouble(l.autocorrelacao);
+                out.writeDouble(l.populacao);
+                out.writeDouble(l.populacaoIC95);
+                out.writeDouble(l.taxaPerdas);
+                out.writeDouble(l.taxaPerdasIC95);
+                out.writeDouble(l.probVazia);
+                out.writeDouble(l.probVaziaIC95);
+            }
+        }
+    }
+
+    // Lê um resultado no formato binário; devolve null no fim do arquivo
+    public static ResultadoSimulacao ler(DataInput in) throws IOException {
+        long seed;
+        try {
+            seed = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        double tempoTotal = in.readDouble();
+        double tempoObservado = in.readDouble();
+        long eventos = in.readLong();
+        int n = in.readInt();
+        List<ResultadoFila> filas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int id = in.readInt();
+            String nome = in.readUTF();
+            int servidores = in.readInt();
+            int capacidade = in.readInt();
+            double minAt = in.readDouble(), maxAt = in.readDouble();
+            double minCh = in.readDouble(), maxCh = in.readDouble();
+            String atendimento = in.readUTF();
+            String chegadas = in.readUTF();
+            double[] distribuicao = new double[in.readInt()];
+            for (int j = 0; j < distribuicao.length; j++) distribuicao[j] = in.readDouble();
+            double populacao = in.readDouble(), probVazia = in.readDouble();
+            long perdidos = in.readLong(), atendidos = in.readLong();
+            double utilizacao = in.readDouble(), vazao = in.readDouble();
+            double esperaMedia = in.readDouble(), esperaP50 = in.readDouble(), esperaP95 = in.readDouble();
+            double esperaP99 = in.readDouble(), permanenciaMedia = in.readDouble(), permanenciaP95 = in.readDouble();
+            ResultadoFila.Lotes lotes = null;
+            if (in.readBoolean()) {
+                lotes = new ResultadoFila.Lotes(in.readInt(), in.readDouble(), in.readDouble(), in.readDouble(),
+                        in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+            }
+            filas.add(new ResultadoFila(id, nome, servidores, capacidade, minAt, maxAt, minCh, maxCh, atendimento,
+                    chegadas.isEmpty() ? null : chegadas, distribuicao, populacao, probVazia, perdidos, atendidos,
+                    utilizacao, vazao, esperaMedia, esperaP50, esperaP95, esperaP99, permanenciaMedia,
+                    permanenciaP95, lotes));
+        }
+        return new ResultadoSimulacao(seed, tempoTotal, tempoObservado, eventos, filas);
+    }
+}
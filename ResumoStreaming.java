@@ -0,0 +1,81 @@
+import java.nio.ByteBuffer;
+
+// Estatísticas on-line de uma grandeza (média, variância, mínimo, máximo e
+// quantis p50/p95/p99 por P²) sem guardar as observações.
+public class ResumoStreaming {
+
+    private final AcumuladorMedia media = new AcumuladorMedia();
+    private final QuantilP2 p50 = new QuantilP2(0.50);
+    private final QuantilP2 p95 = new QuantilP2(0.95);
+    private final QuantilP2 p99 = new QuantilP2(0.99);
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+
+    public void adicionar(double x) {
+        media.adicionar(x);
+        p50.adicionar(x);
+        p95.adicionar(x);
+        p99.adicionar(x);
+        if (x < minimo) minimo = x;
+        if (x > maximo) maximo = x;
+    }
+
+    public void reset() {
+        media.reset();
+        p50.reset();
+        p95.reset();
+        p99.reset();
+        minimo = Double.POSITIVE_INFINITY;
+        maximo = Double.NEGATIVE_INFINITY;
+    }
+
+    public void salvarEstado(EstadoBinario out) {
+        media.salvarEstado(out);
+        p50.salvarEstado(out);
+        p95.salvarEstado(out);
+        p99.salvarEstado(out);
+        out.putDouble(minimo);
+        out.putDouble(maximo);
+    }
+
+    public void restaurarEstado(ByteBuffer in) {
+        media.restaurarEstado(in);
+        p50.restaurarEstado(in);
+        p95.restaurarEstado(in);
+        p99.restaurarEstado(in);
+        minimo = in.getDouble();
+        maximo = in.getDouble();
+    }
+
+    public long getN() {
+        return media.getN();
+    }
+
+    public double getMedia() {
+        return media.getMedia();
+    }
+
+    public double getVariancia() {
+        return media.getVariancia();
+    }
+
+    public double getMinimo() {
+        return minimo;
+    }
+
+    public double getMaximo() {
+        return maximo;
+    }
+
+    public double getP50() {
+        return p50.getQuantil();
+    }
+
+    public double getP95() {
+        return p95.getQuantil();
+    }
+
+    public double getP99() {
+        return p99.getQuantil();
+    }
+}
@@ -1,26 +1,83 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.PriorityQueue;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.LinkedList;
 
 public class Simulador {
 
+    // Tolerância na soma das probabilidades de saída de uma fila
+    private static final double TOLERANCIA_PROB = 1e-9;
+
+    // Cabeçalho do estado salvo (ponto de controle)
+    private static final int MAGICO_ESTADO = 0x53494D45; // "SIME"
+    private static final int VERSAO_ESTADO = 3;
+
     // Parâmetros Globais da Simulação
     private double tempoGlobal;
-    private PriorityQueue<Evento> agenda;
-    private LCG rng;
+    private long eventosProcessados;
+    private AgendaEventos agenda;
     private List<Fila> redeDeFilas;
+    private GeradorAleatorio rng;
+    private long rndLimit;
+    private long aleatoriosRestantes;
+
+    // Fluxos de aleatórios por finalidade. Por padrão todos são o próprio rng
+    // (sequência única, como no enunciado); com fluxos separados cada finalidade
+    // usa um subfluxo independente, o que permite números aleatórios comuns
+    // entre cenários diferentes.
+    private boolean fluxosSeparados;
+    private FonteAleatoria[] rngChegadas;
+    private FonteAleatoria rngRoteamento;
+    private FonteAleatoria[] rngServico;
+    // Geradores distintos por trás dos fluxos acima, em ordem fixa (estado salvo no ponto de controle)
+    private GeradorAleatorio[] geradores;
+
+    // Critério de parada e estado da coleta de estatísticas
+    private CriterioParada parada = CriterioParada.porAleatorios();
+    private double inicioColeta;          // fim do aquecimento
+    private boolean aquecimentoConcluido;
+    private long saidasDoSistema;         // clientes que deixaram a rede após o atendimento
+    private LotesFila[] lotes;            // médias em lote por fila (modo PRECISAO ou setMediasEmLote)
+    private double fimLote;
+    private boolean mediasEmLote;
+    private double tamanhoLoteInicial;    // <= 0: automático (ver tamanhoLoteAutomatico)
+    private boolean terminada;            // critério de parada atingido (tempos finais já creditados)
+
+    // Instrumentação opcional (null = desligada): contagens locais publicadas a cada
+    // Instrumentacao.INTERVALO_PUBLICACAO eventos
+    private Instrumentacao instrumentacao;
+    private final long[] eventosPorTipo = new long[3];
+    private int eventosNaoPublicados;
+    private int[] perdidosPublicados;
+    private Instrumentacao.ExecucaoJfr eventoJfr;
+
+    // Rastro binário dos eventos para depuração (null = desligado)
+    private GravadorRastro rastro;
+
+    // Fontes de chegadas externas, uma por fila que recebe clientes de fora da rede
+    private List<FonteChegada> fontes;
 
-    // Parâmetros da Rede
-    private double minChegada;
-    private double maxChegada;
-    private double initialArrivalTime; // ex: 2.0
+    // Fontes compiladas antes da execução: distribuição dos intervalos entre chegadas
+    // indexada pelo id da fila (null = sem chegadas externas)
+    private Distribuicao[] chegadas;
 
     // Rotas probabilísticas: map sourceQueueId -> list of (targetId, probability)
     private Map<Integer, List<Transicao>> roteamento;
 
+    // Rotas compiladas antes da execução: tabela de alias por fila (null = sem rotas)
+    // e conjunto das filas que têm rotas de saída
+    private TabelaAlias[] rotasCompiladas;
+    private BitSet temRotas;
+
     // Classe interna para representar transição
     private static class Transicao {
         public int target;
@@ -28,15 +85,94 @@ public class Simulador {
         public Transicao(int t, double p) { this.target = t; this.prob = p; }
     }
 
+    // Chegadas externas de uma fila: intervalo entre chegadas e instante da primeira
+    private static class FonteChegada {
+        public int fila;
+        public Distribuicao intervalo;
+        public double primeira;
+        public FonteChegada(int fila, Distribuicao intervalo, double primeira) {
+            this.fila = fila; this.intervalo = intervalo; this.primeira = primeira;
+        }
+    }
+
+    // Fluxo que desconta do orçamento da execução cada número sorteado; as distribuições
+    // sorteiam por ele quantos números precisarem (a amostra em curso pode terminar
+    // alguns números depois de o orçamento acabar, e a execução para em seguida).
+    // Subfluxos, cópia e ponto de controle são os do gerador envolvido (geradores)
+    private final class FluxoContado implements FonteAleatoria {
+        private final GeradorAleatorio fluxo;
+
+        FluxoContado(GeradorAleatorio fluxo) {
+            this.fluxo = fluxo;
+        }
+
+        @Override
+        public double nextRandom() {
+            aleatoriosRestantes--;
+            return fluxo.proximo();
+        }
+    }
+
     // Construtor estendido: passa seed e rndLimit para o LCG e também o time do 1º cliente
     public Simulador(double minChegada, double maxChegada, long seed, int rndLimit, double initialArrivalTime) {
-        this.minChegada = minChegada;
-        this.maxChegada = maxChegada;
-        this.initialArrivalTime = initialArrivalTime;
-        this.rng = new LCG(seed, rndLimit);
-        this.agenda = new PriorityQueue<>();
+        this(minChegada, maxChegada, new LCG(seed), rndLimit, initialArrivalTime);
+    }
+
+    // Construtor com gerador explícito e uma única fonte de chegadas na fila 0
+    public Simulador(double minChegada, double maxChegada, GeradorAleatorio rng, long rndLimit, double initialArrivalTime) {
+        this(rng, rndLimit);
+        adicionarChegadaExterna(0, minChegada, maxChegada, initialArrivalTime);
+    }
+
+    // Construtor sem fontes de chegada (ver adicionarChegadaExterna); rndLimit é o
+    // total de aleatórios da execução
+    public Simulador(GeradorAleatorio rng, long rndLimit) {
+        this.rng = rng;
+        this.rndLimit = rndLimit;
+        this.agenda = new AgendaHeap();
         this.redeDeFilas = new ArrayList<>();
         this.roteamento = new HashMap<>();
+        this.fontes = new ArrayList<>();
+    }
+
+    // Usa subfluxos independentes para chegadas, roteamento e serviço de cada fila
+    public void setFluxosSeparados(boolean fluxosSeparados) {
+        this.fluxosSeparados = fluxosSeparados;
+    }
+
+    public void setCriterioParada(CriterioParada parada) {
+        this.parada = parada;
+    }
+
+    public CriterioParada getCriterioParada() {
+        return parada;
+    }
+
+    // Liga o rastreamento por cliente (tempos de espera e permanência) em todas as filas
+    public void setRastrearClientes(boolean rastrear) {
+        for (Fila f : redeDeFilas) f.rastreamento = rastrear ? new RastreamentoClientes() : null;
+    }
+
+    // Médias em lote de população, perdas e P0 de todas as filas em uma única execução
+    // longa (intervalos de confiança de estado estacionário sem replicações). No modo
+    // PRECISAO ficam sempre ligadas, com a duração de lote do critério de parada.
+    public void setMediasEmLote(boolean ligar, double tamanhoLoteInicial) {
+        this.mediasEmLote = ligar;
+        this.tamanhoLoteInicial = tamanhoLoteInicial;
+    }
+
+    // Grava cada evento processado no rastro (ver LeitorRastro); o rastro é fechado por quem o abriu
+    public void setRastro(GravadorRastro rastro) {
+        this.rastro = rastro;
+    }
+
+    public void setInstrumentacao(Instrumentacao instrumentacao) {
+        this.instrumentacao = instrumentacao;
+    }
+
+    // Troca a implementação da lista de eventos (padrão: AgendaHeap)
+    public void setAgenda(AgendaEventos agenda) {
+        this.agenda = agenda;
     }
 
     // Método para adicionar fila (usa sua classe Fila existente)
@@ -46,70 +182,144 @@ public class Simulador {
 
     // Adiciona uma transição probabilística (sourceId -> targetId com prob)
     public void adicionarTransicao(int sourceId, int targetId, double prob) {
-        roteamento.computeIfAbsent(sourceId, k -> new LinkedList<>()).add(new Transicao(targetId, prob));
+        roteamento.computeIfAbsent(sourceId, k -> new ArrayList<>()).add(new Transicao(targetId, prob));
     }
 
-    // Escolhe destino a partir de uma fila de origem, usando RNG do LCG
-    private int escolherDestino(int sourceId) {
-        List<Transicao> lista = roteamento.get(sourceId);
-        if (lista == null || lista.isEmpty()) {
-            // fallback: se não configurado, cliente sai do sistema
-            return -1; // sem destino
+    // Adiciona uma fonte de chegadas externas na fila filaId: intervalos uniformes em
+    // [min, max] e primeira chegada no instante primeira. Todas as fontes compartilham a agenda.
+    public void adicionarChegadaExterna(int filaId, double min, double max, double primeira) {
+        adicionarChegadaExterna(filaId, new DistribuicaoUniforme(min, max), primeira);
+    }
+
+    public void adicionarChegadaExterna(int filaId, Distribuicao intervalo, double primeira) {
+        fontes.add(new FonteChegada(filaId, intervalo, primeira));
+    }
+
+    private void compilarFontes() {
+        int n = redeDeFilas.size();
+        chegadas = new Distribuicao[n];
+        for (FonteChegada f : fontes) {
+            if (f.fila < 0 || f.fila >= n) {
+                throw new IllegalArgumentException("Chegadas externas em fila inexistente: " + f.fila);
+            }
+            if (chegadas[f.fila] != null) {
+                throw new IllegalArgumentException("Fila " + redeDeFilas.get(f.fila).nome + " com duas fontes de chegada");
+            }
+            chegadas[f.fila] = f.intervalo;
         }
-        double u = rng.nextRandom(); // vai decrementar count internamente
-        double cumul = 0.0;
-        for (Transicao t : lista) {
-            cumul += t.prob;
-            if (u <= cumul) return t.target;
+    }
+
+    // Sem nenhum sorteio (tudo determinístico e sem rotas) o orçamento de aleatórios
+    // nunca se esgotaria
+    private void verificarConsumoDeAleatorios() {
+        if (!parada.usaOrcamentoAleatorios() || !temRotas.isEmpty()) return;
+        for (Fila f : redeDeFilas) {
+            if (!f.atendimento.deterministica()) return;
         }
-        // proteção: retornar último destino se soma ≈ 1
-        return lista.get(lista.size()-1).target;
+        for (Distribuicao d : chegadas) {
+            if (d != null && !d.deterministica()) return;
+        }
+        throw new IllegalArgumentException("Modelo sem sorteios não termina por aleatórios: use stop: time ou departures");
     }
 
-    private void tratarChegada(Evento e) {
-        Fila fila = redeDeFilas.get(e.filaDestino); // Chegada externa -> filaDestino normalmente 0
-        fila.clientesNoSistema++;
-        if (fila.clientesNoSistema <= fila.servidores) {
-            // inicia atendimento e agenda saida ou passagem
-            if (roteamento.containsKey(fila.id)) {
-                agendarPassagem(fila, tempoGlobal);
-            } else {
-                agendarSaida(fila, tempoGlobal);
+    // Valida e compila o modelo sem executar; devolve as tabelas de rotas por fila (null =
+    // sem rotas). Usado por SimuladorLockstep, que executa o mesmo modelo em outro motor
+    TabelaAlias[] compilarModelo() {
+        compilarRotas();
+        compilarFontes();
+        verificarConsumoDeAleatorios();
+        return rotasCompiladas.clone();
+    }
+
+    // Compila as rotas em tabelas de alias indexadas pelo id da fila.
+    // A soma das probabilidades de cada fila deve ser <= 1; o restante é a saída do sistema.
+    private void compilarRotas() {
+        int n = redeDeFilas.size();
+        rotasCompiladas = new TabelaAlias[n];
+        temRotas = new BitSet(n);
+        for (Map.Entry<Integer, List<Transicao>> entrada : roteamento.entrySet()) {
+            int origem = entrada.getKey();
+            List<Transicao> lista = entrada.getValue();
+            if (origem < 0 || origem >= n) {
+                throw new IllegalArgumentException("Rota com fila de origem inexistente: " + origem);
+            }
+            if (lista.isEmpty()) continue;
+
+            double soma = 0.0;
+            for (Transicao t : lista) {
+                if (t.target < 0 || t.target >= n) {
+                    throw new IllegalArgumentException("Rota com fila de destino inexistente: " + t.target);
+                }
+                if (t.prob < 0) {
+                    throw new IllegalArgumentException("Probabilidade negativa na rota " + origem + " -> " + t.target);
+                }
+                soma += t.prob;
             }
+            if (soma > 1.0 + TOLERANCIA_PROB) {
+                throw new IllegalArgumentException(String.format(
+                        "Probabilidades de saída da fila %s somam %.6f (> 1)", redeDeFilas.get(origem).nome, soma));
+            }
+
+            double restante = 1.0 - soma;
+            int tamanho = restante > TOLERANCIA_PROB ? lista.size() + 1 : lista.size();
+            double[] pesos = new double[tamanho];
+            int[] destinos = new int[tamanho];
+            for (int i = 0; i < lista.size(); i++) {
+                pesos[i] = lista.get(i).prob;
+                destinos[i] = lista.get(i).target;
+            }
+            if (tamanho > lista.size()) {
+                pesos[tamanho - 1] = restante;
+                destinos[tamanho - 1] = -1; // saída do sistema
+            }
+            rotasCompiladas[origem] = new TabelaAlias(pesos, destinos);
+            temRotas.set(origem);
+        }
+    }
+
+    // Escolhe destino a partir de uma fila de origem, usando RNG do LCG (-1 = sai do sistema)
+    private int escolherDestino(int sourceId) {
+        TabelaAlias tabela = rotasCompiladas[sourceId];
+        if (tabela == null) {
+            // fallback: se não configurado, cliente sai do sistema
+            return -1; // sem destino
         }
-        // se superou a capacidade, conta perda
-        if (fila.clientesNoSistema > fila.capacidade) {
-            fila.clientesNoSistema--; // não entra no sistema
+        return tabela.sortear(rngRoteamento.nextRandom()); // vai decrementar o orçamento de aleatórios
+    }
+
+    private void tratarChegada(int filaDestino) {
+        Fila fila = redeDeFilas.get(filaDestino); // Chegada externa -> filaDestino normalmente 0
+        if (fila.clientesNoSistema < fila.capacidade) {
+            admitir(fila);
+        } else {
+            // se superaria a capacidade, conta perda (cliente não entra no sistema)
             fila.clientesPerdidos++;
         }
-        // após processar uma chegada externa, agenda próxima chegada (se houver aleatórios)
-        agendarProximaChegada();
+        // após processar uma chegada externa, agenda a próxima chegada da mesma fonte
+        agendarProximaChegada(filaDestino);
     }
 
-    private void tratarPassagem(Evento e) {
+    // Devolve o destino do cliente (-1 = saiu do sistema)
+    private int tratarPassagem(int filaOrigem, int filaDestino) {
         // passagem: cliente sai da filaOrigem e vai para filaDestino
-        Fila origem = redeDeFilas.get(e.filaOrigem);
+        Fila origem = redeDeFilas.get(filaOrigem);
+        origem.acumulaTempo(tempoGlobal);
         origem.clientesNoSistema--; // saiu da origem
+        origem.clientesAtendidos++;
 
         int destino = -1;
         // se filaDestino >=0 no evento, usa-o; caso contrário, resolve via tabela de rotas
-        if (e.filaDestino >= 0) destino = e.filaDestino;
-        else destino = escolherDestino(e.filaOrigem);
+        if (filaDestino >= 0) destino = filaDestino;
+        else destino = escolherDestino(filaOrigem);
+
+        if (destino < 0) saidasDoSistema++;
 
         if (destino >= 0 && destino < redeDeFilas.size()) {
             Fila fDestino = redeDeFilas.get(destino);
             
             // Verifica se pode entrar na fila destino (não exceder capacidade)
             if (fDestino.clientesNoSistema < fDestino.capacidade) {
-                fDestino.clientesNoSistema++;
-                if (fDestino.clientesNoSistema <= fDestino.servidores) {
-                    // decide se agenda passagem ou saída baseado nas rotas
-                    if (roteamento.containsKey(destino)) {
-                        agendarPassagem(fDestino, tempoGlobal);
-                    } else {
-                        agendarSaida(fDestino, tempoGlobal);
-                    }
-                }
+                admitir(fDestino);
             } else {
                 // perda na fila destino - capacidade lotada
                 fDestino.clientesPerdidos++;
@@ -119,137 +329,571 @@ public class Simulador {
 
         // se ainda há clientes na fila origem esperando, agenda próximo atendimento
         if (origem.clientesNoSistema >= origem.servidores) {
-            if (roteamento.containsKey(origem.id)) {
-                agendarPassagem(origem, tempoGlobal);
-            } else {
-                agendarSaida(origem, tempoGlobal);
-            }
+            iniciarAtendimento(origem);
         }
+        return destino;
     }
 
-    private void tratarSaida(Evento e) {
-        Fila fila = redeDeFilas.get(e.filaOrigem);
+    private void tratarSaida(int filaOrigem) {
+        Fila fila = redeDeFilas.get(filaOrigem);
+        fila.acumulaTempo(tempoGlobal);
         fila.clientesNoSistema--;
+        fila.clientesAtendidos++;
+        saidasDoSistema++;
         if (fila.clientesNoSistema >= fila.servidores) {
-            if (roteamento.containsKey(fila.id)) {
-                agendarPassagem(fila, tempoGlobal);
-            } else {
-                agendarSaida(fila, tempoGlobal);
-            }
+            iniciarAtendimento(fila);
         }
     }
 
-    private void agendarProximaChegada() {
-        if (rng.hasNext()) {
-            double intervalo = rng.uniforme(this.minChegada, this.maxChegada);
-            agenda.add(new Evento(tempoGlobal + intervalo, Evento.CHEGADA, -1, 0));
+    // Cliente entra na fila (já verificada a capacidade); se há servidor livre, é atendido
+    private void admitir(Fila fila) {
+        fila.acumulaTempo(tempoGlobal);
+        fila.clientesNoSistema++;
+        if (fila.rastreamento != null) fila.rastreamento.registrarEntrada(tempoGlobal);
+        if (fila.clientesNoSistema <= fila.servidores) {
+            iniciarAtendimento(fila);
         }
     }
 
-    private void agendarPassagem(Fila filaOrigem, double tempoAtual) {
-        if (rng.hasNext()) {
-            double servico = rng.uniforme(filaOrigem.minAtendimento, filaOrigem.maxAtendimento);
-            // usamos filaOrigem.id como origem e deixamos filaDestino = -1 para decidir via tabela de rotas
-            agenda.add(new Evento(tempoAtual + servico, Evento.PASSAGEM, filaOrigem.id, -1));
+    // Inicia o atendimento do próximo cliente da fila: sorteia o serviço e agenda
+    // passagem (se a fila tem rotas) ou saída do sistema
+    private void iniciarAtendimento(Fila fila) {
+        if (!temAleatorios()) return;
+        double servico = fila.atendimento.amostrar(rngServico[fila.id]);
+        fila.somaAtendimentos += servico;
+        fila.atendimentosSorteados++;
+        if (temRotas.get(fila.id)) {
+            // filaDestino = -1 para decidir via tabela de rotas no fim do atendimento
+            agenda.agendar(tempoGlobal + servico, Evento.PASSAGEM, fila.id, -1);
+        } else {
+            agenda.agendar(tempoGlobal + servico, Evento.SAIDA, fila.id, -1);
         }
+        if (fila.rastreamento != null) fila.rastreamento.registrarInicioAtendimento(tempoGlobal, servico);
+    }
+
+    private boolean temAleatorios() {
+        return aleatoriosRestantes > 0;
     }
 
-    private void agendarSaida(Fila filaOrigem, double tempoAtual) {
-        if (rng.hasNext()) {
-            double servico = rng.uniforme(filaOrigem.minAtendimento, filaOrigem.maxAtendimento);
-            agenda.add(new Evento(tempoAtual + servico, Evento.SAIDA, filaOrigem.id, -1));
+    private void prepararFluxos() {
+        int n = redeDeFilas.size();
+        rngServico = new FonteAleatoria[n];
+        rngChegadas = new FonteAleatoria[n];
+        if (fluxosSeparados) {
+            // fluxo 0: roteamento; 1 + i: serviço da fila i; 1 + n + i: chegadas externas da fila i
+            if (1 + 2 * n > rng.subfluxos()) {
+                throw new IllegalArgumentException("substreams com " + n + " filas precisa de rng: xoshiro (o LCG tem 256 subfluxos)");
+            }
+            // Cada subfluxo sai do anterior com fluxo(1), um salto por fila em vez de k saltos
+            // para o subfluxo k; como o subfluxo ainda não sorteou nada, a sequência é a mesma
+            List<GeradorAleatorio> distintos = new ArrayList<>();
+            GeradorAleatorio fluxo = rng.fluxo(0);
+            distintos.add(fluxo);
+            rngRoteamento = new FluxoContado(fluxo);
+            for (int i = 0; i < n; i++) {
+                fluxo = fluxo.fluxo(1);
+                distintos.add(fluxo);
+                rngServico[i] = new FluxoContado(fluxo);
+            }
+            for (int i = 0; i < n; i++) {
+                fluxo = fluxo.fluxo(1);
+                if (chegadas[i] == null) continue;
+                distintos.add(fluxo);
+                rngChegadas[i] = new FluxoContado(fluxo);
+            }
+            geradores = distintos.toArray(new GeradorAleatorio[0]);
+        } else {
+            FonteAleatoria unico = new FluxoContado(rng);
+            rngRoteamento = unico;
+            for (int i = 0; i < n; i++) {
+                rngServico[i] = unico;
+                rngChegadas[i] = unico;
+            }
+            geradores = new GeradorAleatorio[] { rng };
         }
     }
 
+    private void agendarProximaChegada(int filaId) {
+        if (temAleatorios()) {
+            double intervalo = chegadas[filaId].amostrar(rngChegadas[filaId]);
+            Fila fila = redeDeFilas.get(filaId);
+            fila.somaIntervalos += intervalo;
+            fila.intervalosSorteados++;
+            agenda.agendar(tempoGlobal + intervalo, Evento.CHEGADA, -1, filaId);
+        }
+    }
+
+    // Executa a simulação e imprime os resultados no formato solicitado
     public void simular() {
+        executar();
+        imprimirResultados();
+    }
+
+    // Executa a simulação sem imprimir nada (usado pelas replicações)
+    public void executar() {
+        iniciar();
+        avancar(Long.MAX_VALUE);
+    }
+
+    // Prepara uma execução nova: filas zeradas e primeira chegada de cada fonte na agenda.
+    // Os eventos são processados por avancar (executar faz as duas coisas).
+    public void iniciar() {
         // System.out.println("=== Simulação de Filas em Tandem ===");
         tempoGlobal = 0.0;
-        agenda.clear();
+        eventosProcessados = 0;
+        saidasDoSistema = 0;
+        preparar();
+        verificarConsumoDeAleatorios();
+        // fora do modo ALEATORIOS o orçamento não limita a execução
+        aleatoriosRestantes = parada.usaOrcamentoAleatorios() ? rndLimit : Long.MAX_VALUE;
         for (Fila f : redeDeFilas) {
             f.reset();
         }
+        inicioColeta = 0.0;
+        aquecimentoConcluido = parada.aquecimento <= 0;
+        if (lotes != null) {
+            fimLote = parada.aquecimento + lotes[0].populacao.getTamanhoLote();
+        }
+
+        // agenda a primeira chegada de cada fonte no tempo pedido (ex.: 2.0)
+        for (FonteChegada f : fontes) {
+            agenda.agendar(f.primeira, Evento.CHEGADA, -1, f.fila);
+        }
+    }
+
+    // Compila o modelo e limpa a agenda (comum a iniciar e restaurarEstado)
+    private void preparar() {
+        terminada = false;
+        agenda.limpar();
+        compilarRotas();
+        compilarFontes();
+        prepararFluxos();
+        prepararLotes();
+
+        eventoJfr = null;
+        if (instrumentacao != null) {
+            Arrays.fill(eventosPorTipo, 0);
+            eventosNaoPublicados = 0;
+            perdidosPublicados = new int[redeDeFilas.size()];
+            eventoJfr = new Instrumentacao.ExecucaoJfr();
+            eventoJfr.begin();
+        }
+    }
 
-        // agenda a primeira chegada no tempo pedido (ex.: 2.0)
-        agenda.add(new Evento(this.initialArrivalTime, Evento.CHEGADA, -1, 0));
+    // Processa no máximo maxEventos eventos; devolve true quando a execução terminou
+    // (critério de parada atingido ou agenda vazia). Entre duas chamadas o estado pode
+    // ser salvo com salvarEstado/salvarCheckpoint.
+    public boolean avancar(long maxEventos) {
+        if (terminada) return true;
+        boolean fim = false;
 
         // loop principal: continuará enquanto existirem números aleatórios e eventos na agenda
-        while (rng.hasNext() && !agenda.isEmpty()) {
-            Evento e = agenda.poll();
-            tempoGlobal = e.tempo;
+        for (long processados = 0; processados < maxEventos; processados++) {
+            if (!temAleatorios() || agenda.isEmpty()) {
+                fim = true;
+                break;
+            }
+            agenda.removerProximo();
+            double tempoEvento = agenda.tempo();
+
+            if (parada.modo == CriterioParada.Modo.TEMPO && tempoEvento > parada.limite) {
+                tempoGlobal = parada.limite;
+                fim = true;
+                break;
+            }
+            if (!aquecimentoConcluido && tempoEvento > parada.aquecimento) {
+                concluirAquecimento();
+            }
+            if (lotes != null && fecharLotes(tempoEvento)) {
+                fim = true;
+                break; // precisão atingida: tempoGlobal fica no fim do último lote
+            }
 
-            // acumula os tempos por estado em cada fila
-            for (Fila f : redeDeFilas) f.acumulaTempo(tempoGlobal);
+            tempoGlobal = tempoEvento;
+            eventosProcessados++;
 
-            switch (e.tipo) {
+            // os tempos por estado são acumulados de forma preguiçosa: cada fila só
+            // credita o tempo no estado atual quando sua população muda (ver tratar*)
+
+            int tipo = agenda.tipo();
+            int destino = agenda.filaDestino();
+            switch (tipo) {
                 case Evento.CHEGADA:
-                    tratarChegada(e);
+                    tratarChegada(destino);
                     break;
                 case Evento.PASSAGEM:
-                    tratarPassagem(e);
+                    destino = tratarPassagem(agenda.filaOrigem(), destino);
                     break;
                 case Evento.SAIDA:
-                    tratarSaida(e);
+                    tratarSaida(agenda.filaOrigem());
                     break;
             }
+            if (rastro != null) registrarRastro(tipo, destino);
+
+            if (parada.modo == CriterioParada.Modo.SAIDAS && saidasDoSistema >= parada.limite) {
+                fim = true;
+                break;
+            }
+            if (instrumentacao != null) {
+                eventosPorTipo[tipo]++;
+                if (++eventosNaoPublicados >= Instrumentacao.INTERVALO_PUBLICACAO && publicarInstrumentacao()) {
+                    fim = true;
+                    break; // cancelada externamente (JMX)
+                }
+            }
+        }
+
+        if (fim) encerrar();
+        return fim;
+    }
+
+    private void encerrar() {
+        // credita o tempo restante no estado final de cada fila
+        for (Fila f : redeDeFilas) f.acumulaTempo(tempoGlobal);
+        terminada = true;
+        if (rastro != null) rastro.registrarFim(tempoGlobal);
+
+        if (instrumentacao != null) {
+            publicarInstrumentacao();
+            instrumentacao.concluirExecucao(eventosProcessados, tempoGlobal, eventoJfr);
+        }
+    }
+
+    private void registrarRastro(int tipo, int destino) {
+        int origem = tipo == Evento.CHEGADA ? -1 : agenda.filaOrigem();
+        rastro.registrar(tempoGlobal, tipo, origem, destino,
+                origem >= 0 ? redeDeFilas.get(origem).clientesNoSistema : 0,
+                destino >= 0 ? redeDeFilas.get(destino).clientesNoSistema : 0);
+    }
+
+    public boolean isTerminada() {
+        return terminada;
+    }
+
+    // Estado completo da execução (ponto de controle): relógio, orçamento de aleatórios,
+    // estado de cada gerador, eventos pendentes e contadores/estatísticas das filas.
+    // Restaurado em um simulador com o mesmo modelo, a continuação é idêntica bit a bit
+    // à execução sem interrupção. Chamar entre avancar(...) (ou antes do primeiro).
+    public ByteBuffer salvarEstado() {
+        EstadoBinario out = new EstadoBinario();
+        out.putInt(MAGICO_ESTADO);
+        out.putInt(VERSAO_ESTADO);
+        out.putInt(redeDeFilas.size());
+        for (Fila f : redeDeFilas) {
+            out.putInt(f.servidores);
+            out.putInt(f.capacidade);
+        }
+        out.putInt(rng.getClass().getName().hashCode());
+        out.putBoolean(fluxosSeparados);
+
+        out.putDouble(tempoGlobal);
+        out.putLong(eventosProcessados);
+        out.putLong(aleatoriosRestantes);
+        out.putLong(saidasDoSistema);
+        out.putDouble(inicioColeta);
+        out.putBoolean(aquecimentoConcluido);
+        out.putBoolean(terminada);
+        out.putBoolean(lotes != null);
+        if (lotes != null) {
+            for (LotesFila l : lotes) l.salvarEstado(out);
+            out.putDouble(fimLote);
+        }
+
+        out.putInt(geradores.length);
+        for (GeradorAleatorio g : geradores) g.salvarEstado(out);
+        for (Fila f : redeDeFilas) f.salvarEstado(out);
+
+        // a agenda é esvaziada em ordem e reconstruída na mesma ordem, o que preserva
+        // o desempate entre eventos simultâneos
+        int pendentes = agenda.tamanho();
+        double[] tempos = new double[pendentes];
+        int[] tipos = new int[pendentes];
+        int[] origens = new int[pendentes];
+        int[] destinos = new int[pendentes];
+        for (int i = 0; i < pendentes; i++) {
+            agenda.removerProximo();
+            tempos[i] = agenda.tempo();
+            tipos[i] = agenda.tipo();
+            origens[i] = agenda.filaOrigem();
+            destinos[i] = agenda.filaDestino();
+        }
+        out.putInt(pendentes);
+        for (int i = 0; i < pendentes; i++) {
+            agenda.agendar(tempos[i], tipos[i], origens[i], destinos[i]);
+            out.putDouble(tempos[i]);
+            out.putInt(tipos[i]);
+            out.putInt(origens[i]);
+            out.putInt(destinos[i]);
+        }
+        return out.paraLeitura();
+    }
+
+    // Continua a partir de um estado salvo. O modelo deste simulador deve ter as mesmas
+    // filas, o mesmo tipo de gerador e o mesmo modo de fluxos; para ramificações "e se",
+    // as filas podem ganhar servidores (os extras começam a atender no instante restaurado)
+    // e capacidade, e critério de parada e rotas podem mudar.
+    public void restaurarEstado(ByteBuffer estado) {
+        ByteBuffer in = estado.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.getInt() != MAGICO_ESTADO) throw new IllegalArgumentException("Não é um estado salvo do simulador");
+        int versao = in.getInt();
+        if (versao != VERSAO_ESTADO) throw new IllegalArgumentException("Versão de estado não suportada: " + versao);
+        int n = in.getInt();
+        if (n != redeDeFilas.size()) {
+            throw new IllegalArgumentException("Estado salvo com " + n + " filas; o modelo tem " + redeDeFilas.size());
+        }
+        int[] servidoresSalvos = new int[n];
+        for (int i = 0; i < n; i++) {
+            servidoresSalvos[i] = in.getInt();
+            in.getInt(); // capacidade: verificada pela população restaurada
+            if (redeDeFilas.get(i).servidores < servidoresSalvos[i]) {
+                throw new IllegalArgumentException("Fila " + redeDeFilas.get(i).nome + " com menos servidores que no estado salvo");
+            }
+        }
+        if (in.getInt() != rng.getClass().getName().hashCode() || EstadoBinario.getBoolean(in) != fluxosSeparados) {
+            throw new IllegalArgumentException("Estado salvo com outro gerador ou outro modo de fluxos");
+        }
+
+        preparar();
+        tempoGlobal = in.getDouble();
+        eventosProcessados = in.getLong();
+        aleatoriosRestantes = in.getLong();
+        saidasDoSistema = in.getLong();
+        inicioColeta = in.getDouble();
+        aquecimentoConcluido = EstadoBinario.getBoolean(in);
+        terminada = EstadoBinario.getBoolean(in);
+        if (EstadoBinario.getBoolean(in)) {
+            for (int i = 0; i < n; i++) {
+                LotesFila salvos = lotes != null ? lotes[i] : new LotesFila(1, CriterioParada.LOTES_MAXIMOS);
+                salvos.restaurarEstado(in);
+            }
+            double fim = in.getDouble();
+            if (lotes != null) fimLote = fim;
+        }
+        // o orçamento só vale no modo ALEATORIOS (ver iniciar)
+        if (!parada.usaOrcamentoAleatorios()) aleatoriosRestantes = Long.MAX_VALUE;
+
+        int numGeradores = in.getInt();
+        if (numGeradores != geradores.length) {
+            throw new IllegalArgumentException("Estado salvo com outras fontes de chegada");
+        }
+        for (GeradorAleatorio g : geradores) g.restaurarEstado(in);
+        for (Fila f : redeDeFilas) f.restaurarEstado(in);
+
+        int pendentes = in.getInt();
+        for (int i = 0; i < pendentes; i++) {
+            agenda.agendar(in.getDouble(), in.getInt(), in.getInt(), in.getInt());
+        }
+
+        if (lotes != null && Double.isNaN(fimLote)) {
+            // médias em lote ligadas agora: o primeiro lote começa no instante restaurado
+            fimLote = Math.max(tempoGlobal, parada.aquecimento) + lotes[0].populacao.getTamanhoLote();
+            for (Fila f : redeDeFilas) {
+                f.acumulaTempo(tempoGlobal);
+                lotes[f.id].iniciar(f);
+            }
+        }
+        if (instrumentacao != null) {
+            for (Fila f : redeDeFilas) perdidosPublicados[f.id] = f.clientesPerdidos;
         }
+        for (int i = 0; i < n; i++) {
+            Fila f = redeDeFilas.get(i);
+            int extras = Math.min(f.clientesNoSistema, f.servidores) - Math.min(f.clientesNoSistema, servidoresSalvos[i]);
+            for (int k = 0; k < extras; k++) iniciarAtendimento(f);
+        }
+    }
+
+    // Grava o estado em arquivo mapeado em memória
+    public void salvarCheckpoint(Path arquivo) throws IOException {
+        ByteBuffer estado = salvarEstado();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, estado.remaining());
+            mapa.put(estado);
+            mapa.force();
+        }
+    }
+
+    public void restaurarCheckpoint(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            restaurarEstado(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    // Cópia independente do simulador no ponto atual (mesmo modelo, filas novas);
+    // as duas cópias continuam com a mesma sequência de aleatórios
+    public Simulador clonar() {
+        Simulador copia = copiarModelo();
+        copia.restaurarEstado(salvarEstado());
+        return copia;
+    }
+
+    // Ramo a partir de um estado salvo deste modelo, com os aleatórios passando a vir de
+    // rng (mesmo tipo de gerador, e com fluxos separados os subfluxos 0..2n dele): ramos
+    // com geradores distintos seguem caminhos independentes a partir do mesmo ponto
+    public Simulador ramificar(ByteBuffer estado, GeradorAleatorio rng) {
+        Simulador ramo = copiarModelo();
+        ramo.restaurarEstado(estado);
+        ramo.rng = rng;
+        ramo.prepararFluxos();
+        return ramo;
+    }
+
+    // Simulador novo com o mesmo modelo e as mesmas opções, filas novas e sem estado
+    private Simulador copiarModelo() {
+        Simulador copia = new Simulador(rng.copiar(), rndLimit);
+        copia.fluxosSeparados = fluxosSeparados;
+        copia.parada = parada;
+        copia.instrumentacao = instrumentacao;
+        copia.mediasEmLote = mediasEmLote;
+        copia.tamanhoLoteInicial = tamanhoLoteInicial;
+        copia.agenda = agenda.nova();
+        // O rastro não passa para a cópia: as duas gravariam eventos de execuções
+        // diferentes no mesmo arquivo; quem quiser rastrear a cópia chama setRastro nela
+        for (Fila f : redeDeFilas) {
+            copia.adicionarFila(new Fila(f.id, f.nome, f.servidores, f.capacidade, f.atendimento));
+        }
+        copia.roteamento = roteamento;
+        copia.fontes = fontes;
+        return copia;
+    }
+
+    // Publica as contagens acumuladas desde a última publicação; devolve true se a
+    // instrumentação pediu o cancelamento
+    private boolean publicarInstrumentacao() {
+        for (Fila f : redeDeFilas) {
+            instrumentacao.publicarFila(f.id, f.clientesNoSistema, f.clientesPerdidos - perdidosPublicados[f.id]);
+            perdidosPublicados[f.id] = f.clientesPerdidos;
+        }
+        boolean cancelar = instrumentacao.publicar(eventosNaoPublicados, eventosPorTipo, tempoGlobal,
+                agenda.tamanho(), progresso());
+        eventosNaoPublicados = 0;
+        return cancelar;
+    }
+
+    // Fração concluída segundo o critério de parada (NaN no modo PRECISAO)
+    private double progresso() {
+        switch (parada.modo) {
+            case ALEATORIOS:
+                return 1.0 - (double) aleatoriosRestantes / rndLimit;
+            case TEMPO:
+                return tempoGlobal / parada.limite;
+            case SAIDAS:
+                return saidasDoSistema / parada.limite;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    // Descarta as estatísticas do aquecimento, mantendo o estado das filas
+    private void concluirAquecimento() {
+        inicioColeta = parada.aquecimento;
+        if (instrumentacao != null) {
+            publicarInstrumentacao(); // as perdas do aquecimento continuam contadas na instrumentação
+            Arrays.fill(perdidosPublicados, 0);
+        }
+        for (Fila f : redeDeFilas) f.descartarEstatisticas(inicioColeta);
+        if (rastro != null) rastro.registrarAquecimento(inicioColeta);
+        if (lotes != null) {
+            for (LotesFila l : lotes) l.descartar();
+        }
+        aquecimentoConcluido = true;
+    }
+
+    private void prepararLotes() {
+        lotes = null;
+        boolean precisao = parada.modo == CriterioParada.Modo.PRECISAO;
+        if (!precisao && !mediasEmLote) return;
+        if (precisao && (parada.filaAlvo < 0 || parada.filaAlvo >= redeDeFilas.size())) {
+            throw new IllegalArgumentException("Fila alvo inválida para o critério de precisão: " + parada.filaAlvo);
+        }
+        double tamanho = precisao ? parada.tamanhoLote
+                : tamanhoLoteInicial > 0 ? tamanhoLoteInicial : tamanhoLoteAutomatico();
+        lotes = new LotesFila[redeDeFilas.size()];
+        for (int i = 0; i < lotes.length; i++) lotes[i] = new LotesFila(tamanho, CriterioParada.LOTES_MAXIMOS);
+        fimLote = Double.NaN; // definido por iniciar ou restaurarEstado
+    }
+
+    // Dez vezes o maior tempo médio de atendimento ou entre chegadas da rede; lotes curtos
+    // demais são agrupados depois (pelo limite de lotes e pela autocorrelação)
+    private double tamanhoLoteAutomatico() {
+        double maior = 0;
+        for (Fila f : redeDeFilas) maior = Math.max(maior, f.atendimento.media());
+        for (Distribuicao d : chegadas) {
+            if (d != null) maior = Math.max(maior, d.media());
+        }
+        return maior > 0 ? 10 * maior : 1.0;
+    }
+
+    // Fecha os lotes que terminam antes de tempoEvento; devolve true se a
+    // precisão pedida foi atingida (nesse caso tempoGlobal vai para o fim do lote)
+    private boolean fecharLotes(double tempoEvento) {
+        while (tempoEvento > fimLote) {
+            double duracao = lotes[0].populacao.getTamanhoLote();
+            for (Fila f : redeDeFilas) {
+                f.acumulaTempo(fimLote);
+                lotes[f.id].fechar(f, duracao);
+            }
+            tempoGlobal = fimLote;
+            fimLote += lotes[0].populacao.getTamanhoLote();
+
+            if (parada.modo == CriterioParada.Modo.PRECISAO) {
+                MediasEmLote alvo = lotes[parada.filaAlvo].populacao;
+                if (alvo.getNumLotes() >= CriterioParada.LOTES_MINIMOS
+                        && alvo.getSemiAmplitudeIC95() <= parada.limite * Math.abs(alvo.getMedia())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public double getTempoGlobal() {
+        return tempoGlobal;
+    }
+
+    // Tempo sobre o qual as estatísticas foram coletadas (descontado o aquecimento)
+    public double getTempoObservado() {
+        return tempoGlobal - inicioColeta;
+    }
+
+    public long getSaidasDoSistema() {
+        return saidasDoSistema;
+    }
+
+    // Médias em lote da fila alvo (apenas no modo PRECISAO)
+    public MediasEmLote getLotes() {
+        return lotes != null && parada.modo == CriterioParada.Modo.PRECISAO ? lotes[parada.filaAlvo].populacao : null;
+    }
+
+    // Médias em lote da fila (null se desligadas)
+    public LotesFila getLotesFila(int filaId) {
+        return lotes != null ? lotes[filaId] : null;
+    }
+
+    public long getEventosProcessados() {
+        return eventosProcessados;
+    }
+
+    public List<Fila> getFilas() {
+        return redeDeFilas;
+    }
+
+    // Distribuição dos intervalos entre chegadas externas da fila (null se ela não recebe chegadas externas)
+    public Distribuicao getChegadas(int filaId) {
+        return chegadas[filaId];
+    }
+
+    public boolean recebeChegadasExternas(int filaId) {
+        return chegadas[filaId] != null;
+    }
+
+    // Resultado completo da última execução
+    public ResultadoSimulacao getResultado(long seed) {
+        return ResultadoSimulacao.de(seed, this);
+    }
 
-        // Imprime resultados no formato solicitado
-        System.out.println("2.\tResultado da Fila 1: G/G/1, chegadas entre 2..4, atendimento entre 1..2:");
-        Fila f1 = redeDeFilas.get(0);
-        double populacaoMedia1 = 0.0;
-        int maxIndex1 = Math.min(f1.temposPorEstado.length-1, f1.capacidade);
-        for (int j = 0; j <= maxIndex1; j++) {
-            populacaoMedia1 += j * (f1.temposPorEstado[j] / tempoGlobal);
-        }
-        double probVazia1 = f1.temposPorEstado[0] / tempoGlobal;
-        System.out.printf("População média: %.4f clientes\n", populacaoMedia1);
-        System.out.printf("Clientes perdidos: %d\n", f1.clientesPerdidos);
-        System.out.printf("Probabilidade da fila estar vazia (P0): %.4f (%.2f%%)\n", probVazia1, probVazia1*100);
-        System.out.println();
-        System.out.println();
-        System.out.println();
-
-        System.out.println("3.\tResultado da Fila 2: G/G/2/5, atendimento entre 4..6:");
-        Fila f2 = redeDeFilas.get(1);
-        double populacaoMedia2 = 0.0;
-        int maxIndex2 = Math.min(f2.temposPorEstado.length-1, f2.capacidade);
-        for (int j = 0; j <= maxIndex2; j++) {
-            populacaoMedia2 += j * (f2.temposPorEstado[j] / tempoGlobal);
-        }
-        double probVazia2 = f2.temposPorEstado[0] / tempoGlobal;
-        System.out.printf("População média: %.4f clientes\n", populacaoMedia2);
-        System.out.printf("Clientes perdidos: %d\n", f2.clientesPerdidos);
-        System.out.printf("Probabilidade da fila estar vazia (P0): %.4f (%.2f%%)\n", probVazia2, probVazia2*100);
-        System.out.println();
-        System.out.println();
-        System.out.println();
-        System.out.println();
-
-        System.out.println("4.\tResultado da Fila 3: G/G/2/10, atendimento entre 5..15:");
-        Fila f3 = redeDeFilas.get(2);
-        double populacaoMedia3 = 0.0;
-        int maxIndex3 = Math.min(f3.temposPorEstado.length-1, f3.capacidade);
-        for (int j = 0; j <= maxIndex3; j++) {
-            populacaoMedia3 += j * (f3.temposPorEstado[j] / tempoGlobal);
-        }
-        double probVazia3 = f3.temposPorEstado[0] / tempoGlobal;
-        System.out.printf("População média: %.4f clientes\n", populacaoMedia3);
-        System.out.printf("Clientes perdidos: %d\n", f3.clientesPerdidos);
-        System.out.printf("Probabilidade da fila estar vazia (P0): %.4f (%.2f%%)\n", probVazia3, probVazia3*100);
-        System.out.println();
-        System.out.println();
-        System.out.println();
-
-        System.out.println("5.\tTempo total de simulação:");
-        System.out.printf("%.2f minutos\n", tempoGlobal);
-        System.out.println();
-        System.out.println();
-        System.out.println();
-        System.out.println();
-        System.out.println();
-        System.out.println();
-        System.out.println();
-        System.out.println();
-        System.out.println();
+    // Imprime os resultados de todas as filas no formato texto
+    public void imprimirResultados() {
+        new EscritorTexto(System.out).escrever(getResultado(-1));
     }
 }
@@ -0,0 +1,468 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// Motor alternativo que executa K replicações do mesmo modelo em uma única thread,
+// avançando todas juntas (lockstep): a cada passada cada raia (replicação) ainda ativa
+// processa o seu próximo evento. O estado fica em arrays de primitivos indexados por
+// [fila * K + raia] (população, perdas, relógios, histogramas), a agenda de cada raia é
+// um heap binário em um trecho fixo de arrays compartilhados e os aleatórios de cada
+// raia vêm em blocos gerados de uma vez (GeradorAleatorio.preencher). Sem objetos por
+// evento nem chamadas virtuais no caminho comum (atendimentos e chegadas uniformes).
+//
+// Cada raia reproduz exatamente a execução do Simulador com o mesmo gerador: mesma
+// ordem de sorteios, mesmo desempate de eventos simultâneos e mesmos acúmulos. Suporta
+// stop: randoms, time e departures com warmup, com sequência única de aleatórios; não
+// suporta substreams, trackCustomers, batchMeans nem stop: precision.
+public class SimuladorLockstep {
+
+    private static final int BLOCO_ALEATORIOS = 64;
+    private static final int ESTADOS_INICIAIS = 64;
+
+    private final EspecificacaoRede config;
+    private final int k;     // raias
+    private final int n;     // filas
+    private final CriterioParada parada;
+    private final long rndLimit;
+
+    // Modelo
+    private final int[] servidores;
+    private final int[] capacidade;
+    private final TabelaAlias[] rotas;
+    private final Distribuicao[] atendimento;
+    private final Distribuicao[] chegadas;
+    // Uniformes sorteadas direto do bloco (min + (max - min) * u, como DistribuicaoUniforme)
+    private final boolean[] atendimentoUniforme;
+    private final double[] minAtendimento, maxAtendimento;
+    private final boolean[] chegadaUniforme;
+    private final double[] minChegada, maxChegada;
+    private final int[] filaFonte;
+    private final double[] primeiraChegada;
+
+    // Estado por raia
+    private final double[] relogio;
+    private final long[] eventos;
+    private final long[] saidas;
+    private final long[] restantes;
+    private final double[] inicioColeta;
+    private final boolean[] aquecida;
+    private final boolean[] terminada;
+
+    // Estado por fila e raia: [fila * k + raia]
+    private final int[] populacao;
+    private final int[] perdidos;
+    private final long[] atendidos;
+    private final double[] ultimoEvento;
+    private final double[] area;
+    private final int[] maiorEstado;
+    private final double[] somaAtendimentos;
+    private final long[] atendimentosSorteados;
+    private final double[] somaIntervalos;
+    private final long[] intervalosSorteados;
+    // Tempo por estado da fila f: tempos[f][raia * largura[f] + estado]
+    private final double[][] tempos;
+    private final int[] largura;
+
+    // Agendas: a raia r ocupa [r * vagas, (r + 1) * vagas). Cabem todos os eventos
+    // possíveis: uma chegada por fonte e um fim de atendimento por servidor ocupado
+    private final int vagas;
+    private final double[] agendaTempo;
+    private final long[] agendaSequencia;
+    private final long[] agendaDados;
+    private final int[] agendaTamanho;
+    private final long[] proximaSequencia;
+
+    // Aleatórios: a raia r consome aleatorios[r * BLOCO + posicao[r]] e reabastece o bloco ao fim
+    private final GeradorAleatorio[] geradores;
+    private final double[] aleatorios;
+    private final int[] posicao;
+    private final FonteAleatoria[] raias; // para as distribuições não uniformes
+
+    public SimuladorLockstep(EspecificacaoRede config, List<GeradorAleatorio> geradores) {
+        if (geradores.isEmpty()) throw new IllegalArgumentException("lockstep: nenhuma replicação");
+        for (String opcao : new String[] {"substreams", "trackCustomers", "batchMeans"}) {
+            if (config.opcaoBooleana(opcao)) throw new IllegalArgumentException("lockstep não suporta " + opcao);
+        }
+        // o Simulador do modelo valida a rede e compila as rotas do mesmo jeito
+        Simulador modelo = Main.construirSimulador(config, geradores.get(0));
+        this.parada = modelo.getCriterioParada();
+        if (parada.modo == CriterioParada.Modo.PRECISAO) {
+            throw new IllegalArgumentException("lockstep não suporta stop: precision");
+        }
+        this.rotas = modelo.compilarModelo();
+        this.config = config;
+        this.rndLimit = config.rndnumbersPerSeed;
+        this.k = geradores.size();
+        this.n = config.filas.size();
+
+        servidores = new int[n];
+        capacidade = new int[n];
+        atendimento = new Distribuicao[n];
+        chegadas = new Distribuicao[n];
+        atendimentoUniforme = new boolean[n];
+        minAtendimento = new double[n];
+        maxAtendimento = new double[n];
+        chegadaUniforme = new boolean[n];
+        minChegada = new double[n];
+        maxChegada = new double[n];
+        int ocupaveis = 0;
+        for (int f = 0; f < n; f++) {
+            EspecificacaoFila e = config.filas.get(f);
+            servidores[f] = e.servidores;
+            capacidade[f] = e.capacidade;
+            atendimento[f] = e.atendimento;
+            atendimentoUniforme[f] = e.atendimento instanceof DistribuicaoUniforme;
+            minAtendimento[f] = e.atendimento.minimo();
+            maxAtendimento[f] = e.atendimento.maximo();
+            ocupaveis += Math.min(e.servidores, e.capacidade);
+        }
+        filaFonte = new int[config.chegadas.size()];
+        primeiraChegada = new double[filaFonte.length];
+        int s = 0;
+        for (Map.Entry<String, Double> chegada : config.chegadas.entrySet()) {
+            int f = config.indiceDe(chegada.getKey());
+            filaFonte[s] = f;
+            primeiraChegada[s++] = chegada.getValue();
+            chegadas[f] = modelo.getChegadas(f);
+            chegadaUniforme[f] = chegadas[f] instanceof DistribuicaoUniforme;
+            minChegada[f] = chegadas[f].minimo();
+            maxChegada[f] = chegadas[f].maximo();
+        }
+
+        relogio = new double[k];
+        eventos = new long[k];
+        saidas = new long[k];
+        restantes = new long[k];
+        inicioColeta = new double[k];
+        aquecida = new boolean[k];
+        terminada = new boolean[k];
+
+        populacao = new int[n * k];
+        perdidos = new int[n * k];
+        atendidos = new long[n * k];
+        ultimoEvento = new double[n * k];
+        area = new double[n * k];
+        maiorEstado = new int[n * k];
+        somaAtendimentos = new double[n * k];
+        atendimentosSorteados = new long[n * k];
+        somaIntervalos = new double[n * k];
+        intervalosSorteados = new long[n * k];
+        tempos = new double[n][];
+        largura = new int[n];
+        for (int f = 0; f < n; f++) {
+            largura[f] = Math.min(capacidade[f], ESTADOS_INICIAIS) + 1;
+            tempos[f] = new double[k * largura[f]];
+        }
+
+        vagas = filaFonte.length + ocupaveis;
+        agendaTempo = new double[k * vagas];
+        agendaSequencia = new long[k * vagas];
+        agendaDados = new long[k * vagas];
+        agendaTamanho = new int[k];
+        proximaSequencia = new long[k];
+
+        this.geradores = geradores.toArray(new GeradorAleatorio[0]);
+        aleatorios = new double[k * BLOCO_ALEATORIOS];
+        posicao = new int[k];
+        raias = new FonteAleatoria[k];
+        for (int r = 0; r < k; r++) raias[r] = new Raia(r);
+    }
+
+    // Fluxo de uma raia para as distribuições não uniformes: sorteia do buffer da raia
+    private final class Raia implements FonteAleatoria {
+        private final int raia;
+
+        Raia(int raia) {
+            this.raia = raia;
+        }
+
+        @Override
+        public double nextRandom() {
+            return sortear(raia);
+        }
+    }
+
+    public int getRaias() {
+        return k;
+    }
+
+    // Executa as K replicações até todas terminarem
+    public void executar() {
+        iniciar();
+        int[] ativas = new int[k];
+        for (int r = 0; r < k; r++) ativas[r] = r;
+        int numAtivas = k;
+        while (numAtivas > 0) {
+            for (int i = 0; i < numAtivas; ) {
+                if (passo(ativas[i])) ativas[i] = ativas[--numAtivas];
+                else i++;
+            }
+        }
+    }
+
+    private void iniciar() {
+        long orcamento = parada.usaOrcamentoAleatorios() ? rndLimit : Long.MAX_VALUE;
+        Arrays.fill(relogio, 0.0);
+        Arrays.fill(eventos, 0);
+        Arrays.fill(saidas, 0);
+        Arrays.fill(restantes, orcamento);
+        Arrays.fill(inicioColeta, 0.0);
+        Arrays.fill(aquecida, parada.aquecimento <= 0);
+        Arrays.fill(terminada, false);
+        Arrays.fill(populacao, 0);
+        Arrays.fill(perdidos, 0);
+        Arrays.fill(atendidos, 0);
+        Arrays.fill(ultimoEvento, 0.0);
+        Arrays.fill(area, 0.0);
+        Arrays.fill(maiorEstado, 0);
+        Arrays.fill(somaAtendimentos, 0.0);
+        Arrays.fill(atendimentosSorteados, 0);
+        Arrays.fill(somaIntervalos, 0.0);
+        Arrays.fill(intervalosSorteados, 0);
+        for (double[] t : tempos) Arrays.fill(t, 0.0);
+        Arrays.fill(agendaTamanho, 0);
+        Arrays.fill(proximaSequencia, 0);
+        Arrays.fill(posicao, BLOCO_ALEATORIOS);
+        for (int r = 0; r < k; r++) {
+            for (int s = 0; s < filaFonte.length; s++) agendar(r, primeiraChegada[s], Evento.CHEGADA, -1, filaFonte[s]);
+        }
+    }
+
+    // Processa o próximo evento da raia (mesma sequência de Simulador.avancar); devolve
+    // true quando a raia terminou
+    private boolean passo(int r) {
+        if (restantes[r] <= 0 || agendaTamanho[r] == 0) return encerrar(r);
+        int base = r * vagas;
+        double tempo = agendaTempo[base];
+        long dados = agendaDados[base];
+        removerProximo(r);
+
+        if (parada.modo == CriterioParada.Modo.TEMPO && tempo > parada.limite) {
+            relogio[r] = parada.limite;
+            return encerrar(r);
+        }
+        if (!aquecida[r] && tempo > parada.aquecimento) concluirAquecimento(r);
+        relogio[r] = tempo;
+        eventos[r]++;
+
+        switch (AgendaHeap.tipoDe(dados)) {
+            case Evento.CHEGADA:
+                tratarChegada(r, AgendaHeap.destinoDe(dados));
+                break;
+            case Evento.PASSAGEM:
+                tratarPassagem(r, AgendaHeap.origemDe(dados), AgendaHeap.destinoDe(dados));
+                break;
+            case Evento.SAIDA:
+                tratarSaida(r, AgendaHeap.origemDe(dados));
+                break;
+        }
+        if (parada.modo == CriterioParada.Modo.SAIDAS && saidas[r] >= parada.limite) return encerrar(r);
+        return false;
+    }
+
+    private boolean encerrar(int r) {
+        for (int f = 0; f < n; f++) acumulaTempo(f, r, relogio[r]);
+        terminada[r] = true;
+        return true;
+    }
+
+    private void concluirAquecimento(int r) {
+        double inicio = parada.aquecimento;
+        inicioColeta[r] = inicio;
+        for (int f = 0; f < n; f++) {
+            int i = f * k + r;
+            acumulaTempo(f, r, inicio);
+            Arrays.fill(tempos[f], r * largura[f], r * largura[f] + maiorEstado[i] + 1, 0.0);
+            maiorEstado[i] = populacao[i];
+            perdidos[i] = 0;
+            atendidos[i] = 0;
+            area[i] = 0.0;
+            somaAtendimentos[i] = 0.0;
+            atendimentosSorteados[i] = 0;
+            somaIntervalos[i] = 0.0;
+            intervalosSorteados[i] = 0;
+        }
+        aquecida[r] = true;
+    }
+
+    private void tratarChegada(int r, int f) {
+        int i = f * k + r;
+        if (populacao[i] < capacidade[f]) admitir(r, f);
+        else perdidos[i]++;
+        if (restantes[r] > 0) {
+            double intervalo = chegadaUniforme[f]
+                    ? minChegada[f] + (maxChegada[f] - minChegada[f]) * sortear(r)
+                    : chegadas[f].amostrar(raias[r]);
+            somaIntervalos[i] += intervalo;
+            intervalosSorteados[i]++;
+            agendar(r, relogio[r] + intervalo, Evento.CHEGADA, -1, f);
+        }
+    }
+
+    private void tratarPassagem(int r, int origem, int destino) {
+        int i = origem * k + r;
+        acumulaTempo(origem, r, relogio[r]);
+        populacao[i]--;
+        atendidos[i]++;
+        if (destino < 0) destino = rotas[origem].sortear(sortear(r));
+        if (destino < 0) {
+            saidas[r]++;
+        } else if (populacao[destino * k + r] < capacidade[destino]) {
+            admitir(r, destino);
+        } else {
+            perdidos[destino * k + r]++;
+        }
+        if (populacao[i] >= servidores[origem]) iniciarAtendimento(r, origem);
+    }
+
+    private void tratarSaida(int r, int f) {
+        int i = f * k + r;
+        acumulaTempo(f, r, relogio[r]);
+        populacao[i]--;
+        atendidos[i]++;
+        saidas[r]++;
+        if (populacao[i] >= servidores[f]) iniciarAtendimento(r, f);
+    }
+
+    private void admitir(int r, int f) {
+        int i = f * k + r;
+        acumulaTempo(f, r, relogio[r]);
+        populacao[i]++;
+        if (populacao[i] <= servidores[f]) iniciarAtendimento(r, f);
+    }
+
+    private void iniciarAtendimento(int r, int f) {
+        if (restantes[r] <= 0) return;
+        double servico = atendimentoUniforme[f]
+                ? minAtendimento[f] + (maxAtendimento[f] - minAtendimento[f]) * sortear(r)
+                : atendimento[f].amostrar(raias[r]);
+        int i = f * k + r;
+        somaAtendimentos[i] += servico;
+        atendimentosSorteados[i]++;
+        agendar(r, relogio[r] + servico, rotas[f] != null ? Evento.PASSAGEM : Evento.SAIDA, f, -1);
+    }
+
+    // Mesma conta de Fila.acumulaTempo, com o histograma da raia crescendo sob demanda
+    private void acumulaTempo(int f, int r, double tempo) {
+        int i = f * k + r;
+        int estado = populacao[i];
+        if (estado > maiorEstado[i]) {
+            maiorEstado[i] = estado;
+            if (estado >= largura[f]) alargar(f, estado);
+        }
+        double duracao = tempo - ultimoEvento[i];
+        tempos[f][r * largura[f] + estado] += duracao;
+        area[i] += estado * duracao;
+        ultimoEvento[i] = tempo;
+    }
+
+    // Dobra a largura dos histogramas da fila em todas as raias (até capacidade + 1)
+    private void alargar(int f, int estado) {
+        int antiga = largura[f];
+        int nova = (int) Math.min((long) capacidade[f] + 1, 2L * antiga);
+        nova = Math.max(nova, estado + 1);
+        double[] maior = new double[k * nova];
+        for (int r = 0; r < k; r++) System.arraycopy(tempos[f], r * antiga, maior, r * nova, antiga);
+        tempos[f] = maior;
+        largura[f] = nova;
+    }
+
+    // Próximo aleatório da raia, descontado do orçamento
+    private double sortear(int r) {
+        int p = posicao[r];
+        if (p == BLOCO_ALEATORIOS) {
+            geradores[r].preencher(aleatorios, r * BLOCO_ALEATORIOS, BLOCO_ALEATORIOS);
+            p = 0;
+        }
+        posicao[r] = p + 1;
+        restantes[r]--;
+        return aleatorios[r * BLOCO_ALEATORIOS + p];
+    }
+
+    // Heap binário da raia ordenado por (tempo, sequência), como AgendaHeap
+    private void agendar(int r, double tempo, int tipo, int origem, int destino) {
+        int base = r * vagas;
+        long sequencia = proximaSequencia[r]++;
+        int i = agendaTamanho[r]++;
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            double tp = agendaTempo[base + pai];
+            if (tp < tempo || (tp == tempo && agendaSequencia[base + pai] < sequencia)) break;
+            agendaTempo[base + i] = tp;
+            agendaSequencia[base + i] = agendaSequencia[base + pai];
+            agendaDados[base + i] = agendaDados[base + pai];
+            i = pai;
+        }
+        agendaTempo[base + i] = tempo;
+        agendaSequencia[base + i] = sequencia;
+        agendaDados[base + i] = AgendaHeap.empacotar(tipo, origem, destino);
+    }
+
+    private void removerProximo(int r) {
+        int base = r * vagas;
+        int tamanho = --agendaTamanho[r];
+        if (tamanho == 0) return;
+        double tempo = agendaTempo[base + tamanho];
+        long sequencia = agendaSequencia[base + tamanho];
+        long dados = agendaDados[base + tamanho];
+        int i = 0;
+        int metade = tamanho >>> 1;
+        while (i < metade) {
+            int filho = 2 * i + 1;
+            int direito = filho + 1;
+            if (direito < tamanho && antes(base + direito, base + filho)) filho = direito;
+            double tf = agendaTempo[base + filho];
+            if (!(tf < tempo || (tf == tempo && agendaSequencia[base + filho] < sequencia))) break;
+            agendaTempo[base + i] = tf;
+            agendaSequencia[base + i] = agendaSequencia[base + filho];
+            agendaDados[base + i] = agendaDados[base + filho];
+            i = filho;
+        }
+        agendaTempo[base + i] = tempo;
+        agendaSequencia[base + i] = sequencia;
+        agendaDados[base + i] = dados;
+    }
+
+    private boolean antes(int a, int b) {
+        double ta = agendaTempo[a], tb = agendaTempo[b];
+        return ta < tb || (ta == tb && agendaSequencia[a] < agendaSequencia[b]);
+    }
+
+    // Filas da raia no formato do Simulador (estado final e estatísticas)
+    public List<Fila> getFilas(int r) {
+        List<Fila> filas = new ArrayList<>(n);
+        for (int f = 0; f < n; f++) {
+            EspecificacaoFila e = config.filas.get(f);
+            Fila fila = new Fila(f, e.nome, e.servidores, e.capacidade, e.atendimento);
+            int i = f * k + r;
+            fila.clientesNoSistema = populacao[i];
+            fila.clientesPerdidos = perdidos[i];
+            fila.clientesAtendidos = atendidos[i];
+            fila.tempoUltimoEvento = ultimoEvento[i];
+            fila.areaPopulacao = area[i];
+            fila.maiorEstado = maiorEstado[i];
+            fila.temposPorEstado = Arrays.copyOfRange(tempos[f], r * largura[f], (r + 1) * largura[f]);
+            fila.somaAtendimentos = somaAtendimentos[i];
+            fila.atendimentosSorteados = atendimentosSorteados[i];
+            fila.somaIntervalos = somaIntervalos[i];
+            fila.intervalosSorteados = intervalosSorteados[i];
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    // Distribuição dos intervalos entre chegadas externas da fila (null se não recebe)
+    public Distribuicao getChegadas(int filaId) {
+        return chegadas[filaId];
+    }
+
+    // Resultado da raia r, no mesmo formato de Simulador.getResultado
+    public ResultadoSimulacao getResultado(int r, long seed) {
+        if (!terminada[r]) throw new IllegalStateException("Raia " + r + " não terminou");
+        double observado = relogio[r] - inicioColeta[r];
+        List<ResultadoFila> filas = new ArrayList<>(n);
+        for (Fila f : getFilas(r)) filas.add(ResultadoFila.de(f, observado, chegadas[f.id], null));
+        return new ResultadoSimulacao(seed, relogio[r], observado, eventos[r], filas);
+    }
+}
@@ -0,0 +1,429 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+// Simulação paralela por eventos discretos (PDES) de uma única execução de uma rede
+// grande. As filas são divididas em processos lógicos pela conectividade do grafo de
+// rotas; cada processo tem sua agenda e sua thread, e as chegadas de uma fila em outro
+// processo vão por caixas de mensagens sem trava (CaixaMensagens, uma por par).
+//
+// Sincronização conservadora em janelas: o destino de cada cliente é sorteado no
+// início do atendimento e, se for outro processo, a chegada é enviada já com o instante
+// do fim do atendimento, que fica pelo menos minAtendimento da fila à frente. Com
+// lookahead L = menor minAtendimento das filas com rotas entre processos, nenhum
+// processo recebe mensagem com tempo anterior a T + L, onde T é o próximo evento de toda
+// a rede; cada janela [T, T + L) é processada em paralelo e, entre janelas, as mensagens
+// são entregues em ordem fixa. Filas com minAtendimento = 0 ficam no mesmo processo que
+// os destinos das suas rotas.
+//
+// Cada fila sorteia atendimento, chegadas externas e rotas em subfluxos próprios, então
+// o resultado não depende do número de threads nem do escalonamento, mas não é o mesmo
+// da execução sequencial (que sorteia as rotas em um fluxo único): coincide com ela
+// estatisticamente. Só stop: time (com warmup opcional).
+public class SimuladorParalelo {
+
+    private final EspecificacaoRede config;
+    private final CriterioParada parada;
+    private final int n;
+    private final Fila[] filas;
+    private final TabelaAlias[] rotas;
+    private final Distribuicao[] chegadas;
+    private final GeradorAleatorio[] rngServico;
+    private final GeradorAleatorio[] rngChegadas;
+    private final GeradorAleatorio[] rngRotas;
+
+    private final int[] processoDe;
+    private final ProcessoLogico[] processos;
+    private final CaixaMensagens[][] caixas; // [origem][destino], null sem rotas entre eles
+    private final double lookahead;
+
+    // Janela atual, definida pela ação da barreira (visível a todos após await)
+    private double fimJanela;
+    private boolean terminar;
+    private double tempoFinal;
+    private long janelas;
+    private volatile Throwable erro;
+
+    public SimuladorParalelo(EspecificacaoRede config, GeradorAleatorio rng, int particoes) {
+        if (particoes < 1) throw new IllegalArgumentException("partitions deve ser positivo");
+        for (String opcao : new String[] {"batchMeans", "trace", "checkpoint"}) {
+            if (config.opcoes.containsKey(opcao) && !"false".equals(config.opcao(opcao))) {
+                throw new IllegalArgumentException("partitions não suporta " + opcao);
+            }
+        }
+        // o Simulador do modelo valida a rede e compila as rotas do mesmo jeito
+        Simulador modelo = Main.construirSimulador(config, rng);
+        this.parada = modelo.getCriterioParada();
+        if (parada.modo != CriterioParada.Modo.TEMPO) {
+            throw new IllegalArgumentException("partitions exige stop: time");
+        }
+        this.rotas = modelo.compilarModelo();
+        this.config = config;
+        this.n = config.filas.size();
+
+        filas = new Fila[n];
+        chegadas = new Distribuicao[n];
+        for (int f = 0; f < n; f++) {
+            EspecificacaoFila e = config.filas.get(f);
+            filas[f] = new Fila(f, e.nome, e.servidores, e.capacidade, e.atendimento);
+            if (config.opcaoBooleana("trackCustomers")) filas[f].rastreamento = new RastreamentoClientes();
+            chegadas[f] = modelo.getChegadas(f);
+        }
+
+        // subfluxos 1 + i (atendimento), 1 + n + i (chegadas, como no Simulador) e
+        // 1 + 2n + i (rotas da fila i), derivados em sequência: fluxo(1) de um subfluxo
+        // ainda não usado é o subfluxo seguinte
+        rngServico = new GeradorAleatorio[n];
+        rngChegadas = new GeradorAleatorio[n];
+        rngRotas = new GeradorAleatorio[n];
+        if (3 * n + 1 > rng.subfluxos()) {
+            throw new IllegalArgumentException("partitions com " + n + " filas precisa de rng: xoshiro (o LCG tem 256 subfluxos)");
+        }
+        GeradorAleatorio fluxo = rng.fluxo(1);
+        for (GeradorAleatorio[] destino : List.of(rngServico, rngChegadas, rngRotas)) {
+            for (int f = 0; f < n; f++) {
+                destino[f] = fluxo;
+                fluxo = fluxo.fluxo(1);
+            }
+        }
+
+        processoDe = particionar(config, particoes);
+        int p = 0;
+        for (int x : processoDe) p = Math.max(p, x + 1);
+        caixas = new CaixaMensagens[p][p];
+        double menor = Double.POSITIVE_INFINITY;
+        for (EspecificacaoRota r : config.rotas) {
+            int origem = config.indiceDe(r.origem), destino = config.indiceDe(r.destino);
+            if (r.probabilidade <= 0 || processoDe[origem] == processoDe[destino]) continue;
+            menor = Math.min(menor, filas[origem].minAtendimento);
+            if (caixas[processoDe[origem]][processoDe[destino]] == null) {
+                caixas[processoDe[origem]][processoDe[destino]] = new CaixaMensagens();
+            }
+        }
+        lookahead = menor;
+
+        processos = new ProcessoLogico[p];
+        int[] tamanhos = new int[p];
+        for (int x : processoDe) tamanhos[x]++;
+        for (int i = 0; i < p; i++) processos[i] = new ProcessoLogico(i, new int[tamanhos[i]]);
+        Arrays.fill(tamanhos, 0);
+        for (int f = 0; f < n; f++) processos[processoDe[f]].filas[tamanhos[processoDe[f]]++] = f;
+    }
+
+    // Processo lógico de cada fila. Blocos de filas ligadas por rotas a partir de filas
+    // com minAtendimento = 0 (sem lookahead) são indivisíveis; os blocos são ordenados
+    // por busca em largura no grafo de rotas (vizinhos ficam próximos) e a sequência é
+    // cortada em partes de carga parecida, com a carga de cada fila estimada pela taxa
+    // de chegada das equações de tráfego (AnaliseJackson)
+    static int[] particionar(EspecificacaoRede config, int particoes) {
+        int n = config.filas.size();
+        int[] bloco = new int[n];
+        for (int f = 0; f < n; f++) bloco[f] = f;
+        List<List<Integer>> vizinhos = new ArrayList<>();
+        for (int f = 0; f < n; f++) vizinhos.add(new ArrayList<>());
+        for (EspecificacaoRota r : config.rotas) {
+            if (r.probabilidade <= 0) continue;
+            int origem = config.indiceDe(r.origem), destino = config.indiceDe(r.destino);
+            vizinhos.get(origem).add(destino);
+            vizinhos.get(destino).add(origem);
+            if (config.filas.get(origem).atendimento.minimo() <= 0) unir(bloco, origem, destino);
+        }
+
+        double[] carga = new double[n];
+        double total = 0;
+        try {
+            List<AnaliseJackson.ResultadoNo> trafego = AnaliseJackson.resolver(config);
+            for (int f = 0; f < n; f++) {
+                double taxa = trafego.get(f).chegada;
+                carga[f] = Double.isFinite(taxa) && taxa > 0 ? taxa : 0.0;
+                total += carga[f];
+            }
+        } catch (IllegalStateException e) {
+            total = 0; // equações de tráfego sem convergência: carga igual por fila
+        }
+        if (total <= 0) {
+            Arrays.fill(carga, 1.0);
+            total = n;
+        }
+
+        // busca em largura; ao visitar uma fila, o bloco inteiro dela entra na sequência
+        List<List<Integer>> membros = new ArrayList<>();
+        for (int f = 0; f < n; f++) membros.add(new ArrayList<>());
+        for (int f = 0; f < n; f++) membros.get(raiz(bloco, f)).add(f);
+        boolean[] visitada = new boolean[n];
+        boolean[] emitido = new boolean[n];
+        int[] processo = new int[n];
+        double acumulada = 0;
+        Deque<Integer> fronteira = new ArrayDeque<>();
+        for (int inicio = 0; inicio < n; inicio++) {
+            if (visitada[inicio]) continue;
+            visitada[inicio] = true;
+            fronteira.add(inicio);
+            while (!fronteira.isEmpty()) {
+                int f = fronteira.poll();
+                int b = raiz(bloco, f);
+                if (!emitido[b]) {
+                    emitido[b] = true;
+                    double peso = 0;
+                    for (int m : membros.get(b)) peso += carga[m];
+                    int parte = (int) Math.min(particoes - 1, Math.floor((acumulada + peso / 2) * particoes / total));
+                    acumulada += peso;
+                    for (int m : membros.get(b)) {
+                        processo[m] = parte;
+                        if (!visitada[m]) {
+                            visitada[m] = true;
+                            fronteira.add(m);
+                        }
+                    }
+                }
+                for (int v : vizinhos.get(f)) {
+                    if (!visitada[v]) {
+                        visitada[v] = true;
+                        fronteira.add(v);
+                    }
+                }
+            }
+        }
+
+        // renumera sem partes vazias
+        int[] novo = new int[particoes];
+        Arrays.fill(novo, -1);
+        int usadas = 0;
+        for (int f = 0; f < n; f++) {
+            if (novo[processo[f]] < 0) novo[processo[f]] = usadas++;
+            processo[f] = novo[processo[f]];
+        }
+        return processo;
+    }
+
+    private static int raiz(int[] bloco, int f) {
+        while (bloco[f] != f) {
+            bloco[f] = bloco[bloco[f]];
+            f = bloco[f];
+        }
+        return f;
+    }
+
+    private static void unir(int[] bloco, int a, int b) {
+        bloco[raiz(bloco, a)] = raiz(bloco, b);
+    }
+
+    // Filas de um processo lógico com a sua agenda; só a thread do processo os altera
+    private final class ProcessoLogico {
+        final int indice;
+        final int[] filas;
+        final AgendaHeap agenda = new AgendaHeap();
+        double agora;
+        double proximo;
+        long eventos;
+        long enviadas;
+        boolean aquecido;
+
+        ProcessoLogico(int indice, int[] filas) {
+            this.indice = indice;
+            this.filas = filas;
+        }
+
+        void iniciar() {
+            agenda.limpar();
+            agora = 0.0;
+            eventos = 0;
+            enviadas = 0;
+            aquecido = parada.aquecimento <= 0;
+            for (int f : filas) SimuladorParalelo.this.filas[f].reset();
+            for (Map.Entry<String, Double> chegada : config.chegadas.entrySet()) {
+                int f = config.indiceDe(chegada.getKey());
+                if (processoDe[f] == indice) agenda.agendar(chegada.getValue(), Evento.CHEGADA, -1, f);
+            }
+        }
+
+        // Entrega as mensagens recebidas (em ordem fixa de processo de origem)
+        void receber() {
+            for (CaixaMensagens[] deOrigem : caixas) {
+                if (deOrigem[indice] != null) deOrigem[indice].entregar(agenda);
+            }
+            proximo = agenda.isEmpty() ? Double.POSITIVE_INFINITY : agenda.proximoTempo();
+        }
+
+        // Processa os eventos anteriores a fim (e até o limite de tempo)
+        void janela(double fim) {
+            while (!agenda.isEmpty()) {
+                double tempo = agenda.proximoTempo();
+                if (tempo >= fim || tempo > parada.limite) break;
+                agenda.removerProximo();
+                if (!aquecido && tempo > parada.aquecimento) concluirAquecimento();
+                agora = tempo;
+                eventos++;
+                int origem = agenda.filaOrigem();
+                int destino = agenda.filaDestino();
+                switch (agenda.tipo()) {
+                    case Evento.CHEGADA:
+                        chegar(destino);
+                        if (origem < 0) agendarProximaChegada(destino);
+                        break;
+                    case Evento.PASSAGEM:
+                        concluirAtendimento(origem);
+                        chegar(destino);
+                        break;
+                    case Evento.SAIDA:
+                        concluirAtendimento(origem);
+                        break;
+                }
+            }
+        }
+
+        void encerrar() {
+            if (!aquecido && parada.aquecimento < tempoFinal) concluirAquecimento();
+            for (int f : filas) SimuladorParalelo.this.filas[f].acumulaTempo(tempoFinal);
+        }
+
+        private void concluirAquecimento() {
+            for (int f : filas) SimuladorParalelo.this.filas[f].descartarEstatisticas(parada.aquecimento);
+            aquecido = true;
+        }
+
+        private void chegar(int f) {
+            Fila fila = SimuladorParalelo.this.filas[f];
+            if (fila.clientesNoSistema >= fila.capacidade) {
+                fila.clientesPerdidos++;
+                return;
+            }
+            fila.acumulaTempo(agora);
+            fila.clientesNoSistema++;
+            if (fila.rastreamento != null) fila.rastreamento.registrarEntrada(agora);
+            if (fila.clientesNoSistema <= fila.servidores) iniciarAtendimento(fila);
+        }
+
+        private void concluirAtendimento(int f) {
+            Fila fila = SimuladorParalelo.this.filas[f];
+            fila.acumulaTempo(agora);
+            fila.clientesNoSistema--;
+            fila.clientesAtendidos++;
+            if (fila.clientesNoSistema >= fila.servidores) iniciarAtendimento(fila);
+        }
+
+        // Sorteia atendimento e destino; chegadas em outro processo são enviadas já agora
+        private void iniciarAtendimento(Fila fila) {
+            double servico = fila.atendimento.amostrar(rngServico[fila.id]);
+            fila.somaAtendimentos += servico;
+            fila.atendimentosSorteados++;
+            double fim = agora + servico;
+            int destino = rotas[fila.id] != null ? rotas[fila.id].sortear(rngRotas[fila.id].nextRandom()) : -1;
+            if (destino >= 0 && processoDe[destino] != indice) {
+                caixas[indice][processoDe[destino]].enviar(fim, fila.id, destino);
+                enviadas++;
+                destino = -1;
+            }
+            if (destino >= 0) agenda.agendar(fim, Evento.PASSAGEM, fila.id, destino);
+            else agenda.agendar(fim, Evento.SAIDA, fila.id, -1);
+            if (fila.rastreamento != null) fila.rastreamento.registrarInicioAtendimento(agora, servico);
+        }
+
+        private void agendarProximaChegada(int f) {
+            double intervalo = chegadas[f].amostrar(rngChegadas[f]);
+            Fila fila = SimuladorParalelo.this.filas[f];
+            fila.somaIntervalos += intervalo;
+            fila.intervalosSorteados++;
+            agenda.agendar(agora + intervalo, Evento.CHEGADA, -1, f);
+        }
+    }
+
+    public int getProcessos() {
+        return processos.length;
+    }
+
+    public double getLookahead() {
+        return lookahead;
+    }
+
+    public long getJanelas() {
+        return janelas;
+    }
+
+    public long getMensagens() {
+        long total = 0;
+        for (ProcessoLogico p : processos) total += p.enviadas;
+        return total;
+    }
+
+    // Executa a simulação com uma thread por processo lógico
+    public void executar() {
+        for (ProcessoLogico p : processos) p.iniciar();
+        janelas = 0;
+        erro = null;
+        CyclicBarrier envio = new CyclicBarrier(processos.length);
+        CyclicBarrier janela = new CyclicBarrier(processos.length, this::calcularJanela);
+        Thread[] threads = new Thread[processos.length];
+        for (int i = 0; i < threads.length; i++) {
+            ProcessoLogico p = processos[i];
+            threads[i] = new Thread(() -> {
+                try {
+                    while (true) {
+                        // outro processo já falhou (antes de esta thread receber a interrupção)
+                        if (erro != null) return;
+                        p.receber();
+                        janela.await();
+                        if (terminar) break;
+                        p.janela(fimJanela);
+                        envio.await();
+                    }
+                    p.encerrar();
+                } catch (InterruptedException | BrokenBarrierException e) {
+                    // outro processo falhou (erro já registrado)
+                } catch (Throwable e) {
+                    if (erro == null) erro = e;
+                    // reset() só liberaria quem já espera; interrompidos, os demais processos
+                    // quebram a barreira em que estão ou a próxima que alcançarem
+                    for (Thread t : threads) if (t != Thread.currentThread()) t.interrupt();
+                }
+            }, "processo-logico-" + i);
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Simulação paralela interrompida", e);
+            }
+        }
+        if (erro != null) throw new RuntimeException("Erro em um processo lógico: " + erro.getMessage(), erro);
+    }
+
+    // Ação da barreira: a próxima janela começa no próximo evento de toda a rede
+    private void calcularJanela() {
+        double inicio = Double.POSITIVE_INFINITY;
+        for (ProcessoLogico p : processos) inicio = Math.min(inicio, p.proximo);
+        terminar = inicio > parada.limite;
+        if (terminar) {
+            // agenda vazia: a execução termina no último evento, como no Simulador
+            tempoFinal = parada.limite;
+            if (inicio == Double.POSITIVE_INFINITY) {
+                tempoFinal = 0.0;
+                for (ProcessoLogico p : processos) tempoFinal = Math.max(tempoFinal, p.agora);
+            }
+        } else {
+            fimJanela = inicio + lookahead;
+            janelas++;
+        }
+    }
+
+    public List<Fila> getFilas() {
+        return List.of(filas);
+    }
+
+    public ResultadoSimulacao getResultado(long seed) {
+        double inicioColeta = parada.aquecimento > 0 && parada.aquecimento < tempoFinal ? parada.aquecimento : 0.0;
+        double observado = tempoFinal - inicioColeta;
+        long eventos = 0;
+        for (ProcessoLogico p : processos) eventos += p.eventos;
+        List<ResultadoFila> resultados = new ArrayList<>(n);
+        for (Fila f : filas) resultados.add(ResultadoFila.de(f, observado, chegadas[f.id], null));
+        return new ResultadoSimulacao(seed, tempoFinal, observado, eventos, resultados);
+    }
+}
@@ -0,0 +1,68 @@
+// Tabela de alias de Walker/Vose: sorteia um entre n resultados com
+// probabilidades arbitrárias em O(1), usando um único número aleatório.
+public class TabelaAlias {
+
+    private final double[] probabilidade;
+    private final int[] alias;
+    private final int[] resultados;
+
+    // pesos[i] é o peso do resultado resultados[i]; os pesos são normalizados
+    public TabelaAlias(double[] pesos, int[] resultados) {
+        int n = pesos.length;
+        if (n == 0 || n != resultados.length) {
+            throw new IllegalArgumentException("Tabela de alias precisa de pesos e resultados do mesmo tamanho");
+        }
+        double total = 0.0;
+        for (double p : pesos) {
+            if (p < 0 || Double.isNaN(p)) throw new IllegalArgumentException("Peso inválido: " + p);
+            total += p;
+        }
+        if (total <= 0) throw new IllegalArgumentException("Soma dos pesos deve ser positiva");
+
+        this.probabilidade = new double[n];
+        this.alias = new int[n];
+        this.resultados = resultados.clone();
+
+        // Vose: separa colunas abaixo e acima da média e as emparelha
+        double[] escalado = new double[n];
+        int[] pequenos = new int[n];
+        int[] grandes = new int[n];
+        int np = 0, ng = 0;
+        for (int i = 0; i < n; i++) {
+            escalado[i] = pesos[i] * n / total;
+            if (escalado[i] < 1.0) pequenos[np++] = i;
+            else grandes[ng++] = i;
+        }
+        while (np > 0 && ng > 0) {
+            int p = pequenos[--np];
+            int g = grandes[--ng];
+            probabilidade[p] = escalado[p];
+            alias[p] = g;
+            escalado[g] = (escalado[g] + escalado[p]) - 1.0;
+            if (escalado[g] < 1.0) pequenos[np++] = g;
+            else grandes[ng++] = g;
+        }
+        while (ng > 0) {
+            int g = grandes[--ng];
+            probabilidade[g] = 1.0;
+            alias[g] = g;
+        }
+        while (np > 0) { // sobras por erro de arredondamento
+            int p = pequenos[--np];
+            probabilidade[p] = 1.0;
+            alias[p] = p;
+        }
+    }
+
+    public int tamanho() {
+        return resultados.length;
+    }
+
+    // Sorteia um resultado a partir de u uniforme em [0, 1)
+    public int sortear(double u) {
+        double x = u * probabilidade.length;
+        int coluna = (int) x;
+        if (coluna >= probabilidade.length) coluna = probabilidade.length - 1;
+        return (x - coluna) < probabilidade[coluna] ? resultados[coluna] : resultados[alias[coluna]];
+    }
+}
@@ -0,0 +1,105 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Processo trabalhador da execução distribuída (ver Coordenador): recebe a configuração,
+// executa as tarefas (cenário, seed) em paralelo e devolve um registro binário por tarefa
+public class Trabalhador {
+
+    public static void executar(String host, int porta, int paralelismo) throws IOException {
+        try (Socket socket = new Socket(host, porta)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(Coordenador.MAGICO);
+            out.writeInt(Coordenador.VERSAO);
+            out.writeInt(paralelismo);
+            out.flush();
+            Thread pulso = new Thread(() -> pulsar(out), "trabalhador-pulso");
+            pulso.setDaemon(true);
+            pulso.start();
+
+            EspecificacaoRede config = EspecificacaoRede.ler(in);
+            List<Varredura.Cenario> cenarios = Coordenador.cenarios(config);
+            ExecutorService pool = Executors.newFixedThreadPool(paralelismo);
+            try {
+                while (in.readByte() == Coordenador.TAREFA) {
+                    int c = in.readInt();
+                    int seed = in.readInt();
+                    pool.execute(() -> executarTarefa(cenarios.get(c).config, config.seeds, c, seed, out));
+                }
+            } finally {
+                pool.shutdown();
+                try {
+                    pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // Avisa o coordenador de que o processo continua vivo enquanto as tarefas demoram
+    private static void pulsar(DataOutputStream out) {
+        try {
+            while (true) {
+                Thread.sleep(Coordenador.INTERVALO_PULSO_MS);
+                synchronized (out) {
+                    out.writeByte(Coordenador.PULSO);
+                    out.flush();
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // conexão encerrada
+        }
+    }
+
+    private static void executarTarefa(EspecificacaoRede config, List<Long> seeds, int c, int seed, DataOutputStream out) {
+        ResultadoSimulacao resultado;
+        try {
+            Simulador simulador = Main.construirSimulador(config, Main.criarGerador(config, seeds, seed));
+            simulador.executar();
+            resultado = simulador.getResultado(seeds.get(seed));
+        } catch (RuntimeException e) {
+            synchronized (out) {
+                try {
+                    out.writeByte(Coordenador.ERRO);
+                    out.writeUTF("cenário " + (c + 1) + ", seed " + seeds.get(seed) + ": " + e.getMessage());
+                    out.flush();
+                } catch (IOException ignorada) {
+                    // conexão perdida: o coordenador reatribui a tarefa
+                }
+            }
+            return;
+        } catch (Throwable e) {
+            // Error (falta de memória, estouro de pilha): este processo deixa a coordenação
+            // fechando a conexão, e o coordenador entrega as tarefas dele a outro
+            synchronized (out) {
+                try {
+                    out.close();
+                } catch (IOException ignorada) {
+                    // conexão já perdida
+                }
+            }
+            throw e;
+        }
+        synchronized (out) {
+            try {
+                out.writeByte(Coordenador.RESULTADO);
+                out.writeInt(c);
+                out.writeInt(seed);
+                resultado.escrever(out);
+                out.flush();
+            } catch (IOException e) {
+                // conexão perdida: o coordenador reatribui a tarefa
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Modo de varredura ("what-if"): expande o produto cartesiano dos valores declarados
+// na seção sweep do YAML, executa todas as células cenário x seed em paralelo e
+// imprime uma tabela comparativa. Todos os cenários usam as mesmas seeds com fluxos
+// separados por finalidade (números aleatórios comuns), de modo que as diferenças
+// em relação ao cenário base são estimadas de forma pareada, com menos replicações.
+public class Varredura {
+
+    public static class Cenario {
+        public final String descricao;
+        public final EspecificacaoRede config;
+
+        public Cenario(String descricao, EspecificacaoRede config) {
+            this.descricao = descricao;
+            this.config = config;
+        }
+    }
+
+    // Expande o produto cartesiano da seção sweep em cenários
+    public static List<Cenario> expandir(EspecificacaoRede config) {
+        Map<String, List<String>> sweep = config.varredura;
+        List<Cenario> cenarios = new ArrayList<>();
+        List<String> parametros = new ArrayList<>(sweep.keySet());
+        int[] indices = new int[parametros.size()];
+
+        EspecificacaoRede base = config.semVarredura();
+        // números aleatórios comuns: fluxos separados, salvo se desligado explicitamente
+        if (base.opcao("substreams") == null) base = base.comOpcao("substreams", "true");
+
+        while (true) {
+            EspecificacaoRede derivada = base;
+            StringBuilder descricao = new StringBuilder();
+            for (int p = 0; p < parametros.size(); p++) {
+                String parametro = parametros.get(p);
+                String valor = sweep.get(parametro).get(indices[p]);
+                derivada = derivada.comParametro(parametro, valor);
+                if (descricao.length() > 0) descricao.append(", ");
+                descricao.append(parametro).append('=').append(valor);
+            }
+            cenarios.add(new Cenario(descricao.toString(), derivada));
+
+            // próximo índice do produto cartesiano (último parâmetro varia mais rápido)
+            int p = parametros.size() - 1;
+            while (p >= 0 && ++indices[p] == sweep.get(parametros.get(p)).size()) {
+                indices[p] = 0;
+                p--;
+            }
+            if (p < 0) break;
+        }
+        return cenarios;
+    }
+
+    public static Resultado executar(EspecificacaoRede config, List<Long> seeds) {
+        return executar(config, seeds, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Resultado executar(EspecificacaoRede config, List<Long> seeds, int paralelismo) {
+        return executar(config, seeds, paralelismo, null);
+    }
+
+    public static Resultado executar(EspecificacaoRede config, List<Long> seeds, int paralelismo,
+                                     Instrumentacao instrumentacao) {
+        // as células são execuções simples, comparadas seed a seed (sem par antitético nem controles)
+        for (String opcao : new String[] {"antithetic", "controlVariates"}) {
+            if (config.opcaoBooleana(opcao)) throw new IllegalArgumentException("sweep não suporta " + opcao);
+        }
+        List<Cenario> cenarios = expandir(config);
+        Replicador.Replicacao[][] celulas = new Replicador.Replicacao[cenarios.size()][seeds.size()];
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            List<ForkJoinTask<?>> tarefas = new ArrayList<>();
+            for (int c = 0; c < cenarios.size(); c++) {
+                for (int s = 0; s < seeds.size(); s++) {
+                    int ic = c, is = s;
+                    EspecificacaoRede cfg = cenarios.get(c).config;
+                    tarefas.add(pool.submit(() -> {
+                        GeradorAleatorio rng = Main.criarGerador(cfg, seeds, is);
+                        celulas[ic][is] = Replicador.replicar(cfg, seeds.get(is), rng, instrumentacao);
+                    }));
+                }
+            }
+            for (ForkJoinTask<?> t : tarefas) t.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Varredura interrompida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro em uma célula da varredura: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new Resultado(cenarios, celulas);
+    }
+
+    public static class Resultado {
+        public final List<Cenario> cenarios;
+        public final Replicador.Replicacao[][] celulas; // [cenário][seed]
+
+        public Resultado(List<Cenario> cenarios, Replicador.Replicacao[][] celulas) {
+            this.cenarios = cenarios;
+            this.celulas = celulas;
+        }
+
+        public Replicador.Resumo resumo(int cenario) {
+            Replicador.Resumo resumo = new Replicador.Resumo(celulas[cenario][0].nomes);
+            for (Replicador.Replicacao r : celulas[cenario]) resumo.adicionar(r);
+            return resumo;
+        }
+
+        // Diferença pareada (cenário - base) de uma métrica de uma fila, seed a seed
+        public AcumuladorMedia diferenca(int cenario, int base, int fila, int metrica) {
+            AcumuladorMedia dif = new AcumuladorMedia();
+            for (int s = 0; s < celulas[cenario].length; s++) {
+                dif.adicionar(celulas[cenario][s].metricas[fila][metrica] - celulas[base][s].metricas[fila][metrica]);
+            }
+            return dif;
+        }
+
+        public void imprimir() {
+            String[] nomes = celulas[0][0].nomes;
+            System.out.printf("Varredura: %d cenários x %d seeds (IC de 95%%; Δ pareado em relação ao cenário 1)\n\n",
+                    cenarios.size(), celulas[0].length);
+            for (int c = 0; c < cenarios.size(); c++) {
+                System.out.printf("Cenário %d: %s\n", c + 1, cenarios.get(c).descricao);
+            }
+            System.out.println();
+
+            System.out.printf("%-8s %-16s %22s %22s %22s %10s\n",
+                    "cenário", "fila", "população média", "Δ população", "perdidos", "P0");
+            for (int c = 0; c < cenarios.size(); c++) {
+                Replicador.Resumo resumo = resumo(c);
+                for (int i = 0; i < nomes.length; i++) {
+                    AcumuladorMedia pop = resumo.metricas[i][Replicador.POPULACAO_MEDIA];
+                    AcumuladorMedia perd = resumo.metricas[i][Replicador.PERDIDOS];
+                    AcumuladorMedia dif = diferenca(c, 0, i, Replicador.POPULACAO_MEDIA);
+                    System.out.printf("%-8d %-16s %22s %22s %22s %10.4f\n", c + 1, nomes[i],
+                            intervalo(pop), c == 0 ? "-" : intervalo(dif), intervalo(perd),
+                            resumo.metricas[i][Replicador.PROB_VAZIA].getMedia());
+                }
+            }
+        }
+
+        private static String intervalo(AcumuladorMedia a) {
+            return String.format("%.4f ± %.4f", a.getMedia(), a.getSemiAmplitudeIC95());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Verifica que cada raia do SimuladorLockstep dá o mesmo resultado, byte a byte, que
+// um Simulador executado sozinho com o mesmo gerador (uso: java VerificaLockstep)
+public class VerificaLockstep {
+
+    private static final int RAIAS = 8;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== VERIFICAÇÃO DO MOTOR LOCKSTEP ===");
+        int falhas = 0;
+
+        System.out.println("\n1. DISTRIBUIÇÕES UNIFORMES:");
+        falhas += verificar("Tandem.yml", ConfigLoader.carregar("Tandem.yml"), false);
+        falhas += verificar("uniforme, warmup, stop: time", rede("uniform 2 4", "uniform 1 2", "uniform 3 6", "lcg"), false);
+
+        System.out.println("\n2. DISTRIBUIÇÕES NÃO UNIFORMES:");
+        falhas += verificar("exponencial/erlang, warmup, stop: time",
+                rede("exponential 1.1", "exponential 1", "erlang 3 1.5", "xoshiro"), false);
+        falhas += verificar("triangular/lognormal, warmup, stop: time",
+                rede("triangular 0.5 1 1.5", "lognormal 0.9 0.3", "deterministic 1.2", "xoshiro"), false);
+
+        System.out.println("\n3. PARES ANTITÉTICOS:");
+        falhas += verificar("exponencial/erlang, raias ímpares espelhadas",
+                rede("exponential 1.1", "exponential 1", "erlang 3 1.5", "xoshiro"), true);
+
+        System.out.println(falhas == 0 ? "\nTodas as raias idênticas ao Simulador." : "\n" + falhas + " raia(s) diferente(s).");
+        if (falhas > 0) System.exit(1);
+    }
+
+    // Rede de duas filas (Q -> R com probabilidade 0.6), com aquecimento e parada por tempo
+    private static EspecificacaoRede rede(String chegada, String atendimentoQ, String atendimentoR, String rng) {
+        Map<String, Double> chegadas = new LinkedHashMap<>();
+        chegadas.put("Q", 1.0);
+        List<EspecificacaoFila> filas = new ArrayList<>();
+        filas.add(new EspecificacaoFila("Q", Map.of("servers", "1", "capacity", "50",
+                "arrival", chegada, "service", atendimentoQ)));
+        filas.add(new EspecificacaoFila("R", Map.of("servers", "2", "capacity", "4", "service", atendimentoR)));
+        List<EspecificacaoRota> rotas = List.of(new EspecificacaoRota("Q", "R", 0.6));
+        Map<String, String> opcoes = Map.of("rng", rng, "stop", "time", "stopTime", "3000", "warmup", "200");
+        return new EspecificacaoRede(Long.MAX_VALUE, List.of(1L), chegadas, filas, rotas, opcoes, Map.of());
+    }
+
+    private static int verificar(String nome, EspecificacaoRede config, boolean antitetico) throws IOException {
+        List<Long> seeds = new ArrayList<>();
+        for (int r = 0; r < RAIAS; r++) seeds.add(1000L + 7 * r);
+        List<GeradorAleatorio> geradores = new ArrayList<>();
+        for (int r = 0; r < RAIAS; r++) geradores.add(gerador(config, seeds, r, antitetico));
+
+        SimuladorLockstep lockstep = new SimuladorLockstep(config, geradores);
+        lockstep.executar();
+
+        int iguais = 0;
+        for (int r = 0; r < RAIAS; r++) {
+            Simulador simulador = Main.construirSimulador(config, gerador(config, seeds, r, antitetico));
+            simulador.executar();
+            if (Arrays.equals(bytes(simulador.getResultado(seeds.get(r))), bytes(lockstep.getResultado(r, seeds.get(r))))) {
+                iguais++;
+            }
+        }
+        System.out.printf("   %s %s: %d/%d raias idênticas%n", iguais == RAIAS ? "✓" : "✗", nome, iguais, RAIAS);
+        return RAIAS - iguais;
+    }
+
+    private static GeradorAleatorio gerador(EspecificacaoRede config, List<Long> seeds, int r, boolean antitetico) {
+        GeradorAleatorio g = Main.criarGerador(config, seeds, r);
+        return antitetico && r % 2 == 1 ? new GeradorAntitetico(g) : g;
+    }
+
+    private static byte[] bytes(ResultadoSimulacao resultado) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        resultado.escrever(new DataOutputStream(saida));
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,127 @@
+import java.nio.ByteBuffer;
+
+// Gerador xoshiro256++ (Blackman e Vigna), período 2^256 - 1, semeado com SplitMix64.
+// Subfluxos usam a função de salto de 2^128 passos e replicações usam o salto
+// longo de 2^192 passos, de modo que as sequências nunca se sobrepõem na prática.
+public class Xoshiro256 extends GeradorAleatorio {
+    private static final long[] SALTO = {
+        0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL
+    };
+    private static final long[] SALTO_LONGO = {
+        0x76e15d3efefdcbbfL, 0xc5004e441c522fb3L, 0x77710069854ee241L, 0x39109bb02acbe635L
+    };
+
+    private long s0, s1, s2, s3;
+
+    public Xoshiro256(long seed) {
+        this(seed, Long.MAX_VALUE);
+    }
+
+    public Xoshiro256(long seed, long count) {
+        super(count);
+        long x = seed;
+        s0 = splitMix64(x += 0x9e3779b97f4a7c15L);
+        s1 = splitMix64(x += 0x9e3779b97f4a7c15L);
+        s2 = splitMix64(x += 0x9e3779b97f4a7c15L);
+        s3 = splitMix64(x += 0x9e3779b97f4a7c15L);
+    }
+
+    private Xoshiro256(Xoshiro256 origem) {
+        this(origem, Long.MAX_VALUE);
+    }
+
+    private Xoshiro256(Xoshiro256 origem, long count) {
+        super(count);
+        s0 = origem.s0;
+        s1 = origem.s1;
+        s2 = origem.s2;
+        s3 = origem.s3;
+    }
+
+    @Override
+    public GeradorAleatorio copiar() {
+        return new Xoshiro256(this, restantes());
+    }
+
+    @Override
+    protected void salvarInterno(EstadoBinario out) {
+        out.putLong(s0);
+        out.putLong(s1);
+        out.putLong(s2);
+        out.putLong(s3);
+    }
+
+    @Override
+    protected void restaurarInterno(ByteBuffer in) {
+        s0 = in.getLong();
+        s1 = in.getLong();
+        s2 = in.getLong();
+        s3 = in.getLong();
+    }
+
+    public long proximoLong() {
+        long resultado = Long.rotateLeft(s0 + s3, 23) + s0;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return resultado;
+    }
+
+    @Override
+    protected double proximo() {
+        return (proximoLong() >>> 11) * 0x1.0p-53;
+    }
+
+    // Avança 2^128 passos
+    public void saltar() {
+        aplicarSalto(SALTO);
+    }
+
+    // Avança 2^192 passos
+    public void saltarLongo() {
+        aplicarSalto(SALTO_LONGO);
+    }
+
+    @Override
+    public GeradorAleatorio fluxo(int k) {
+        Xoshiro256 sub = new Xoshiro256(this);
+        for (int i = 0; i < k; i++) sub.saltar();
+        return sub;
+    }
+
+    // Replicação r: r saltos longos a partir deste gerador
+    public Xoshiro256 replicacao(int r) {
+        Xoshiro256 rep = new Xoshiro256(this);
+        for (int i = 0; i < r; i++) rep.saltarLongo();
+        return rep;
+    }
+
+    private void aplicarSalto(long[] salto) {
+        long t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+        for (long palavra : salto) {
+            for (int b = 0; b < 64; b++) {
+                if ((palavra & (1L << b)) != 0) {
+                    t0 ^= s0;
+                    t1 ^= s1;
+                    t2 ^= s2;
+                    t3 ^= s3;
+                }
+                proximoLong();
+            }
+        }
+        s0 = t0;
+        s1 = t1;
+        s2 = t2;
+        s3 = t3;
+    }
+
+    private static long splitMix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
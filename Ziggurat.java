@@ -0,0 +1,84 @@
+// Amostradores ziggurat (Marsaglia e Tsang, na variante de Doornik com uniformes
+// em ponto flutuante) para a normal padrão e a exponencial de taxa 1. Cada amostra
+// usa um único número aleatório em ~99% dos casos: a parte inteira de u * camadas
+// escolhe a camada e a parte fracionária dá a abscissa. As tabelas são estáticas
+// e nada é alocado por amostra.
+final class Ziggurat {
+
+    private static final int CAMADAS_NORMAL = 128;
+    private static final double R_NORMAL = 3.442619855899;
+    private static final double V_NORMAL = 9.91256303526217e-3;
+
+    private static final int CAMADAS_EXP = 256;
+    private static final double R_EXP = 7.69711747013104972;
+    private static final double V_EXP = 3.949659822581572e-3;
+
+    // x[i]: abscissa da borda direita da camada i; razao[i] = x[i + 1] / x[i]
+    private static final double[] X_NORMAL = new double[CAMADAS_NORMAL + 1];
+    private static final double[] RAZAO_NORMAL = new double[CAMADAS_NORMAL];
+    private static final double[] X_EXP = new double[CAMADAS_EXP + 1];
+    private static final double[] RAZAO_EXP = new double[CAMADAS_EXP];
+
+    static {
+        double f = Math.exp(-0.5 * R_NORMAL * R_NORMAL);
+        X_NORMAL[0] = V_NORMAL / f; // camada 0: retângulo da base mais a cauda
+        X_NORMAL[1] = R_NORMAL;
+        for (int i = 2; i < CAMADAS_NORMAL; i++) {
+            X_NORMAL[i] = Math.sqrt(-2 * Math.log(V_NORMAL / X_NORMAL[i - 1] + f));
+            f = Math.exp(-0.5 * X_NORMAL[i] * X_NORMAL[i]);
+        }
+        for (int i = 0; i < CAMADAS_NORMAL; i++) RAZAO_NORMAL[i] = X_NORMAL[i + 1] / X_NORMAL[i];
+
+        f = Math.exp(-R_EXP);
+        X_EXP[0] = V_EXP / f;
+        X_EXP[1] = R_EXP;
+        for (int i = 2; i < CAMADAS_EXP; i++) {
+            X_EXP[i] = -Math.log(V_EXP / X_EXP[i - 1] + f);
+            f = Math.exp(-X_EXP[i]);
+        }
+        for (int i = 0; i < CAMADAS_EXP; i++) RAZAO_EXP[i] = X_EXP[i + 1] / X_EXP[i];
+    }
+
+    private Ziggurat() {
+    }
+
+    // Normal padrão N(0, 1)
+    static double normal(FonteAleatoria rng) {
+        while (true) {
+            double v = rng.nextRandom() * CAMADAS_NORMAL;
+            int i = (int) v;
+            double u = 2 * (v - i) - 1;
+            if (Math.abs(u) < RAZAO_NORMAL[i]) return u * X_NORMAL[i];
+            if (i == 0) return caudaNormal(rng, u < 0);
+            double x = u * X_NORMAL[i];
+            double f0 = Math.exp(-0.5 * (X_NORMAL[i] * X_NORMAL[i] - x * x));
+            double f1 = Math.exp(-0.5 * (X_NORMAL[i + 1] * X_NORMAL[i + 1] - x * x));
+            if (f1 + rng.nextRandom() * (f0 - f1) < 1.0) return x;
+        }
+    }
+
+    // Exponencial de taxa 1
+    static double exponencial(FonteAleatoria rng) {
+        while (true) {
+            double v = rng.nextRandom() * CAMADAS_EXP;
+            int i = (int) v;
+            double u = v - i;
+            if (u < RAZAO_EXP[i]) return u * X_EXP[i];
+            if (i == 0) return R_EXP - Math.log(1.0 - rng.nextRandom()); // cauda: sem memória
+            double x = u * X_EXP[i];
+            double f0 = Math.exp(-(X_EXP[i] - x));
+            double f1 = Math.exp(-(X_EXP[i + 1] - x));
+            if (f1 + rng.nextRandom() * (f0 - f1) < 1.0) return x;
+        }
+    }
+
+    // Cauda |x| > R da normal (método de Marsaglia)
+    private static double caudaNormal(FonteAleatoria rng, boolean negativa) {
+        double x, y;
+        do {
+            x = Math.log(1.0 - rng.nextRandom()) / R_NORMAL;
+            y = Math.log(1.0 - rng.nextRandom());
+        } while (-2 * y < x * x);
+        return negativa ? x - R_NORMAL : R_NORMAL - x;
+    }
+}